@@ -0,0 +1,560 @@
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+import com.cisco.sonic.converter.parser.RawLineRetention;
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.*;
+
+/**
+ * Parser throughput benchmark
+ *
+ * Parses a synthetic core-switch configuration (~200k lines) with the keyword-dispatch
+ * CiscoConfigParser and with the sequential regex chain it replaced, checks that both
+ * produce the same model, and prints lines/second for each, followed by the stanza-parallel
+ * mode on the common fork/join pool. The same configuration is then read from a file
+ * through the reader-based and memory-mapped input paths under each raw-line retention policy.
+ *
+ * Usage (after compiling src/ into bin/):
+ *   java --enable-preview --source 21 -cp bin benchmark_parser.java [lines] [iterations]
+ */
+void main(String[] args) throws Exception {
+    int targetLines = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+    int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+    String configText = generateConfig(targetLines);
+    long lineCount = configText.lines().count();
+    System.out.println("=== Parser Benchmark ===\n");
+    System.out.println("Synthetic configuration: " + lineCount + " lines, " + configText.length() / 1024 + " KB");
+
+    // The regex chain kept every raw line, so compare like for like
+    CiscoConfigParser parser = new CiscoConfigParser(RawLineRetention.FULL);
+    RegexChainParser baseline = new RegexChainParser();
+
+    // Both engines must agree before their timings mean anything
+    String expected = summarize(baseline.parse(new BufferedReader(new StringReader(configText))));
+    String actual = summarize(parser.parseString(configText));
+    if (!expected.equals(actual)) {
+        System.out.println("✗ Parsed models differ:\n  regex chain: " + expected + "\n  keyword:     " + actual);
+        System.exit(1);
+    }
+    System.out.println("✓ Both engines produce the same model: " + actual);
+
+    double regexRate = measure("Regex chain (baseline)", iterations, lineCount,
+        () -> baseline.parse(new BufferedReader(new StringReader(configText))));
+    double keywordRate = measure("Keyword dispatch", iterations, lineCount,
+        () -> parser.parseString(configText));
+
+    System.out.printf("%nSpeedup: %.1fx%n", keywordRate / regexRate);
+
+    // Stanza-parallel parsing must build the same model as the sequential parse
+    CiscoConfigParser parallelParser = new CiscoConfigParser(RawLineRetention.FULL, ForkJoinPool.commonPool());
+    String parallel = summarize(parallelParser.parseString(configText));
+    if (!parallel.equals(actual)) {
+        System.out.println("✗ Parallel parse differs:\n  sequential: " + actual + "\n  parallel:   " + parallel);
+        System.exit(1);
+    }
+    double parallelRate = measure("Keyword, parallel", iterations, lineCount,
+        () -> parallelParser.parseString(configText));
+    System.out.printf("Parallel speedup: %.1fx on %d cores%n", parallelRate / keywordRate,
+        Runtime.getRuntime().availableProcessors());
+
+    // File input: BufferedReader (one String per line) vs. memory-mapped bytes
+    Path configFile = Files.createTempFile("benchmark_parser", ".txt");
+    try {
+        Files.writeString(configFile, configText);
+        System.out.println("\nFile input:");
+        for (RawLineRetention retention : RawLineRetention.values()) {
+            CiscoConfigParser fileParser = new CiscoConfigParser(retention);
+            if (retention != RawLineRetention.INDEX) {
+                measureAllocation("parseFile " + retention, iterations, lineCount,
+                    () -> fileParser.parseFile(configFile.toString()));
+            }
+            measureAllocation("parseMappedFile " + retention, iterations, lineCount,
+                () -> fileParser.parseMappedFile(configFile.toString()));
+        }
+    } finally {
+        Files.deleteIfExists(configFile);
+    }
+}
+
+void measureAllocation(String label, int iterations, long lineCount, ParseTask task) throws IOException {
+    measure(label, iterations, lineCount, task);
+
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long before = threads.getCurrentThreadAllocatedBytes();
+    task.run();
+    long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+    System.out.printf("%-24s %8.1f MB allocated per parse%n", "", allocated / (1024.0 * 1024.0));
+}
+
+interface ParseTask {
+    CiscoConfig run() throws IOException;
+}
+
+double measure(String label, int iterations, long lineCount, ParseTask task) throws IOException {
+    // Warm-up so both engines are measured after JIT compilation
+    for (int i = 0; i < Math.max(3, iterations / 2); i++) {
+        task.run();
+    }
+
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < iterations; i++) {
+        long start = System.nanoTime();
+        task.run();
+        best = Math.min(best, System.nanoTime() - start);
+    }
+
+    double linesPerSecond = lineCount / (best / 1e9);
+    System.out.printf("%-24s %8.1f ms   %,12.0f lines/s%n", label + ":", best / 1e6, linesPerSecond);
+    return linesPerSecond;
+}
+
+String summarize(CiscoConfig config) {
+    int additionalCommands = 0;
+    int allowedVlans = 0;
+    for (InterfaceConfig iface : config.getInterfaces().values()) {
+        additionalCommands += iface.getAdditionalCommands().size();
+        allowedVlans += iface.getAllowedVlans().size();
+    }
+    return "hostname=" + config.getHostname()
+        + " interfaces=" + config.getInterfaces().size()
+        + " vlans=" + config.getVlans().size()
+        + " routes=" + config.getStaticRoutes().size()
+        + " allowedVlans=" + allowedVlans
+        + " additionalCommands=" + additionalCommands
+        + " ospf=" + config.getRoutingConfig().getOspf().getProcessId();
+}
+
+/**
+ * Generate a core-switch style configuration of roughly the requested size
+ */
+String generateConfig(int targetLines) {
+    StringBuilder sb = new StringBuilder();
+    sb.append("!\nversion 15.2\nservice timestamps debug datetime msec\n!\nhostname BENCH-CORE-01\n!\n");
+
+    for (int vlan = 2; vlan <= 1001; vlan++) {
+        sb.append("vlan ").append(vlan).append("\n name VLAN_").append(vlan).append("\n!\n");
+    }
+
+    int lines = 3000;
+    int slot = 1;
+    while (lines < targetLines - 2000) {
+        for (int port = 1; port <= 48 && lines < targetLines - 2000; port++) {
+            sb.append("interface GigabitEthernet").append(slot).append("/0/").append(port).append("\n");
+            sb.append(" description Server rack ").append(slot).append(" port ").append(port).append("\n");
+            switch (port % 4) {
+                case 0 -> sb.append(" no switchport\n ip address 10.").append(slot % 256).append(".").append(port)
+                    .append(".1 255.255.255.252\n mtu 9000\n");
+                case 1 -> sb.append(" switchport mode trunk\n switchport trunk allowed vlan 10,20,30-40\n");
+                case 2 -> sb.append(" switchport mode access\n switchport access vlan ").append(2 + port)
+                    .append("\n spanning-tree portfast\n");
+                default -> sb.append(" channel-group ").append(1 + slot % 64).append(" mode active\n");
+            }
+            sb.append(" no cdp enable\n storm-control broadcast level 1.00\n no shutdown\n!\n");
+            lines += 9;
+        }
+        slot++;
+    }
+
+    // Leaf-facing ports configured in bulk, 48 at a time
+    for (int module = 1; module <= 8; module++) {
+        sb.append("interface range Ethernet").append(module).append("/1-48\n");
+        sb.append(" description Leaf uplinks\n switchport mode trunk\n switchport trunk allowed vlan 100-199\n");
+        sb.append(" mtu 9216\n no cdp enable\n no shutdown\n!\n");
+    }
+
+    for (int route = 0; route < 1000; route++) {
+        sb.append("ip route 172.").append(16 + route / 256).append(".").append(route % 256)
+            .append(".0 255.255.255.0 10.0.0.").append(1 + route % 4).append("\n");
+    }
+    sb.append("!\nrouter ospf 1\n router-id 10.0.0.1\n network 10.0.0.0 0.255.255.255 area 0\n!\nend\n");
+    return sb.toString();
+}
+
+/**
+ * The sequential regex chain CiscoConfigParser used before keyword dispatch, kept here
+ * verbatim as the benchmark baseline and equivalence reference.
+ */
+static class RegexChainParser {
+        private static final Pattern INTERFACE_PATTERN = Pattern.compile("^interface\\s+(.+)$", Pattern.CASE_INSENSITIVE);
+        private static final Pattern INTERFACE_RANGE_PATTERN = Pattern.compile("^interface\\s+range\\s+(.+)$", Pattern.CASE_INSENSITIVE);
+        private static final Pattern VLAN_PATTERN = Pattern.compile("^vlan\\s+(\\d+)$", Pattern.CASE_INSENSITIVE);
+        private static final Pattern VLAN_RANGE_PATTERN = Pattern.compile("^vlan\\s+([\\d,-]+)$", Pattern.CASE_INSENSITIVE);
+        private static final Pattern HOSTNAME_PATTERN = Pattern.compile("^hostname\\s+(.+)$", Pattern.CASE_INSENSITIVE);
+        private static final Pattern IP_ADDRESS_PATTERN = Pattern.compile("^\\s*ip address\\s+(\\S+)\\s+(\\S+).*$", Pattern.CASE_INSENSITIVE);
+        private static final Pattern STATIC_ROUTE_PATTERN = Pattern.compile("^ip route\\s+(\\S+)\\s+(\\S+)\\s+(\\S+).*$", Pattern.CASE_INSENSITIVE);
+
+        /**
+         * Main parsing logic
+         */
+        CiscoConfig parse(BufferedReader reader) throws IOException {
+            CiscoConfig config = new CiscoConfig();
+            String line;
+            String currentContext = null;
+            InterfaceConfig currentInterface = null;
+            VlanConfig currentVlan = null;
+            List<InterfaceConfig> currentInterfaceRange = null;
+
+            while ((line = reader.readLine()) != null) {
+                config.addRawLine(line);
+                String trimmedLine = line.trim();
+
+                // Skip empty lines and comments
+                if (trimmedLine.isEmpty() || trimmedLine.startsWith("!")) {
+                    continue;
+                }
+
+                // Check for hostname
+                Matcher hostnameMatcher = HOSTNAME_PATTERN.matcher(trimmedLine);
+                if (hostnameMatcher.matches()) {
+                    config.setHostname(hostnameMatcher.group(1));
+                    continue;
+                }
+
+                // Check for interface range configuration
+                Matcher interfaceRangeMatcher = INTERFACE_RANGE_PATTERN.matcher(trimmedLine);
+                if (interfaceRangeMatcher.matches()) {
+                    String rangeSpec = interfaceRangeMatcher.group(1);
+                    currentInterfaceRange = expandInterfaceRange(rangeSpec, config);
+                    currentContext = "interface-range";
+                    currentInterface = null;
+                    currentVlan = null;
+                    continue;
+                }
+
+                // Check for interface configuration
+                Matcher interfaceMatcher = INTERFACE_PATTERN.matcher(trimmedLine);
+                if (interfaceMatcher.matches()) {
+                    String interfaceName = interfaceMatcher.group(1);
+                    currentInterface = new InterfaceConfig(interfaceName);
+                    config.addInterface(interfaceName, currentInterface);
+                    currentContext = "interface";
+                    currentInterfaceRange = null;
+                    currentVlan = null;
+                    continue;
+                }
+
+                // Check for VLAN range configuration
+                Matcher vlanRangeMatcher = VLAN_RANGE_PATTERN.matcher(trimmedLine);
+                if (vlanRangeMatcher.matches()) {
+                    String rangeSpec = vlanRangeMatcher.group(1);
+                    expandVlanRange(rangeSpec, config);
+                    currentContext = null;
+                    currentInterface = null;
+                    currentInterfaceRange = null;
+                    currentVlan = null;
+                    continue;
+                }
+
+                // Check for VLAN configuration
+                Matcher vlanMatcher = VLAN_PATTERN.matcher(trimmedLine);
+                if (vlanMatcher.matches()) {
+                    int vlanId = Integer.parseInt(vlanMatcher.group(1));
+                    currentVlan = new VlanConfig(vlanId);
+                    config.addVlan(vlanId, currentVlan);
+                    currentContext = "vlan";
+                    currentInterface = null;
+                    currentInterfaceRange = null;
+                    continue;
+                }
+
+                // Check for static route
+                Matcher routeMatcher = STATIC_ROUTE_PATTERN.matcher(trimmedLine);
+                if (routeMatcher.matches()) {
+                    String network = routeMatcher.group(1);
+                    String netmask = routeMatcher.group(2);
+                    String nextHop = routeMatcher.group(3);
+                    config.addStaticRoute(new RouteConfig(network, netmask, nextHop));
+                    continue;
+                }
+
+                // Parse context-specific commands
+                if (currentContext != null) {
+                    if (currentContext.equals("interface") && currentInterface != null) {
+                        parseInterfaceCommand(trimmedLine, currentInterface);
+                    } else if (currentContext.equals("interface-range") && currentInterfaceRange != null) {
+                        // Apply command to all interfaces in range
+                        for (InterfaceConfig iface : currentInterfaceRange) {
+                            parseInterfaceCommand(trimmedLine, iface);
+                        }
+                    } else if (currentContext.equals("vlan") && currentVlan != null) {
+                        parseVlanCommand(trimmedLine, currentVlan);
+                    }
+                }
+
+                // Parse routing protocols
+                parseRoutingProtocol(trimmedLine, config);
+            }
+
+            return config;
+        }
+
+        /**
+         * Parse interface-specific commands
+         */
+        private void parseInterfaceCommand(String line, InterfaceConfig interfaceConfig) {
+            // IP address
+            Matcher ipMatcher = IP_ADDRESS_PATTERN.matcher(line);
+            if (ipMatcher.matches()) {
+                interfaceConfig.setIpAddress(ipMatcher.group(1));
+                interfaceConfig.setSubnetMask(ipMatcher.group(2));
+                return;
+            }
+
+            // Description
+            if (line.startsWith("description ")) {
+                interfaceConfig.setDescription(line.substring(12).trim());
+                return;
+            }
+
+            // Shutdown
+            if (line.equals("shutdown")) {
+                interfaceConfig.setEnabled(false);
+                return;
+            }
+
+            if (line.equals("no shutdown")) {
+                interfaceConfig.setEnabled(true);
+                return;
+            }
+
+            // MTU
+            if (line.startsWith("mtu ")) {
+                try {
+                    interfaceConfig.setMtu(Integer.parseInt(line.substring(4).trim()));
+                } catch (NumberFormatException e) {
+                    // Ignore invalid MTU
+                }
+                return;
+            }
+
+            // Switchport mode
+            if (line.startsWith("switchport mode ")) {
+                String mode = line.substring(16).trim();
+                interfaceConfig.setMode(mode);
+                return;
+            }
+
+            // Switchport access VLAN
+            if (line.startsWith("switchport access vlan ")) {
+                try {
+                    interfaceConfig.setAccessVlan(Integer.parseInt(line.substring(23).trim()));
+                } catch (NumberFormatException e) {
+                    // Ignore invalid VLAN
+                }
+                return;
+            }
+
+            // Switchport trunk allowed VLANs
+            if (line.startsWith("switchport trunk allowed vlan ")) {
+                String vlanList = line.substring(30).trim();
+                parseVlanList(vlanList, interfaceConfig);
+                return;
+            }
+
+            // Channel-group (Port-Channel/LAG membership)
+            if (line.startsWith("channel-group ")) {
+                // Parse: "channel-group 1 mode active"
+                Pattern pattern = Pattern.compile("channel-group\\s+(\\d+)\\s+mode\\s+(\\S+)");
+                Matcher matcher = pattern.matcher(line);
+                if (matcher.find()) {
+                    interfaceConfig.setChannelGroup(Integer.parseInt(matcher.group(1)));
+                    interfaceConfig.setLacpMode(matcher.group(2));
+                }
+                return;
+            }
+
+            // Store other commands for reference
+            interfaceConfig.addAdditionalCommand(line);
+        }
+
+        /**
+         * Parse VLAN list (e.g., "10,20,30,40,50" or "10-15,20,30-35")
+         */
+        private void parseVlanList(String vlanList, InterfaceConfig interfaceConfig) {
+            // Split by comma
+            String[] parts = vlanList.split(",");
+
+            for (String part : parts) {
+                part = part.trim();
+
+                // Check if it's a range (e.g., "10-15")
+                if (part.contains("-")) {
+                    String[] range = part.split("-");
+                    try {
+                        int start = Integer.parseInt(range[0].trim());
+                        int end = Integer.parseInt(range[1].trim());
+                        for (int vlanId = start; vlanId <= end; vlanId++) {
+                            interfaceConfig.addAllowedVlan(vlanId);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Ignore invalid range
+                    }
+                } else {
+                    // Single VLAN ID
+                    try {
+                        int vlanId = Integer.parseInt(part);
+                        interfaceConfig.addAllowedVlan(vlanId);
+                    } catch (NumberFormatException e) {
+                        // Ignore invalid VLAN
+                    }
+                }
+            }
+        }
+
+        /**
+         * Parse VLAN-specific commands
+         */
+        private void parseVlanCommand(String line, VlanConfig vlanConfig) {
+            // VLAN name
+            if (line.startsWith("name ")) {
+                vlanConfig.setName(line.substring(5).trim());
+                return;
+            }
+
+            // VLAN state
+            if (line.equals("shutdown")) {
+                vlanConfig.setEnabled(false);
+                return;
+            }
+
+            if (line.equals("no shutdown")) {
+                vlanConfig.setEnabled(true);
+                return;
+            }
+        }
+
+        /**
+         * Parse routing protocol configurations
+         */
+        private void parseRoutingProtocol(String line, CiscoConfig config) {
+            // OSPF configuration
+            if (line.startsWith("router ospf ")) {
+                try {
+                    int processId = Integer.parseInt(line.substring(12).trim());
+                    config.getRoutingConfig().getOspf().setProcessId(processId);
+                } catch (NumberFormatException e) {
+                    // Ignore invalid process ID
+                }
+                return;
+            }
+
+            // BGP configuration
+            if (line.startsWith("router bgp ")) {
+                try {
+                    int asNumber = Integer.parseInt(line.substring(11).trim());
+                    config.getRoutingConfig().getBgp().setAsNumber(asNumber);
+                } catch (NumberFormatException e) {
+                    // Ignore invalid AS number
+                }
+                return;
+            }
+        }
+
+        /**
+         * Expand interface range specification into individual interfaces
+         * Examples:
+         *   "GigabitEthernet0/1-10" -> Gi0/1, Gi0/2, ..., Gi0/10
+         *   "GigabitEthernet0/1-5, GigabitEthernet0/10-15" -> Multiple ranges
+         */
+        private List<InterfaceConfig> expandInterfaceRange(String rangeSpec, CiscoConfig config) {
+            List<InterfaceConfig> interfaces = new ArrayList<>();
+
+            // Split by comma for multiple ranges
+            String[] ranges = rangeSpec.split(",");
+
+            for (String range : ranges) {
+                range = range.trim();
+
+                // Check if it's a range (contains hyphen)
+                if (range.contains("-")) {
+                    // Extract interface type and range
+                    // Example: "GigabitEthernet0/1-10"
+                    Pattern rangePattern = Pattern.compile("^([A-Za-z-]+)(\\d+)/(\\d+)-(\\d+)$");
+                    Matcher matcher = rangePattern.matcher(range);
+
+                    if (matcher.matches()) {
+                        String interfaceType = matcher.group(1);  // "GigabitEthernet"
+                        String module = matcher.group(2);          // "0"
+                        int startPort = Integer.parseInt(matcher.group(3));  // 1
+                        int endPort = Integer.parseInt(matcher.group(4));    // 10
+
+                        // Create interface for each port in range
+                        for (int port = startPort; port <= endPort; port++) {
+                            String interfaceName = interfaceType + module + "/" + port;
+                            InterfaceConfig iface = new InterfaceConfig(interfaceName);
+                            config.addInterface(interfaceName, iface);
+                            interfaces.add(iface);
+                        }
+                    } else {
+                        // Try simpler pattern without module: "Ethernet1-10"
+                        Pattern simplePattern = Pattern.compile("^([A-Za-z-]+)(\\d+)-(\\d+)$");
+                        Matcher simpleMatcher = simplePattern.matcher(range);
+
+                        if (simpleMatcher.matches()) {
+                            String interfaceType = simpleMatcher.group(1);  // "Ethernet"
+                            int startPort = Integer.parseInt(simpleMatcher.group(2));  // 1
+                            int endPort = Integer.parseInt(simpleMatcher.group(3));    // 10
+
+                            for (int port = startPort; port <= endPort; port++) {
+                                String interfaceName = interfaceType + port;
+                                InterfaceConfig iface = new InterfaceConfig(interfaceName);
+                                config.addInterface(interfaceName, iface);
+                                interfaces.add(iface);
+                            }
+                        }
+                    }
+                } else {
+                    // Single interface (no range)
+                    InterfaceConfig iface = new InterfaceConfig(range);
+                    config.addInterface(range, iface);
+                    interfaces.add(iface);
+                }
+            }
+
+            return interfaces;
+        }
+
+        /**
+         * Expand VLAN range specification into individual VLANs
+         * Examples:
+         *   "10-20" -> VLANs 10, 11, 12, ..., 20
+         *   "10,20,30-35" -> VLANs 10, 20, 30, 31, 32, 33, 34, 35
+         */
+        private void expandVlanRange(String rangeSpec, CiscoConfig config) {
+            // Split by comma
+            String[] parts = rangeSpec.split(",");
+
+            for (String part : parts) {
+                part = part.trim();
+
+                // Check if it's a range (contains hyphen)
+                if (part.contains("-")) {
+                    String[] range = part.split("-");
+                    try {
+                        int start = Integer.parseInt(range[0].trim());
+                        int end = Integer.parseInt(range[1].trim());
+
+                        for (int vlanId = start; vlanId <= end; vlanId++) {
+                            VlanConfig vlan = new VlanConfig(vlanId);
+                            config.addVlan(vlanId, vlan);
+                        }
+                    } catch (NumberFormatException e) {
+                        // Ignore invalid range
+                    }
+                } else {
+                    // Single VLAN ID
+                    try {
+                        int vlanId = Integer.parseInt(part);
+                        VlanConfig vlan = new VlanConfig(vlanId);
+                        config.addVlan(vlanId, vlan);
+                    } catch (NumberFormatException e) {
+                        // Ignore invalid VLAN
+                    }
+                }
+            }
+        }
+}
@@ -0,0 +1,356 @@
+package com.cisco.sonic.converter;
+
+import com.cisco.sonic.converter.converter.CachingConverter;
+import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.converter.ConversionCache;
+import com.cisco.sonic.converter.model.CiscoConfig;
+import com.cisco.sonic.converter.model.SonicConfig;
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Converts a fleet of Cisco configurations in one JVM, each on its own virtual thread
+ *
+ * Inputs are the files under a directory, the files matching a glob such as
+ * "configs/*.txt", or the paths listed in a manifest given as "@devices.txt" (one per
+ * line, relative to the manifest; blank lines and lines starting with # are skipped).
+ *
+ * At most maxInFlight configurations are parsed, converted or written at once, which
+ * bounds memory however many inputs there are. Each device is written to the output
+ * directory as its hostname plus the extension of the output format. When inputs share a
+ * hostname the first of them in input order is written and the others are reported as
+ * failures, whichever finishes first.
+ *
+ * With a {@link ConversionCache}, stanzas already converted (on another device, or by an
+ * earlier run sharing the cache directory) are reused instead of converted again.
+ */
+public class BatchConverter {
+    public static final int DEFAULT_MAX_IN_FLIGHT = 64;
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final CiscoToSonicConverter output;
+    private final CiscoConfigParser parser;
+    private final ConfigConverter converter;
+    private final int maxInFlight;
+    private CachingConverter cachingConverter;
+
+    /**
+     * @param output      writes each converted device, in its output format
+     * @param maxInFlight most configurations held in memory at once
+     */
+    public BatchConverter(CiscoToSonicConverter output, int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight limit must be at least 1");
+        }
+        this.output = output;
+        this.parser = new CiscoConfigParser();
+        // Devices already run in parallel; the stages of each one run on its own thread
+        this.converter = new ConfigConverter(Runnable::run);
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Reuse converted stanzas from the cache; null converts every stanza
+     */
+    public void setCache(ConversionCache cache) {
+        this.cachingConverter = cache != null ? new CachingConverter(cache) : null;
+    }
+
+    public ConversionCache getCache() {
+        return cachingConverter != null ? cachingConverter.getCache() : null;
+    }
+
+    /**
+     * Input files for a directory, glob or @manifest, sorted by path
+     */
+    public static List<Path> findInputs(String input) throws IOException {
+        List<Path> inputs = new ArrayList<>();
+        if (input.startsWith("@")) {
+            Path manifest = Paths.get(input.substring(1));
+            Path base = manifest.toAbsolutePath().getParent();
+            for (String line : Files.readAllLines(manifest)) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    inputs.add(base.resolve(line));
+                }
+            }
+            return inputs;
+        }
+
+        // Walk from the last directory before the first wildcard
+        int wildcard = indexOfWildcard(input);
+        int slash = wildcard < 0 ? -1 : input.lastIndexOf('/', wildcard);
+        Path root = wildcard < 0 ? Paths.get(input) : Paths.get(slash < 0 ? "." : input.substring(0, slash + 1));
+        PathMatcher matcher = wildcard < 0 ? null
+            : FileSystems.getDefault().getPathMatcher("glob:" + input.substring(slash + 1));
+
+        if (!Files.isDirectory(root)) {
+            throw new IOException("Not a directory: " + root);
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile)
+                .filter(file -> !file.getFileName().toString().startsWith("."))
+                .filter(file -> matcher == null || matcher.matches(root.relativize(file)))
+                .sorted()
+                .forEach(inputs::add);
+        }
+        return inputs;
+    }
+
+    private static int indexOfWildcard(String input) {
+        for (int i = 0; i < input.length(); i++) {
+            if ("*?[{".indexOf(input.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Convert every input into the output directory; failures are collected, not thrown
+     */
+    public BatchResult convert(List<Path> inputs, Path outputDir) throws IOException {
+        Files.createDirectories(outputDir);
+        BatchResult result = new BatchResult(inputs.size());
+        Map<String, Claim> hostnames = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicInteger finished = new AtomicInteger();
+        long start = System.nanoTime();
+
+        try (ExecutorService devices = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < inputs.size(); i++) {
+                int index = i;
+                Path input = inputs.get(i);
+                // Wait for a slot before starting the next device
+                try {
+                    inFlight.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Batch conversion interrupted");
+                }
+                devices.submit(() -> {
+                    try {
+                        convertDevice(index, input, outputDir, hostnames, result);
+                    } finally {
+                        inFlight.release();
+                        int done = finished.incrementAndGet();
+                        if (done % PROGRESS_INTERVAL == 0) {
+                            System.out.println("Converted " + done + " of " + inputs.size() + " configurations...");
+                        }
+                    }
+                });
+            }
+        }
+
+        result.elapsedNanos = System.nanoTime() - start;
+        return result;
+    }
+
+    private void convertDevice(int index, Path input, Path outputDir, Map<String, Claim> hostnames, BatchResult result) {
+        try {
+            CiscoConfig ciscoConfig = parser.parseMappedFile(input.toString());
+            SonicConfig sonicConfig = cachingConverter != null
+                ? cachingConverter.convert(ciscoConfig) : converter.convert(ciscoConfig);
+
+            // One output per hostname; fall back to the input's name
+            String name = ciscoConfig.getHostname();
+            if (name == null || name.isBlank()) {
+                name = input.getFileName().toString();
+                int dot = name.lastIndexOf('.');
+                name = dot > 0 ? name.substring(0, dot) : name;
+            }
+            name = name.replaceAll("[^A-Za-z0-9._-]", "_");
+            Claim claim = hostnames.computeIfAbsent(name, key -> new Claim());
+            claim.lock.lock();
+            try {
+                if (claim.input != null && claim.index < index) {
+                    result.fail(input, "hostname " + name + " already written from " + claim.input);
+                    return;
+                }
+                Path target = outputDir.resolve(name + output.getOutputExtension());
+                if (claim.input == null) {
+                    output.writeOutput(sonicConfig, target.toString());
+                } else {
+                    // A later input got here first: replace its output, leaving it whole if this fails
+                    Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+                    try {
+                        output.writeOutput(sonicConfig, temporary.toString());
+                        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+                    } finally {
+                        Files.deleteIfExists(temporary);
+                    }
+                    result.displaced(claim, "hostname " + name + " already written from " + input);
+                }
+                claim.take(index, input, sonicConfig);
+                result.converted(sonicConfig);
+            } finally {
+                claim.lock.unlock();
+            }
+        } catch (NoSuchFileException e) {
+            result.fail(input, "file not found");
+        } catch (Throwable e) {
+            // Errors too: a device that runs out of memory must count as failed, not vanish
+            result.fail(input, e.getMessage() != null && !(e instanceof Error) ? e.getMessage() : e.toString());
+        }
+    }
+
+    /**
+     * The input an output name was written from, held under the lock while it is written
+     */
+    private static final class Claim {
+        final ReentrantLock lock = new ReentrantLock();
+        int index;
+        Path input;
+        Set<String> warnings;
+        Set<String> unsupportedFeatures;
+
+        void take(int index, Path input, SonicConfig sonicConfig) {
+            this.index = index;
+            this.input = input;
+            // Kept to take back from the counts if an earlier input takes the name
+            this.warnings = new HashSet<>(sonicConfig.getWarnings());
+            this.unsupportedFeatures = new HashSet<>(sonicConfig.getUnsupportedFeatures());
+        }
+    }
+
+    /**
+     * Outcome of a batch: counts, failures, and how many devices reported each warning
+     * and unsupported feature
+     */
+    public static class BatchResult {
+        private final int inputs;
+        private final AtomicInteger converted = new AtomicInteger();
+        private final Map<Path, String> failures = new ConcurrentSkipListMap<>();
+        private final Map<String, Integer> warnings = new ConcurrentHashMap<>();
+        private final Map<String, Integer> unsupportedFeatures = new ConcurrentHashMap<>();
+        private long elapsedNanos;
+
+        BatchResult(int inputs) {
+            this.inputs = inputs;
+        }
+
+        void converted(SonicConfig sonicConfig) {
+            converted.incrementAndGet();
+            // Count each message once per device
+            for (String warning : new HashSet<>(sonicConfig.getWarnings())) {
+                warnings.merge(warning, 1, Integer::sum);
+            }
+            for (String feature : new HashSet<>(sonicConfig.getUnsupportedFeatures())) {
+                unsupportedFeatures.merge(feature, 1, Integer::sum);
+            }
+        }
+
+        /**
+         * The device that held the claim lost its output to an earlier input
+         */
+        void displaced(Claim claim, String message) {
+            converted.decrementAndGet();
+            for (String warning : claim.warnings) {
+                warnings.computeIfPresent(warning, (key, count) -> count > 1 ? count - 1 : null);
+            }
+            for (String feature : claim.unsupportedFeatures) {
+                unsupportedFeatures.computeIfPresent(feature, (key, count) -> count > 1 ? count - 1 : null);
+            }
+            fail(claim.input, message);
+        }
+
+        void fail(Path input, String message) {
+            failures.put(input, message);
+        }
+
+        public int getInputs() {
+            return inputs;
+        }
+
+        public int getConverted() {
+            return converted.get();
+        }
+
+        /**
+         * Failed inputs with the reason, sorted by path
+         */
+        public Map<Path, String> getFailures() {
+            return failures;
+        }
+
+        /**
+         * Number of devices that reported each warning
+         */
+        public Map<String, Integer> getWarnings() {
+            return warnings;
+        }
+
+        /**
+         * Number of devices that reported each unsupported feature
+         */
+        public Map<String, Integer> getUnsupportedFeatures() {
+            return unsupportedFeatures;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedNanos / 1_000_000;
+        }
+
+        /**
+         * True when every input was converted
+         */
+        public boolean isSuccessful() {
+            return failures.isEmpty() && getConverted() == inputs;
+        }
+
+        /**
+         * Print the totals, the most common warnings and unsupported features, and every failure
+         */
+        public void printSummary(PrintStream out, int maxMessages) {
+            long millis = Math.max(getElapsedMillis(), 1);
+            out.println("\nBatch conversion summary:");
+            out.println("  - Inputs: " + inputs);
+            out.println("  - Converted: " + getConverted());
+            out.println("  - Failed: " + failures.size());
+            out.println("  - Time: " + millis + " ms (" + (inputs * 1000L / millis) + " configurations/s)");
+
+            printCounts(out, "Warnings", warnings, maxMessages);
+            printCounts(out, "Unsupported Features", unsupportedFeatures, maxMessages);
+
+            if (!failures.isEmpty()) {
+                out.println("\nFailures:");
+                for (Map.Entry<Path, String> failure : failures.entrySet()) {
+                    out.println("  - " + failure.getKey() + ": " + failure.getValue());
+                }
+            }
+        }
+
+        private static void printCounts(PrintStream out, String title, Map<String, Integer> counts, int maxMessages) {
+            if (counts.isEmpty()) {
+                return;
+            }
+            out.println("\n" + title + " (devices):");
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>(counts.entrySet());
+            entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+            for (int i = 0; i < Math.min(maxMessages, entries.size()); i++) {
+                out.println("  - " + entries.get(i).getValue() + " x " + entries.get(i).getKey());
+            }
+            if (entries.size() > maxMessages) {
+                out.println("  - ... and " + (entries.size() - maxMessages) + " more");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Converted " + getConverted() + " of " + inputs + " configurations, " + failures.size()
+                + " failed, in " + getElapsedMillis() + " ms";
+        }
+    }
+}
@@ -1,14 +1,30 @@
 package com.cisco.sonic.converter;
 
 import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.converter.ConversionCache;
+import com.cisco.sonic.converter.converter.StreamingConverter;
 import com.cisco.sonic.converter.model.CiscoConfig;
 import com.cisco.sonic.converter.model.SonicConfig;
+import com.cisco.sonic.converter.output.ConfigDbClient;
+import com.cisco.sonic.converter.output.SonicCliGenerator;
+import com.cisco.sonic.converter.output.SonicConfigReader;
+import com.cisco.sonic.converter.output.SonicConfigMerger;
 import com.cisco.sonic.converter.output.SonicConfigWriter;
+import com.cisco.sonic.converter.output.SonicPatchGenerator;
+import com.cisco.sonic.converter.output.SonicRespWriter;
+import com.cisco.sonic.converter.output.SonicStreamWriter;
 import com.cisco.sonic.converter.parser.CiscoConfigParser;
 
 import java.io.*;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.TreeMap;
 
 /**
  * Main application class for Cisco to SONiC configuration converter
@@ -19,11 +35,40 @@ public class CiscoToSonicConverter {
     private final CiscoConfigParser parser;
     private final ConfigConverter converter;
     private final SonicConfigWriter writer;
+    private final SonicConfigReader reader;
+    private final SonicRespWriter respWriter;
+    private final boolean respOutput;
+    private SonicCliGenerator scriptGenerator;
     
     public CiscoToSonicConverter() {
+        this(false, false);
+    }
+    
+    /**
+     * @param compactJson write config_db.json without indentation and line breaks
+     */
+    public CiscoToSonicConverter(boolean compactJson) {
+        this(compactJson, false);
+    }
+    
+    /**
+     * @param compactJson write config_db.json without indentation and line breaks
+     * @param respOutput write output files as a Redis (RESP) command stream instead of JSON
+     */
+    public CiscoToSonicConverter(boolean compactJson, boolean respOutput) {
         this.parser = new CiscoConfigParser();
         this.converter = new ConfigConverter();
-        this.writer = new SonicConfigWriter();
+        this.writer = new SonicConfigWriter(compactJson);
+        this.reader = new SonicConfigReader();
+        this.respWriter = new SonicRespWriter();
+        this.respOutput = respOutput;
+    }
+    
+    /**
+     * Write output files as SONiC CLI scripts made by the given generator; null for JSON
+     */
+    public void setScriptGenerator(SonicCliGenerator scriptGenerator) {
+        this.scriptGenerator = scriptGenerator;
     }
     
     /**
@@ -33,7 +78,7 @@ public class CiscoToSonicConverter {
         System.out.println("Reading Cisco configuration from: " + inputPath);
         
         // Parse Cisco configuration
-        CiscoConfig ciscoConfig = parser.parseFile(inputPath);
+        CiscoConfig ciscoConfig = parser.parseMappedFile(inputPath);
         System.out.println("Successfully parsed Cisco configuration");
         System.out.println("  - Hostname: " + ciscoConfig.getHostname());
         System.out.println("  - Interfaces: " + ciscoConfig.getInterfaces().size());
@@ -62,10 +107,248 @@ public class CiscoToSonicConverter {
         
         // Write SONiC configuration
         System.out.println("\nWriting SONiC configuration to: " + outputPath);
-        writer.writeToFile(sonicConfig, outputPath);
+        writeOutput(sonicConfig, outputPath);
         System.out.println("Conversion completed successfully!");
     }
     
+    /**
+     * Convert a Cisco configuration file to SONiC format without building the Cisco object
+     * model. config_db.json is written through a {@link SonicStreamWriter}, so the rows are
+     * not kept in memory either; CLI scripts and RESP are written from the whole
+     * configuration, which is built in memory.
+     */
+    public void convertFileStreaming(String inputPath, String outputPath) throws IOException {
+        System.out.println("Streaming Cisco configuration from: " + inputPath);
+        
+        if (scriptGenerator != null || respOutput) {
+            // These formats look across tables while writing, so they need every row
+            StreamingConverter streamingConverter = new StreamingConverter();
+            parser.parseFile(inputPath, streamingConverter);
+            reportStreaming(streamingConverter);
+            System.out.println("\nWriting SONiC configuration to: " + outputPath);
+            writeOutput(streamingConverter.getSonicConfig(), outputPath);
+            System.out.println("Conversion completed successfully!");
+            return;
+        }
+        
+        // Parse and convert in one pass, spilling each table's rows next to the output
+        Path output = Paths.get(outputPath).toAbsolutePath();
+        try (SonicStreamWriter streamWriter = new SonicStreamWriter(writer, output.getParent())) {
+            StreamingConverter streamingConverter = new StreamingConverter(streamWriter::add);
+            try {
+                parser.parseFile(inputPath, streamingConverter);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            reportStreaming(streamingConverter);
+            
+            System.out.println("\nWriting SONiC configuration to: " + outputPath);
+            streamWriter.writeToFile(streamingConverter.getSonicConfig().getDeviceMetadata(), outputPath);
+            System.out.println("Conversion completed successfully! (" + streamWriter.getRowCount() + " rows)");
+        }
+    }
+    
+    private void reportStreaming(StreamingConverter streamingConverter) {
+        System.out.println("Successfully converted Cisco configuration");
+        System.out.println("  - Hostname: " + streamingConverter.getHostname());
+        System.out.println("  - Interface stanzas: " + streamingConverter.getInterfaceCount());
+        System.out.println("  - VLANs: " + streamingConverter.getVlanCount());
+        System.out.println("  - Static Routes: " + streamingConverter.getRouteCount());
+        
+        // Display warnings if any
+        SonicConfig sonicConfig = streamingConverter.getSonicConfig();
+        if (!sonicConfig.getWarnings().isEmpty()) {
+            System.out.println("\nWarnings:");
+            for (String warning : sonicConfig.getWarnings()) {
+                System.out.println("  - " + warning);
+            }
+        }
+    }
+    
+    /**
+     * Convert two revisions of a Cisco configuration and write only the SONiC changes
+     * between them, as a JSON Patch for "config apply-patch". Either side may also be a
+     * config_db.json, e.g. the one a device runs now.
+     */
+    public List<SonicPatchGenerator.PatchOperation> convertPatch(String oldInputPath, String newInputPath,
+            String outputPath) throws IOException {
+        return convertPatch(oldInputPath, newInputPath, outputPath, SonicConfigMerger.Mode.MERGE);
+    }
+
+    /**
+     * Like {@link #convertPatch(String, String, String)}. When only one side is a
+     * config_db.json, the Cisco side is compared as it would be merged onto that device
+     * file, so the patch keeps the device's DEVICE_METADATA and its rows and fields the
+     * converter does not write; in REPLACE mode the converted tables replace the device's
+     * whole.
+     */
+    public List<SonicPatchGenerator.PatchOperation> convertPatch(String oldInputPath, String newInputPath,
+            String outputPath, SonicConfigMerger.Mode mode) throws IOException {
+        System.out.println("Comparing " + oldInputPath + " with " + newInputPath);
+        SonicConfig oldConfig = loadConfig(oldInputPath);
+        SonicConfig newConfig = loadConfig(newInputPath);
+        boolean oldIsDevice = isDeviceConfig(oldInputPath);
+        if (oldIsDevice != isDeviceConfig(newInputPath)) {
+            SonicConfigMerger merger = new SonicConfigMerger(mode, writer.isCompact());
+            if (oldIsDevice) {
+                newConfig = merger.overlay(oldConfig, newConfig);
+            } else {
+                oldConfig = merger.overlay(newConfig, oldConfig);
+            }
+        }
+        
+        // Display warnings if any
+        if (!newConfig.getWarnings().isEmpty()) {
+            System.out.println("\nWarnings:");
+            for (String warning : newConfig.getWarnings()) {
+                System.out.println("  - " + warning);
+            }
+        }
+        
+        SonicPatchGenerator patchGenerator = new SonicPatchGenerator(writer.isCompact());
+        List<SonicPatchGenerator.PatchOperation> operations = patchGenerator.diff(oldConfig, newConfig);
+        Map<String, Integer> counts = new TreeMap<>();
+        for (SonicPatchGenerator.PatchOperation operation : operations) {
+            counts.merge(operation.op(), 1, Integer::sum);
+        }
+        System.out.println("\nChanges: " + operations.size() + (counts.isEmpty() ? "" : " " + counts));
+        
+        System.out.println("Writing JSON Patch to: " + outputPath);
+        try (Writer out = Files.newBufferedWriter(Paths.get(outputPath), StandardCharsets.UTF_8)) {
+            patchGenerator.write(operations, out);
+        }
+        System.out.println("Apply on the switch with: sudo config apply-patch " + outputPath);
+        return operations;
+    }
+    
+    /**
+     * Convert a Cisco configuration and overlay it onto the config_db.json a device runs
+     * now, keeping the device's other tables and DEVICE_METADATA. The output may be the
+     * device file itself.
+     */
+    public Map<String, SonicConfigMerger.Action> convertMerge(String inputPath, String deviceConfigPath,
+            String outputPath, SonicConfigMerger.Mode mode) throws IOException {
+        System.out.println("Reading Cisco configuration from: " + inputPath);
+        SonicConfig sonicConfig = converter.convert(parser.parseMappedFile(inputPath));
+        
+        // Display warnings if any
+        if (!sonicConfig.getWarnings().isEmpty()) {
+            System.out.println("\nWarnings:");
+            for (String warning : sonicConfig.getWarnings()) {
+                System.out.println("  - " + warning);
+            }
+        }
+        
+        System.out.println("\nMerging into " + deviceConfigPath + " (" + mode.name().toLowerCase() + " mode)");
+        SonicConfigMerger merger = new SonicConfigMerger(mode, writer.isCompact());
+        Map<String, SonicConfigMerger.Action> actions = merger.mergeFile(deviceConfigPath, sonicConfig, outputPath);
+        for (Map.Entry<String, SonicConfigMerger.Action> entry : actions.entrySet()) {
+            System.out.println("  - " + entry.getKey() + ": " + entry.getValue().name().toLowerCase());
+        }
+        System.out.println("Merged configuration written to: " + outputPath);
+        return actions;
+    }
+    
+    private static boolean isDeviceConfig(String path) {
+        return path.endsWith(".json");
+    }
+
+    /**
+     * A configuration to compare: a .json file is read as config_db.json, anything else
+     * is converted from Cisco
+     */
+    private SonicConfig loadConfig(String path) throws IOException {
+        if (!isDeviceConfig(path)) {
+            return converter.convert(parser.parseMappedFile(path));
+        }
+        List<String> skipped = new ArrayList<>();
+        SonicConfig sonicConfig = reader.readFile(path, skipped::add);
+        if (!skipped.isEmpty()) {
+            System.out.println("  - " + path + ": not comparing " + String.join(", ", skipped));
+        }
+        return sonicConfig;
+    }
+    
+    /**
+     * Convert a Cisco configuration file and write it straight into CONFIG_DB
+     */
+    public ConfigDbClient.ApplyResult applyFile(String inputPath, String endpoint, boolean dryRun) throws IOException {
+        System.out.println("Reading Cisco configuration from: " + inputPath);
+        CiscoConfig ciscoConfig = parser.parseMappedFile(inputPath);
+        SonicConfig sonicConfig = converter.convert(ciscoConfig);
+        
+        // Display warnings if any
+        if (!sonicConfig.getWarnings().isEmpty()) {
+            System.out.println("\nWarnings:");
+            for (String warning : sonicConfig.getWarnings()) {
+                System.out.println("  - " + warning);
+            }
+        }
+        
+        ConfigDbClient client = ConfigDbClient.forEndpoint(endpoint);
+        client.setDryRun(dryRun);
+        System.out.println("\n" + (dryRun ? "Dry run against " : "Applying to ") + "CONFIG_DB at "
+            + client.getHost() + ":" + client.getPort());
+        ConfigDbClient.ApplyResult result = client.apply(sonicConfig);
+        for (Map.Entry<String, Integer> table : result.getTableCommands().entrySet()) {
+            System.out.println("  - " + table.getKey() + ": " + table.getValue());
+        }
+        System.out.println(result);
+        return result;
+    }
+    
+    /**
+     * Convert every configuration of a directory, glob or @manifest into outputDir, one
+     * file per hostname, with up to maxInFlight devices at once
+     */
+    public BatchConverter.BatchResult convertBatch(String input, String outputDir, int maxInFlight) throws IOException {
+        return convertBatch(input, outputDir, maxInFlight, null);
+    }
+
+    /**
+     * Convert a fleet as above, reusing stanzas from the cache (null for none)
+     */
+    public BatchConverter.BatchResult convertBatch(String input, String outputDir, int maxInFlight,
+            ConversionCache cache) throws IOException {
+        List<Path> inputs = BatchConverter.findInputs(input);
+        if (inputs.isEmpty()) {
+            throw new IOException("No configuration files found for " + input);
+        }
+        BatchConverter batch = new BatchConverter(this, maxInFlight);
+        batch.setCache(cache);
+        System.out.println("Converting " + inputs.size() + " configurations into " + outputDir
+            + " (" + maxInFlight + " at a time)");
+        BatchConverter.BatchResult result = batch.convert(inputs, Paths.get(outputDir));
+        result.printSummary(System.out, 20);
+        if (cache != null) {
+            System.out.println("\n" + cache);
+        }
+        return result;
+    }
+    
+    /**
+     * Write the converted configuration in the selected output format
+     */
+    void writeOutput(SonicConfig sonicConfig, String outputPath) throws IOException {
+        if (scriptGenerator != null) {
+            scriptGenerator.writeToFile(sonicConfig, outputPath);
+        } else if (respOutput) {
+            respWriter.writeToFile(sonicConfig, outputPath);
+        } else {
+            writer.writeToFile(sonicConfig, outputPath);
+        }
+    }
+    
+    /**
+     * File extension for the selected output format
+     */
+    String getOutputExtension() {
+        if (scriptGenerator != null) {
+            return ".sh";
+        }
+        return respOutput ? ".resp" : ".json";
+    }
+    
     /**
      * Convert Cisco configuration text to SONiC format
      */
@@ -135,7 +418,7 @@ public class CiscoToSonicConverter {
             System.out.println("  - Static Routes: " + ciscoConfig.getStaticRoutes().size());
             
             // Write output
-            writer.writeToFile(sonicConfig, outputPath);
+            writeOutput(sonicConfig, outputPath);
             System.out.println("\nConfiguration written to: " + outputPath);
             
         } else {
@@ -147,10 +430,90 @@ public class CiscoToSonicConverter {
      * Main entry point
      */
     public static void main(String[] args) {
-        CiscoToSonicConverter converter = new CiscoToSonicConverter();
+        // Leading output options apply to every mode that writes a file
+        boolean compact = false;
+        boolean resp = false;
+        boolean dryRun = false;
+        boolean script = false;
+        boolean optimized = false;
+        int jobs = 1;
+        int maxInFlight = BatchConverter.DEFAULT_MAX_IN_FLIGHT;
+        boolean cache = false;
+        String cacheDir = null;
+        boolean replaceTables = false;
+        int options = 0;
+        while (options < args.length && ("--compact".equals(args[options]) || "--resp".equals(args[options])
+                || "--dry-run".equals(args[options]) || "--script".equals(args[options])
+                || "--optimized".equals(args[options]) || args[options].startsWith("--jobs=")
+                || args[options].startsWith("--max-in-flight=") || "--cache".equals(args[options])
+                || args[options].startsWith("--cache-dir=") || "--replace-tables".equals(args[options]))) {
+            compact |= "--compact".equals(args[options]);
+            resp |= "--resp".equals(args[options]);
+            dryRun |= "--dry-run".equals(args[options]);
+            script |= "--script".equals(args[options]);
+            optimized |= "--optimized".equals(args[options]);
+            cache |= "--cache".equals(args[options]);
+            replaceTables |= "--replace-tables".equals(args[options]);
+            if (args[options].startsWith("--jobs=")) {
+                jobs = Integer.parseInt(args[options].substring("--jobs=".length()));
+            }
+            if (args[options].startsWith("--max-in-flight=")) {
+                maxInFlight = Integer.parseInt(args[options].substring("--max-in-flight=".length()));
+            }
+            if (args[options].startsWith("--cache-dir=")) {
+                cacheDir = args[options].substring("--cache-dir=".length());
+            }
+            options++;
+        }
+        args = Arrays.copyOfRange(args, options, args.length);
+        CiscoToSonicConverter converter = new CiscoToSonicConverter(compact, resp);
+        if (script || optimized || jobs > 1) {
+            converter.setScriptGenerator(new SonicCliGenerator(optimized, jobs));
+        }
 
         try {
-            if (args.length >= 2) {
+            if (args.length >= 1 && "--serve".equals(args[0])) {
+                // Daemon mode: conversions over HTTP from a warm JVM
+                int port = args.length >= 2 ? Integer.parseInt(args[1]) : ConversionServer.DEFAULT_PORT;
+                // Loopback unless an address to bind is given
+                ConversionServer server = args.length >= 3
+                    ? new ConversionServer(new InetSocketAddress(args[2], port))
+                    : new ConversionServer(port);
+                server.start();
+                System.out.println("Conversion service listening on "
+                    + server.getAddress().getHostString() + ":" + server.getPort());
+                System.out.println("  POST /parse, /convert[?format=json|cli|resp], /validate; GET /health");
+            } else if (args.length >= 2 && "--apply".equals(args[0])) {
+                // Write directly into CONFIG_DB over the Redis protocol
+                String inputPath = args[1];
+                String endpoint = args.length >= 3 ? args[2] : "localhost:" + ConfigDbClient.DEFAULT_PORT;
+                converter.applyFile(inputPath, endpoint, dryRun);
+            } else if (args.length >= 2 && "--batch".equals(args[0])) {
+                // Fleet mode: many configurations in one JVM
+                String input = args[1];
+                String outputDir = args.length >= 3 ? args[2] : "sonic_configs";
+                ConversionCache stanzaCache = cache || cacheDir != null ? new ConversionCache(
+                    ConversionCache.DEFAULT_MAX_ENTRIES, cacheDir != null ? Paths.get(cacheDir) : null) : null;
+                BatchConverter.BatchResult result = converter.convertBatch(input, outputDir, maxInFlight, stanzaCache);
+                if (!result.isSuccessful()) {
+                    System.exit(1);
+                }
+            } else if (args.length >= 3 && "--patch".equals(args[0])) {
+                // Only the changes between two revisions of a configuration
+                String outputPath = args.length >= 4 ? args[3] : "config_db.patch.json";
+                converter.convertPatch(args[1], args[2], outputPath,
+                    replaceTables ? SonicConfigMerger.Mode.REPLACE : SonicConfigMerger.Mode.MERGE);
+            } else if (args.length >= 3 && "--merge".equals(args[0])) {
+                // Overlay the converted tables onto a device's config_db.json
+                String outputPath = args.length >= 4 ? args[3] : "config_db.merged.json";
+                converter.convertMerge(args[1], args[2], outputPath,
+                    replaceTables ? SonicConfigMerger.Mode.REPLACE : SonicConfigMerger.Mode.MERGE);
+            } else if (args.length >= 2 && "--stream".equals(args[0])) {
+                // Streaming mode for very large files
+                String inputPath = args[1];
+                String outputPath = args.length >= 3 ? args[2] : "config_db.json";
+                converter.convertFileStreaming(inputPath, outputPath);
+            } else if (args.length >= 2) {
                 // Command-line mode with file paths
                 String inputPath = args[0];
                 String outputPath = args[1];
@@ -206,6 +569,28 @@ public class CiscoToSonicConverter {
         System.out.println();
         System.out.println("Options:");
         System.out.println("  --gui, -g              Launch graphical user interface");
+        System.out.println("  --stream               Convert while parsing, for very large files; JSON output");
+        System.out.println("                         spills rows to temporary files next to it instead of memory");
+        System.out.println("                         (same output; a repeated interface stanza replaces the earlier one)");
+        System.out.println("  --compact              Write JSON without indentation (before other options)");
+        System.out.println("  --resp                 Write Redis commands for redis-cli --pipe (before other options)");
+        System.out.println("  --apply                Write into CONFIG_DB at host[:port] (default localhost:6379)");
+        System.out.println("  --dry-run              With --apply: build the transactions without sending them");
+        System.out.println("  --script               Write a SONiC CLI shell script (before other options)");
+        System.out.println("  --optimized            Script with VLAN ranges and batched interface commands");
+        System.out.println("  --jobs=N               Script that runs up to N independent commands at once");
+        System.out.println("  --batch                Convert a directory, glob or @manifest into one file per hostname");
+        System.out.println("  --max-in-flight=N      With --batch: devices converted at once (default "
+            + BatchConverter.DEFAULT_MAX_IN_FLIGHT + ")");
+        System.out.println("  --cache                With --batch: reuse converted stanzas shared between devices");
+        System.out.println("  --cache-dir=DIR        With --batch: also keep converted stanzas in DIR for later runs");
+        System.out.println("  --patch                Write a JSON Patch between two configurations (old new [output]);");
+        System.out.println("                         either may be a config_db.json, onto which the other is merged");
+        System.out.println("  --merge                Overlay a conversion onto a device config_db.json (cisco device [output]),");
+        System.out.println("                         keeping the device's other tables (default output config_db.merged.json)");
+        System.out.println("  --replace-tables       With --merge or --patch: replace converted tables instead of merging rows");
+        System.out.println("  --serve [port] [addr]  Run as an HTTP conversion service (default port "
+            + ConversionServer.DEFAULT_PORT + ", loopback only unless addr is given)");
         System.out.println();
         System.out.println("Examples:");
         System.out.println("  # Launch GUI");
@@ -217,6 +602,38 @@ public class CiscoToSonicConverter {
         System.out.println("  # Convert with custom output");
         System.out.println("  java CiscoToSonicConverter cisco-config.txt sonic-config.json");
         System.out.println();
+        System.out.println("  # Convert a very large file with a small heap (rows are spilled to disk)");
+        System.out.println("  java CiscoToSonicConverter --stream cisco-config.txt sonic-config.json");
+        System.out.println();
+        System.out.println("  # Write compact JSON");
+        System.out.println("  java CiscoToSonicConverter --compact cisco-config.txt sonic-config.json");
+        System.out.println();
+        System.out.println("  # Write a parallel CLI script");
+        System.out.println("  java CiscoToSonicConverter --optimized --jobs=8 cisco-config.txt sonic_config.sh");
+        System.out.println();
+        System.out.println("  # Convert a whole fleet; exits with status 1 if any device fails");
+        System.out.println("  java CiscoToSonicConverter --batch 'configs/*.txt' sonic_configs");
+        System.out.println("  java CiscoToSonicConverter --max-in-flight=128 --batch @devices.txt sonic_configs");
+        System.out.println("  java CiscoToSonicConverter --cache-dir=.stanza-cache --batch configs sonic_configs");
+        System.out.println();
+        System.out.println("  # Push only what changed between two revisions");
+        System.out.println("  java CiscoToSonicConverter --patch cisco-old.txt cisco-new.txt config_db.patch.json");
+        System.out.println("  sudo config apply-patch config_db.patch.json");
+        System.out.println();
+        System.out.println("  # Migrate part of a device, keeping BGP_NEIGHBOR, FEATURE and the rest");
+        System.out.println("  java CiscoToSonicConverter --merge cisco-config.txt /etc/sonic/config_db.json config_db.merged.json");
+        System.out.println();
+        System.out.println("  # Keep a warm JVM and convert over HTTP");
+        System.out.println("  java CiscoToSonicConverter --serve 8080");
+        System.out.println("  curl --data-binary @cisco-config.txt 'http://localhost:8080/convert?format=cli'");
+        System.out.println();
+        System.out.println("  # Load straight into CONFIG_DB on the switch");
+        System.out.println("  java CiscoToSonicConverter --resp cisco-config.txt config_db.resp");
+        System.out.println("  redis-cli -n 4 --pipe < config_db.resp");
+        System.out.println();
+        System.out.println("  # Apply over the network in pipelined MULTI/EXEC batches");
+        System.out.println("  java CiscoToSonicConverter --apply cisco-config.txt 10.0.0.1:6379");
+        System.out.println();
         System.out.println("Would you like to:");
         System.out.println("  1. Launch GUI");
         System.out.println("  2. Use interactive mode");
@@ -224,7 +641,7 @@ public class CiscoToSonicConverter {
         System.out.print("\nEnter choice (1-3): ");
 
         try {
-            java.util.Scanner scanner = new java.util.Scanner(System.in);
+            Scanner scanner = new Scanner(System.in);
             String choice = scanner.nextLine().trim();
 
             if ("1".equals(choice)) {
@@ -0,0 +1,261 @@
+package com.cisco.sonic.converter;
+
+import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.model.CiscoConfig;
+import com.cisco.sonic.converter.model.SonicConfig;
+import com.cisco.sonic.converter.output.SonicCliGenerator;
+import com.cisco.sonic.converter.output.SonicConfigWriter;
+import com.cisco.sonic.converter.output.SonicRespWriter;
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+import com.cisco.sonic.converter.validator.ConfigValidator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * HTTP service that keeps a warm JVM for conversions
+ *
+ * Every endpoint except /health takes the Cisco configuration as the body of a POST:
+ *   /parse     summary of the parsed configuration, as JSON
+ *   /convert   config_db.json; ?format=cli for the CLI script (with optimized=true and
+ *              jobs=N), ?format=resp for the CONFIG_DB command stream, compact=true for
+ *              compact JSON
+ *   /validate  errors and warnings for the Cisco and the converted configuration, as JSON
+ *   /health    GET; answers "OK"
+ *
+ * Each request is handled on its own virtual thread. The parser, converter, validator
+ * and writers are shared by all requests, and output is streamed to the client as it is
+ * written.
+ */
+public class ConversionServer implements Closeable {
+    public static final int DEFAULT_PORT = 8080;
+    private static final int MAX_BODY_SIZE = 64 * 1024 * 1024;
+
+    static {
+        // Response headers and body go out in separate writes; without TCP_NODELAY the body
+        // waits for the client's delayed ACK, about 40 ms per request. Read when the first
+        // HttpServer is created, so an explicit -D setting still wins.
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor();
+    private final CiscoConfigParser parser = new CiscoConfigParser();
+    // Requests already run in parallel; the stages of a conversion run on its own thread
+    private final ConfigConverter converter = new ConfigConverter(Runnable::run);
+    private final ConfigValidator validator = new ConfigValidator();
+    private final SonicConfigWriter jsonWriter = new SonicConfigWriter();
+    private final SonicConfigWriter compactJsonWriter = new SonicConfigWriter(true);
+    private final SonicRespWriter respWriter = new SonicRespWriter();
+
+    /**
+     * Listen on the loopback interface only; port 0 picks a free one
+     */
+    public ConversionServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    /**
+     * Listen on the given address, e.g. 0.0.0.0 for every interface. The service has no
+     * authentication, so only bind beyond loopback on a trusted network.
+     */
+    public ConversionServer(InetSocketAddress address) throws IOException {
+        this.server = HttpServer.create(address, 0);
+        server.setExecutor(requests);
+        server.createContext("/parse", exchange -> handle(exchange, this::parse));
+        server.createContext("/convert", exchange -> handle(exchange, this::convert));
+        server.createContext("/validate", exchange -> handle(exchange, this::validate));
+        server.createContext("/health", exchange -> {
+            try (exchange) {
+                send(exchange, 200, "text/plain", "OK\n");
+            }
+        });
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        requests.close();
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        void handle(HttpExchange exchange, Map<String, String> query, String body) throws IOException;
+    }
+
+    /**
+     * Check the method and path, read the body, and turn failures into error responses
+     */
+    private void handle(HttpExchange exchange, Endpoint endpoint) {
+        try (exchange) {
+            if (!exchange.getRequestURI().getPath().equals(exchange.getHttpContext().getPath())) {
+                send(exchange, 404, "text/plain", "Not found\n");
+                return;
+            }
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, "text/plain", "Send the Cisco configuration with POST\n");
+                return;
+            }
+            byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_SIZE + 1);
+            if (body.length > MAX_BODY_SIZE) {
+                send(exchange, 413, "text/plain", "Configuration larger than " + MAX_BODY_SIZE + " bytes\n");
+                return;
+            }
+
+            try {
+                endpoint.handle(exchange, parseQuery(exchange.getRequestURI().getRawQuery()),
+                    new String(body, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, "text/plain", e.getMessage() + "\n");
+            } catch (RuntimeException e) {
+                send(exchange, 500, "text/plain", "Conversion failed: " + e + "\n");
+            }
+        } catch (IOException e) {
+            // Client went away; nothing left to answer
+        }
+    }
+
+    private void parse(HttpExchange exchange, Map<String, String> query, String body) throws IOException {
+        CiscoConfig ciscoConfig = parser.parseString(body);
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"hostname\": ").append(quote(ciscoConfig.getHostname())).append(",\n");
+        json.append("  \"interfaces\": ").append(ciscoConfig.getInterfaces().size()).append(",\n");
+        json.append("  \"vlans\": ").append(ciscoConfig.getVlans().size()).append(",\n");
+        json.append("  \"staticRoutes\": ").append(ciscoConfig.getStaticRoutes().size()).append(",\n");
+        json.append("  \"accessLists\": ").append(ciscoConfig.getAccessLists().size()).append("\n");
+        json.append("}\n");
+        send(exchange, 200, "application/json", json.toString());
+    }
+
+    private void convert(HttpExchange exchange, Map<String, String> query, String body) throws IOException {
+        // Check the options before doing any work
+        String format = query.getOrDefault("format", "json");
+        boolean optimized = Boolean.parseBoolean(query.get("optimized"));
+        boolean compact = Boolean.parseBoolean(query.get("compact"));
+        int jobs;
+        try {
+            jobs = Integer.parseInt(query.getOrDefault("jobs", "1"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("jobs must be a number");
+        }
+        SonicCliGenerator scriptGenerator = "cli".equals(format) ? new SonicCliGenerator(optimized, jobs) : null;
+        if (scriptGenerator == null && !"json".equals(format) && !"resp".equals(format)) {
+            throw new IllegalArgumentException("Unknown format: " + format + " (json, cli or resp)");
+        }
+
+        SonicConfig sonicConfig = converter.convert(parser.parseString(body));
+
+        // Stream the output; the length is not known up front
+        exchange.getResponseHeaders().set("X-Conversion-Warnings", String.valueOf(sonicConfig.getWarnings().size()));
+        OutputStream out = exchange.getResponseBody();
+        if ("resp".equals(format)) {
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, 0);
+            respWriter.write(sonicConfig, out);
+            return;
+        }
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        if (scriptGenerator != null) {
+            exchange.getResponseHeaders().set("Content-Type", "text/x-shellscript; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            scriptGenerator.generateCommands(sonicConfig, writer);
+        } else {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, 0);
+            (compact ? compactJsonWriter : jsonWriter).write(sonicConfig, writer);
+        }
+        writer.flush();
+    }
+
+    private void validate(HttpExchange exchange, Map<String, String> query, String body) throws IOException {
+        CiscoConfig ciscoConfig = parser.parseString(body);
+        SonicConfig sonicConfig = converter.convert(ciscoConfig);
+        ConfigValidator.ValidationResult cisco = validator.validateCiscoConfig(ciscoConfig);
+        ConfigValidator.ValidationResult sonic = validator.validateSonicConfig(sonicConfig);
+
+        List<String> errors = new ArrayList<>(cisco.getErrors());
+        errors.addAll(sonic.getErrors());
+        List<String> warnings = new ArrayList<>(cisco.getWarnings());
+        warnings.addAll(sonic.getWarnings());
+        warnings.addAll(sonicConfig.getWarnings());
+
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"valid\": ").append(errors.isEmpty()).append(",\n");
+        appendList(json, "errors", errors).append(",\n");
+        appendList(json, "warnings", warnings).append(",\n");
+        appendList(json, "unsupportedFeatures", sonicConfig.getUnsupportedFeatures()).append("\n");
+        json.append("}\n");
+        send(exchange, 200, "application/json", json.toString());
+    }
+
+    private static StringBuilder appendList(StringBuilder json, String name, List<String> values) {
+        json.append("  ").append(quote(name)).append(": [");
+        for (int i = 0; i < values.size(); i++) {
+            json.append(i > 0 ? ", " : "").append(quote(values.get(i)));
+        }
+        return json.append("]");
+    }
+
+    /**
+     * JSON string literal, or null
+     */
+    private static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < 0x20) {
+                quoted.append(String.format("\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int equals = parameter.indexOf('=');
+            String name = equals < 0 ? parameter : parameter.substring(0, equals);
+            String value = equals < 0 ? "" : parameter.substring(equals + 1);
+            query.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String text) throws IOException {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, data.length);
+        exchange.getResponseBody().write(data);
+    }
+}
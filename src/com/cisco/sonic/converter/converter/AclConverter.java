@@ -13,44 +13,31 @@ public class AclConverter {
      */
     public void convert(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
         for (Map.Entry<String, AccessListConfig> entry : ciscoConfig.getAccessLists().entrySet()) {
-            String aclName = entry.getKey();
-            AccessListConfig aclConfig = entry.getValue();
-            
-            // Create ACL table
-            Map<String, Object> tableData = new LinkedHashMap<>();
-            tableData.put("type", "L3");
-            tableData.put("policy_desc", aclName);
-            
-            List<String> ports = new ArrayList<>();
-            // Note: In real implementation, you'd need to determine which ports this ACL applies to
-            tableData.put("ports", ports);
+            convertAccessList(entry.getKey(), entry.getValue(), sonicConfig);
+        }
+    }
+
+    /**
+     * Convert a single ACL
+     */
+    public void convertAccessList(String aclName, AccessListConfig aclConfig, SonicConfig sonicConfig) {
+        // Create ACL table
+        List<String> ports = new ArrayList<>();
+        // Note: In real implementation, you'd need to determine which ports this ACL applies to
+        
+        sonicConfig.addAclTable(aclName, new SonicRow.AclTable("L3", aclName, ports));
+        
+        // Convert ACL entries
+        int sequenceNum = 10;
+        for (AccessListConfig.AclEntry aclEntry : aclConfig.getEntries()) {
+            SonicKey.AclRule ruleKey = new SonicKey.AclRule(aclName, "RULE_" + sequenceNum);
             
-            sonicConfig.addAclTable(aclName, tableData);
+            // Protocol and addresses are left out of the rule when not set
+            SonicRow ruleData = new SonicRow.AclRule(aclEntry.getAction().toUpperCase(), String.valueOf(sequenceNum),
+                aclEntry.getProtocol(), aclEntry.getSourceIp(), aclEntry.getDestIp());
             
-            // Convert ACL entries
-            int sequenceNum = 10;
-            for (AccessListConfig.AclEntry aclEntry : aclConfig.getEntries()) {
-                String ruleKey = aclName + "|RULE_" + sequenceNum;
-                
-                Map<String, Object> ruleData = new LinkedHashMap<>();
-                ruleData.put("PACKET_ACTION", aclEntry.getAction().toUpperCase());
-                ruleData.put("PRIORITY", String.valueOf(sequenceNum));
-                
-                if (aclEntry.getProtocol() != null) {
-                    ruleData.put("IP_PROTOCOL", aclEntry.getProtocol());
-                }
-                
-                if (aclEntry.getSourceIp() != null) {
-                    ruleData.put("SRC_IP", aclEntry.getSourceIp());
-                }
-                
-                if (aclEntry.getDestIp() != null) {
-                    ruleData.put("DST_IP", aclEntry.getDestIp());
-                }
-                
-                sonicConfig.addAclRule(ruleKey, ruleData);
-                sequenceNum += 10;
-            }
+            sonicConfig.addAclRule(ruleKey, ruleData);
+            sequenceNum += 10;
         }
     }
 }
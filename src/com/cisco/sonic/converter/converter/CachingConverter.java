@@ -0,0 +1,98 @@
+package com.cisco.sonic.converter.converter;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Converts stanza by stanza, reusing the output of any stanza already converted
+ *
+ * A {@link ConfigConverter} whose stanzas go through the {@link ConversionCache}: each
+ * interface, VLAN, static route and ACL is hashed (SHA-256 over what its
+ * {@link Stanza#writeContent} writes), and when the hash is in the cache the rows it
+ * produced last time are added instead of converting it again. Re-converting a fleet
+ * where few stanzas changed since the last run then only converts the changed ones.
+ * Identical stanzas on different devices share one entry.
+ *
+ * The output is the same as ConfigConverter's. Bump CONVERTER_VERSION whenever a
+ * converter's output changes, so stale disk entries are not reused.
+ *
+ * Can be shared between threads, as can the cache.
+ */
+public class CachingConverter {
+    private static final String CONVERTER_VERSION = "1";
+    private static final ThreadLocal<StanzaHasher> HASHERS = ThreadLocal.withInitial(StanzaHasher::new);
+
+    private final ConfigConverter converter;
+    private final ConversionCache cache;
+
+    /**
+     * Create a converter that runs the stages on the calling thread
+     */
+    public CachingConverter(ConversionCache cache) {
+        this.converter = new ConfigConverter(Runnable::run, this::convertStanza);
+        this.cache = cache;
+    }
+
+    public ConversionCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Convert Cisco configuration to SONiC configuration, reusing cached stanzas
+     */
+    public SonicConfig convert(CiscoConfig ciscoConfig) {
+        return converter.convert(ciscoConfig);
+    }
+
+    /**
+     * Add a stanza's cached output, converting it into a scratch config on a miss
+     */
+    private void convertStanza(Object key, Stanza stanza, Consumer<SonicConfig> conversion, SonicConfig sonicConfig) {
+        String hash = HASHERS.get().hash(key, stanza);
+        ConversionCache.Fragment fragment = cache.get(hash);
+        if (fragment == null) {
+            SonicConfig scratch = new SonicConfig();
+            conversion.accept(scratch);
+            fragment = ConversionCache.Fragment.of(scratch);
+            cache.put(hash, fragment);
+        }
+        fragment.applyTo(sonicConfig);
+    }
+
+    /**
+     * SHA-256 over the converter version, the stanza's class and key, and its content.
+     * One per thread, reused from stanza to stanza.
+     */
+    private static final class StanzaHasher {
+        private static final HexFormat HEX = HexFormat.of();
+        private final MessageDigest digest;
+        private final DataOutputStream out;
+
+        StanzaHasher() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 is not available", e);
+            }
+            this.out = new DataOutputStream(new DigestOutputStream(OutputStream.nullOutputStream(), digest));
+        }
+
+        String hash(Object key, Stanza stanza) {
+            try {
+                out.writeUTF(CONVERTER_VERSION);
+                out.writeUTF(stanza.getClass().getName());
+                Stanza.writeValue(out, key);
+                stanza.writeContent(out);
+            } catch (IOException e) {
+                // Nothing is written anywhere but the digest
+                throw new UncheckedIOException(e);
+            }
+            return HEX.formatHex(digest.digest());
+        }
+    }
+}
@@ -2,56 +2,171 @@ package com.cisco.sonic.converter.converter;
 
 import com.cisco.sonic.converter.model.*;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
 
 /**
  * Main converter class that orchestrates the conversion from Cisco to SONiC
+ *
+ * Every conversion writes to a SonicConfig of its own, so a converter can be shared
+ * between threads.
+ *
+ * Stages convert stanza by stanza, each through the {@link StanzaConversion} given, so a
+ * caller can reuse the output of a stanza it has seen before (see {@link CachingConverter}).
  */
-public class ConfigConverter {
+public final class ConfigConverter {
+    /** Name for SonicConfig's warning list when declaring what a stage writes */
+    public static final String WARNINGS = "warnings";
+
+    /**
+     * Converts one stanza into the SonicConfig; runs conversion, or adds what it added
+     * before for the same key and stanza. The key is the stanza's key in CiscoConfig
+     * (interface name, VLAN ID or ACL name), null for a static route. Called from the
+     * stages, which may run concurrently.
+     */
+    @FunctionalInterface
+    public interface StanzaConversion {
+        StanzaConversion RUN = (key, stanza, conversion, sonicConfig) -> conversion.accept(sonicConfig);
+
+        void convert(Object key, Stanza stanza, Consumer<SonicConfig> conversion, SonicConfig sonicConfig);
+    }
+
     private final InterfaceConverter interfaceConverter;
     private final VlanConverter vlanConverter;
     private final RouteConverter routeConverter;
     private final AclConverter aclConverter;
+    private final List<ConversionStage> stages;
+    private final Executor executor;
+    private final StanzaConversion stanzaConversion;
     
+    /**
+     * Create a converter that runs independent stages concurrently on the common pool
+     */
     public ConfigConverter() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Create a converter that runs stages on the given executor.
+     * {@code Runnable::run} runs them one after another on the calling thread.
+     */
+    public ConfigConverter(Executor executor) {
+        this(executor, StanzaConversion.RUN);
+    }
+
+    /**
+     * Create a converter that runs stages on the given executor and converts each stanza
+     * through stanzaConversion
+     */
+    public ConfigConverter(Executor executor, StanzaConversion stanzaConversion) {
+        this.stanzaConversion = stanzaConversion;
         this.interfaceConverter = new InterfaceConverter();
         this.vlanConverter = new VlanConverter();
         this.routeConverter = new RouteConverter();
         this.aclConverter = new AclConverter();
+        this.executor = executor;
+
+        // Stages in sequential order, with the tables each one reads and writes
+        this.stages = List.of(
+            new ConversionStage("metadata", Set.of(), Set.of("DEVICE_METADATA"),
+                this::convertDeviceMetadata),
+            new ConversionStage("interfaces", Set.of(),
+                Set.of("PORT", "INTERFACE", "VLAN_MEMBER", "PORTCHANNEL", "PORTCHANNEL_MEMBER", WARNINGS),
+                this::convertInterfaces),
+            new ConversionStage("vlans", Set.of(), Set.of("VLAN", "VLAN_INTERFACE"),
+                this::convertVlans),
+            new ConversionStage("routes", Set.of(), Set.of("STATIC_ROUTE"),
+                this::convertRoutes),
+            new ConversionStage("acls", Set.of(), Set.of("ACL_TABLE", "ACL_RULE"),
+                this::convertAccessLists)
+        );
+    }
+
+    public List<ConversionStage> getStages() {
+        return stages;
     }
     
     /**
-     * Convert Cisco configuration to SONiC configuration
+     * Convert Cisco configuration to SONiC configuration.
+     * Each stage starts as soon as the earlier stages it depends on have finished.
      */
     public SonicConfig convert(CiscoConfig ciscoConfig) {
         SonicConfig sonicConfig = new SonicConfig();
-        
-        // Set device metadata
-        convertDeviceMetadata(ciscoConfig, sonicConfig);
-        
-        // Convert interfaces
-        interfaceConverter.convert(ciscoConfig, sonicConfig);
-        
-        // Convert VLANs
-        vlanConverter.convert(ciscoConfig, sonicConfig);
-        
-        // Convert static routes
-        routeConverter.convert(ciscoConfig, sonicConfig);
-        
-        // Convert ACLs
-        aclConverter.convert(ciscoConfig, sonicConfig);
+
+        List<CompletableFuture<Void>> done = new ArrayList<>(stages.size());
+        for (int i = 0; i < stages.size(); i++) {
+            ConversionStage stage = stages.get(i);
+
+            List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (stage.dependsOn(stages.get(j))) {
+                    dependencies.add(done.get(j));
+                }
+            }
+
+            done.add(CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> stage.run(ciscoConfig, sonicConfig), executor));
+        }
+
+        try {
+            CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            // Rethrow what the stage threw, as a sequential run would have
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
         
         return sonicConfig;
     }
     
+    private void convertInterfaces(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
+        for (Map.Entry<String, InterfaceConfig> entry : ciscoConfig.getInterfaces().entrySet()) {
+            stanzaConversion.convert(entry.getKey(), entry.getValue(),
+                into -> interfaceConverter.convertInterface(entry.getKey(), entry.getValue(), into), sonicConfig);
+        }
+    }
+
+    private void convertVlans(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
+        for (Map.Entry<Integer, VlanConfig> entry : ciscoConfig.getVlans().entrySet()) {
+            stanzaConversion.convert(entry.getKey(), entry.getValue(),
+                into -> vlanConverter.convertVlan(entry.getKey(), entry.getValue(), into), sonicConfig);
+        }
+    }
+
+    private void convertRoutes(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
+        for (RouteConfig route : ciscoConfig.getStaticRoutes()) {
+            stanzaConversion.convert(null, route, into -> routeConverter.convertRoute(route, into), sonicConfig);
+        }
+    }
+
+    private void convertAccessLists(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
+        for (Map.Entry<String, AccessListConfig> entry : ciscoConfig.getAccessLists().entrySet()) {
+            stanzaConversion.convert(entry.getKey(), entry.getValue(),
+                into -> aclConverter.convertAccessList(entry.getKey(), entry.getValue(), into), sonicConfig);
+        }
+    }
+
     /**
      * Convert device metadata (hostname, etc.)
      */
     private void convertDeviceMetadata(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
+        convertDeviceMetadata(ciscoConfig.getHostname(), sonicConfig);
+    }
+
+    /**
+     * Convert device metadata for the given hostname (null for the default)
+     */
+    public void convertDeviceMetadata(String hostname, SonicConfig sonicConfig) {
         Map<String, Object> metadata = new LinkedHashMap<>();
         Map<String, Object> localhost = new LinkedHashMap<>();
         
-        if (ciscoConfig.getHostname() != null) {
-            localhost.put("hostname", ciscoConfig.getHostname());
+        if (hostname != null) {
+            localhost.put("hostname", hostname);
         } else {
             localhost.put("hostname", "sonic");
         }
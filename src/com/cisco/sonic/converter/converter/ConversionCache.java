@@ -0,0 +1,323 @@
+package com.cisco.sonic.converter.converter;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Converted stanzas by content hash, for {@link CachingConverter}
+ *
+ * A fragment is everything one stanza (interface, VLAN, route or ACL) adds to a
+ * SonicConfig: its rows and warnings. Recently used fragments are kept in memory, up to
+ * maxEntries; with a directory, every fragment is also written there so later runs (the
+ * next night's batch, another JVM) start warm. Files go under a two-character
+ * subdirectory of their hash, e.g. "3f/3fa9...frag", and are written to a temporary file
+ * first, so a reader never sees a partial entry. Unreadable files count as misses.
+ *
+ * Fragments are immutable once cached, so a cache can be shared between threads.
+ */
+public class ConversionCache {
+    public static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final int FORMAT_VERSION = 1;
+    private static final String EXTENSION = ".frag";
+
+    private final int maxEntries;
+    private final Path directory;
+    private final Map<String, Fragment> memory;
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Memory-only cache
+     */
+    public ConversionCache(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    /**
+     * @param maxEntries fragments kept in memory
+     * @param directory  where fragments are stored between runs, or null for none
+     */
+    public ConversionCache(int maxEntries, Path directory) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Cache size must be at least 1");
+        }
+        this.maxEntries = maxEntries;
+        this.directory = directory;
+        // Access order: the eldest entry is the least recently used
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Fragment> eldest) {
+                return size() > ConversionCache.this.maxEntries;
+            }
+        };
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Fragment for a stanza hash, from memory or disk; null when it has not been converted yet
+     */
+    Fragment get(String hash) {
+        Fragment fragment;
+        synchronized (memory) {
+            fragment = memory.get(hash);
+        }
+        if (fragment != null) {
+            memoryHits.incrementAndGet();
+            return fragment;
+        }
+
+        if (directory != null) {
+            fragment = readFragment(pathOf(hash));
+            if (fragment != null) {
+                diskHits.incrementAndGet();
+                synchronized (memory) {
+                    memory.put(hash, fragment);
+                }
+                return fragment;
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Store a newly converted fragment in memory and, with a directory, on disk
+     */
+    void put(String hash, Fragment fragment) {
+        synchronized (memory) {
+            memory.put(hash, fragment);
+        }
+        if (directory != null) {
+            writeFragment(pathOf(hash), fragment);
+        }
+    }
+
+    private Path pathOf(String hash) {
+        return directory.resolve(hash.substring(0, 2)).resolve(hash + EXTENSION);
+    }
+
+    private static Fragment readFragment(Path path) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            return Fragment.read(in);
+        } catch (IOException | RuntimeException e) {
+            // Missing, partial or from another format version; convert again
+            return null;
+        }
+    }
+
+    private static void writeFragment(Path path, Fragment fragment) {
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = Files.createTempFile(path.getParent(), ".", ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    fragment.write(out);
+                }
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            // The disk tier is best effort; the fragment is still cached in memory
+        }
+    }
+
+    /**
+     * Fragments held in memory
+     */
+    public int size() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    /**
+     * Drop the in-memory fragments; the disk tier is kept
+     */
+    public void clear() {
+        synchronized (memory) {
+            memory.clear();
+        }
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        long lookups = getMemoryHits() + getDiskHits() + getMisses();
+        long hits = getMemoryHits() + getDiskHits();
+        return "Stanza cache: " + lookups + " lookups, " + getMemoryHits() + " memory hits, " + getDiskHits()
+            + " disk hits, " + getMisses() + " converted"
+            + (lookups > 0 ? " (" + (hits * 100 / lookups) + "% reused)" : "");
+    }
+
+    /**
+     * The rows and warnings one stanza adds to a SonicConfig. Rows are immutable and
+     * shared by every configuration the fragment is applied to.
+     */
+    static final class Fragment {
+        private final int[] tables;
+        private final Object[] keys;
+        private final SonicRow[] rows;
+        private final List<String> warnings;
+        private final List<String> unsupportedFeatures;
+
+        private Fragment(int[] tables, Object[] keys, SonicRow[] rows, List<String> warnings,
+                List<String> unsupportedFeatures) {
+            this.tables = tables;
+            this.keys = keys;
+            this.rows = rows;
+            this.warnings = warnings;
+            this.unsupportedFeatures = unsupportedFeatures;
+        }
+
+        /**
+         * Capture what was converted into an otherwise empty SonicConfig
+         */
+        static Fragment of(SonicConfig scratch) {
+            List<SonicTable<?>> tableList = scratch.getTables();
+            int count = 0;
+            for (SonicTable<?> table : tableList) {
+                count += table.size();
+            }
+
+            int[] tables = new int[count];
+            Object[] keys = new Object[count];
+            SonicRow[] rows = new SonicRow[count];
+            int i = 0;
+            for (int t = 0; t < tableList.size(); t++) {
+                for (Map.Entry<?, SonicRow> entry : tableList.get(t).entries()) {
+                    tables[i] = t;
+                    keys[i] = entry.getKey();
+                    rows[i] = entry.getValue();
+                    i++;
+                }
+            }
+            return new Fragment(tables, keys, rows, List.copyOf(scratch.getWarnings()),
+                List.copyOf(scratch.getUnsupportedFeatures()));
+        }
+
+        /**
+         * Add the rows and warnings to a configuration, as converting the stanza would
+         */
+        void applyTo(SonicConfig sonicConfig) {
+            List<SonicTable<?>> tableList = sonicConfig.getTables();
+            for (int i = 0; i < rows.length; i++) {
+                put(tableList.get(tables[i]), keys[i], rows[i]);
+            }
+            for (String warning : warnings) {
+                sonicConfig.addWarning(warning);
+            }
+            for (String feature : unsupportedFeatures) {
+                sonicConfig.addUnsupportedFeature(feature);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <K> void put(SonicTable<K> table, Object key, SonicRow row) {
+            // Keys were taken from the table at the same index
+            table.put((K) key, row);
+        }
+
+        /**
+         * Rows are stored as config_db keys and fields, and read back through the
+         * tables' own parsers
+         */
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(FORMAT_VERSION);
+            writeStrings(out, warnings);
+            writeStrings(out, unsupportedFeatures);
+            out.writeInt(rows.length);
+            for (int i = 0; i < rows.length; i++) {
+                out.writeByte(tables[i]);
+                out.writeUTF(keys[i].toString());
+                out.writeByte(rows[i].fieldCount());
+                for (int f = 0; f < rows[i].fieldCount(); f++) {
+                    out.writeUTF(rows[i].fieldName(f));
+                    if (rows[i].fieldValue(f) instanceof List<?> list) {
+                        out.writeByte(1);
+                        out.writeInt(list.size());
+                        for (Object item : list) {
+                            out.writeUTF(String.valueOf(item));
+                        }
+                    } else {
+                        out.writeByte(0);
+                        out.writeUTF(String.valueOf(rows[i].fieldValue(f)));
+                    }
+                }
+            }
+        }
+
+        static Fragment read(DataInputStream in) throws IOException {
+            if (in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown fragment format");
+            }
+            SonicConfig scratch = new SonicConfig();
+            for (String warning : readStrings(in)) {
+                scratch.addWarning(warning);
+            }
+            for (String feature : readStrings(in)) {
+                scratch.addUnsupportedFeature(feature);
+            }
+
+            List<SonicTable<?>> tableList = scratch.getTables();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                SonicTable<?> table = tableList.get(in.readUnsignedByte());
+                String key = in.readUTF();
+                int fieldCount = in.readUnsignedByte();
+                Map<String, Object> fields = new LinkedHashMap<>();
+                for (int f = 0; f < fieldCount; f++) {
+                    String name = in.readUTF();
+                    if (in.readByte() == 1) {
+                        List<String> list = new ArrayList<>();
+                        for (int n = in.readInt(); n > 0; n--) {
+                            list.add(in.readUTF());
+                        }
+                        fields.put(name, list);
+                    } else {
+                        fields.put(name, in.readUTF());
+                    }
+                }
+                table.put(key, fields);
+            }
+            return of(scratch);
+        }
+
+        private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+            out.writeInt(strings.size());
+            for (String string : strings) {
+                out.writeUTF(string);
+            }
+        }
+
+        private static List<String> readStrings(DataInputStream in) throws IOException {
+            List<String> strings = new ArrayList<>();
+            for (int n = in.readInt(); n > 0; n--) {
+                strings.add(in.readUTF());
+            }
+            return strings;
+        }
+    }
+}
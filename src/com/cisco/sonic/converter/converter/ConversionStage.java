@@ -0,0 +1,66 @@
+package com.cisco.sonic.converter.converter;
+
+import com.cisco.sonic.converter.model.*;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * One step of the conversion, together with the SonicConfig tables it reads and writes.
+ *
+ * ConfigConverter uses the declared tables to decide which stages can run at the same
+ * time. A stage waits for every earlier stage it shares a written table with, so each
+ * table is still filled in the same order as a sequential run.
+ */
+public final class ConversionStage {
+    private final String name;
+    private final Set<String> reads;
+    private final Set<String> writes;
+    private final BiConsumer<CiscoConfig, SonicConfig> action;
+
+    public ConversionStage(String name, Set<String> reads, Set<String> writes,
+                           BiConsumer<CiscoConfig, SonicConfig> action) {
+        this.name = name;
+        this.reads = Set.copyOf(reads);
+        this.writes = Set.copyOf(writes);
+        this.action = action;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Set<String> getReads() {
+        return reads;
+    }
+
+    public Set<String> getWrites() {
+        return writes;
+    }
+
+    /**
+     * True if this stage has to wait for an earlier stage to finish: one of them writes a
+     * table the other one reads or writes
+     */
+    public boolean dependsOn(ConversionStage earlier) {
+        for (String table : earlier.writes) {
+            if (reads.contains(table) || writes.contains(table)) {
+                return true;
+            }
+        }
+        for (String table : earlier.reads) {
+            if (writes.contains(table)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void run(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
+        action.accept(ciscoConfig, sonicConfig);
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
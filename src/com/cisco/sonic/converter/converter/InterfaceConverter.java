@@ -33,39 +33,43 @@ public class InterfaceConverter {
 
         // Second pass: Convert all interfaces
         for (Map.Entry<String, InterfaceConfig> entry : ciscoConfig.getInterfaces().entrySet()) {
-            String ciscoInterfaceName = entry.getKey();
-            InterfaceConfig interfaceConfig = entry.getValue();
-
-            // Convert interface name to SONiC format
-            String sonicInterfaceName = convertInterfaceName(ciscoInterfaceName);
+            convertInterface(entry.getKey(), entry.getValue(), sonicConfig);
+        }
+    }
 
-            if (sonicInterfaceName == null) {
-                sonicConfig.addWarning("Unsupported interface type: " + ciscoInterfaceName);
-                continue;
-            }
+    /**
+     * Convert a single interface
+     */
+    public void convertInterface(String ciscoInterfaceName, InterfaceConfig interfaceConfig, SonicConfig sonicConfig) {
+        // Convert interface name to SONiC format
+        String sonicInterfaceName = convertInterfaceName(ciscoInterfaceName);
 
-            // Handle Port-Channel member interfaces
-            if (interfaceConfig.getChannelGroup() != null) {
-                convertPortChannelMember(interfaceConfig, sonicInterfaceName, sonicConfig);
-            }
+        if (sonicInterfaceName == null) {
+            sonicConfig.addWarning("Unsupported interface type: " + ciscoInterfaceName);
+            return;
+        }
 
-            // Convert Port-Channel interface itself
-            if (ciscoInterfaceName.startsWith("Port-channel")) {
-                convertPortChannelInterface(interfaceConfig, sonicInterfaceName, sonicConfig);
-            }
+        // Handle Port-Channel member interfaces
+        if (interfaceConfig.getChannelGroup() != null) {
+            convertPortChannelMember(interfaceConfig, sonicInterfaceName, sonicConfig);
+        }
 
-            // Convert based on interface mode
-            if ("routed".equals(interfaceConfig.getMode()) || interfaceConfig.getIpAddress() != null) {
-                convertRoutedInterface(interfaceConfig, sonicInterfaceName, sonicConfig);
-            } else if ("access".equals(interfaceConfig.getMode())) {
-                convertAccessInterface(interfaceConfig, sonicInterfaceName, sonicConfig);
-            } else if ("trunk".equals(interfaceConfig.getMode())) {
-                convertTrunkInterface(interfaceConfig, sonicInterfaceName, sonicConfig);
-            }
+        // Convert Port-Channel interface itself
+        if (ciscoInterfaceName.startsWith("Port-channel")) {
+            convertPortChannelInterface(interfaceConfig, sonicInterfaceName, sonicConfig);
+        }
 
-            // Add port configuration
-            convertPortConfig(interfaceConfig, sonicInterfaceName, sonicConfig);
+        // Convert based on interface mode
+        if ("routed".equals(interfaceConfig.getMode()) || interfaceConfig.getIpAddress() != null) {
+            convertRoutedInterface(interfaceConfig, sonicInterfaceName, sonicConfig);
+        } else if ("access".equals(interfaceConfig.getMode())) {
+            convertAccessInterface(interfaceConfig, sonicInterfaceName, sonicConfig);
+        } else if ("trunk".equals(interfaceConfig.getMode())) {
+            convertTrunkInterface(interfaceConfig, sonicInterfaceName, sonicConfig);
         }
+
+        // Add port configuration
+        convertPortConfig(interfaceConfig, sonicInterfaceName, sonicConfig);
     }
     
     /**
@@ -129,13 +133,10 @@ public class InterfaceConverter {
      */
     private void convertRoutedInterface(InterfaceConfig interfaceConfig, String sonicName, SonicConfig sonicConfig) {
         if (interfaceConfig.getIpAddress() != null && interfaceConfig.getSubnetMask() != null) {
-            Map<String, Object> interfaceData = new LinkedHashMap<>();
-            
             // Convert to CIDR notation
             String cidr = NetworkUtils.toCidr(interfaceConfig.getIpAddress(), interfaceConfig.getSubnetMask());
-            interfaceData.put("NULL", "NULL");
             
-            sonicConfig.addInterface(sonicName + "|" + cidr, interfaceData);
+            sonicConfig.addInterface(new SonicKey.Address(sonicName, cidr), SonicRow.Null.INSTANCE);
         }
     }
     
@@ -144,13 +145,8 @@ public class InterfaceConverter {
      */
     private void convertAccessInterface(InterfaceConfig interfaceConfig, String sonicName, SonicConfig sonicConfig) {
         if (interfaceConfig.getAccessVlan() != null) {
-            String vlanName = "Vlan" + interfaceConfig.getAccessVlan();
-            String memberKey = vlanName + "|" + sonicName;
-            
-            Map<String, Object> memberData = new LinkedHashMap<>();
-            memberData.put("tagging_mode", "untagged");
-            
-            sonicConfig.addVlanMember(memberKey, memberData);
+            SonicKey.VlanMember memberKey = new SonicKey.VlanMember(interfaceConfig.getAccessVlan(), sonicName);
+            sonicConfig.addVlanMember(memberKey, SonicRow.VlanMember.UNTAGGED);
         }
     }
     
@@ -158,14 +154,10 @@ public class InterfaceConverter {
      * Convert trunk interface (Layer 2)
      */
     private void convertTrunkInterface(InterfaceConfig interfaceConfig, String sonicName, SonicConfig sonicConfig) {
-        for (Integer vlanId : interfaceConfig.getAllowedVlans()) {
-            String vlanName = "Vlan" + vlanId;
-            String memberKey = vlanName + "|" + sonicName;
-            
-            Map<String, Object> memberData = new LinkedHashMap<>();
-            memberData.put("tagging_mode", "tagged");
-            
-            sonicConfig.addVlanMember(memberKey, memberData);
+        VlanSet allowedVlans = interfaceConfig.getAllowedVlans();
+        for (int vlanId = allowedVlans.first(); vlanId >= 0; vlanId = allowedVlans.next(vlanId + 1)) {
+            SonicKey.VlanMember memberKey = new SonicKey.VlanMember(vlanId, sonicName);
+            sonicConfig.addVlanMember(memberKey, SonicRow.VlanMember.TAGGED);
         }
     }
     
@@ -173,47 +165,39 @@ public class InterfaceConverter {
      * Convert port-level configuration
      */
     private void convertPortConfig(InterfaceConfig interfaceConfig, String sonicName, SonicConfig sonicConfig) {
-        Map<String, Object> portData = new LinkedHashMap<>();
-        
         // Admin status
-        portData.put("admin_status", interfaceConfig.isEnabled() ? "up" : "down");
+        String adminStatus = interfaceConfig.isEnabled() ? "up" : "down";
         
         // MTU
+        String mtu = null;
         if (interfaceConfig.getMtu() != 1500) {
-            portData.put("mtu", String.valueOf(interfaceConfig.getMtu()));
+            mtu = String.valueOf(interfaceConfig.getMtu());
         }
         
         // Speed
+        String speed = null;
         if (interfaceConfig.getSpeed() != null) {
-            portData.put("speed", String.valueOf(interfaceConfig.getSpeed()));
-        }
-        
-        // Description
-        if (interfaceConfig.getDescription() != null) {
-            portData.put("description", interfaceConfig.getDescription());
+            speed = String.valueOf(interfaceConfig.getSpeed());
         }
         
-        sonicConfig.addPort(sonicName, portData);
+        sonicConfig.addPort(sonicName, new SonicRow.Port(adminStatus, mtu, speed, interfaceConfig.getDescription()));
     }
 
     /**
      * Convert Port-Channel interface configuration
      */
     private void convertPortChannelInterface(InterfaceConfig interfaceConfig, String sonicName, SonicConfig sonicConfig) {
-        Map<String, Object> portChannelData = new LinkedHashMap<>();
-
         // Admin status
-        portChannelData.put("admin_status", interfaceConfig.isEnabled() ? "up" : "down");
+        String adminStatus = interfaceConfig.isEnabled() ? "up" : "down";
 
         // MTU
+        String mtu = null;
         if (interfaceConfig.getMtu() != 1500) {
-            portChannelData.put("mtu", String.valueOf(interfaceConfig.getMtu()));
+            mtu = String.valueOf(interfaceConfig.getMtu());
         }
 
         // Min links (default to 1)
-        portChannelData.put("min_links", "1");
-
-        sonicConfig.addPortChannel(sonicName, portChannelData);
+        sonicConfig.addPortChannel(sonicName, new SonicRow.PortChannel(adminStatus, mtu, "1"));
     }
 
     /**
@@ -226,12 +210,9 @@ public class InterfaceConverter {
         }
 
         String portChannelName = "PortChannel" + channelGroup;
-        String memberKey = portChannelName + "|" + sonicName;
-
-        Map<String, Object> memberData = new LinkedHashMap<>();
-        // Empty map - SONiC doesn't require additional member configuration
 
-        sonicConfig.addPortChannelMember(memberKey, memberData);
+        // Empty row - SONiC doesn't require additional member configuration
+        sonicConfig.addPortChannelMember(new SonicKey.PortChannelMember(portChannelName, sonicName), SonicRow.Empty.INSTANCE);
     }
 }
 
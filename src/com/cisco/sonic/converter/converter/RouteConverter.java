@@ -14,19 +14,23 @@ public class RouteConverter {
      */
     public void convert(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
         for (RouteConfig route : ciscoConfig.getStaticRoutes()) {
-            String prefix = NetworkUtils.toCidr(route.getNetwork(), route.getNetmask());
-            String routeKey = "0.0.0.0/0|" + prefix + "|" + route.getNextHop();
-            
-            Map<String, Object> routeData = new LinkedHashMap<>();
-            routeData.put("nexthop", route.getNextHop());
-            routeData.put("ifname", "");
-            
-            if (route.getAdminDistance() != null) {
-                routeData.put("distance", String.valueOf(route.getAdminDistance()));
-            }
-            
-            sonicConfig.addStaticRoute(routeKey, routeData);
+            convertRoute(route, sonicConfig);
         }
     }
+
+    /**
+     * Convert a single static route
+     */
+    public void convertRoute(RouteConfig route, SonicConfig sonicConfig) {
+        String prefix = NetworkUtils.toCidr(route.getNetwork(), route.getNetmask());
+        SonicKey.StaticRoute routeKey = new SonicKey.StaticRoute("0.0.0.0/0", prefix, route.getNextHop());
+        
+        String distance = null;
+        if (route.getAdminDistance() != null) {
+            distance = String.valueOf(route.getAdminDistance());
+        }
+        
+        sonicConfig.addStaticRoute(routeKey, new SonicRow.StaticRoute(route.getNextHop(), "", distance));
+    }
 }
 
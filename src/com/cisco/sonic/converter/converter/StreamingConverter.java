@@ -0,0 +1,210 @@
+package com.cisco.sonic.converter.converter;
+
+import com.cisco.sonic.converter.model.*;
+import com.cisco.sonic.converter.parser.ConfigEventHandler;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+
+/**
+ * Converts a Cisco configuration to SONiC while it is being parsed
+ *
+ * Each interface is converted as soon as its stanza ends, and each VLAN and static route
+ * as soon as it is read, so the Cisco object model is never built. By default the rows
+ * are collected in one SonicConfig, so memory depends on the size of the SONiC output.
+ * With a {@link RowHandler} the rows of each stanza are handed over as soon as they are
+ * converted (e.g. to {@code SonicStreamWriter}) and not kept, so memory no longer grows
+ * with the output either. Only DEVICE_METADATA is deferred to the end of the input, since
+ * the hostname may appear anywhere.
+ *
+ * An interface configured in more than one stanza is converted each time. The rows of its
+ * last stanza replace those of the earlier ones and take the place of the first, so the
+ * result is the same as when the whole configuration is parsed first. A RowHandler is
+ * given the interface name to do the same.
+ */
+public class StreamingConverter implements ConfigEventHandler {
+
+    /**
+     * Receives the rows converted from one stanza
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * The configuration holds only the stanza's rows and is cleared afterwards. For an
+         * interface, interfaceName is its Cisco name, and its rows replace those handed
+         * over for the same name before; it is null for VLANs and routes.
+         */
+        void onRows(SonicConfig rows, String interfaceName) throws IOException;
+    }
+
+    private final ConfigConverter configConverter;
+    private final InterfaceConverter interfaceConverter;
+    private final VlanConverter vlanConverter;
+    private final RouteConverter routeConverter;
+    private final SonicConfig sonicConfig;
+    private final RowHandler rowHandler;
+    private final RowCollector rowCollector;
+    private final SonicConfig stanzaRows = new SonicConfig();
+    private String hostname;
+    private int interfaceCount;
+    private int vlanCount;
+    private int routeCount;
+
+    /**
+     * Collect every converted row in {@link #getSonicConfig()}
+     */
+    public StreamingConverter() {
+        this(new RowCollector());
+    }
+
+    /**
+     * Hand the rows of each stanza to the handler instead of keeping them; an IOException
+     * it throws reaches the parser's caller as an UncheckedIOException
+     */
+    public StreamingConverter(RowHandler rowHandler) {
+        this.configConverter = new ConfigConverter();
+        this.interfaceConverter = new InterfaceConverter();
+        this.vlanConverter = new VlanConverter();
+        this.routeConverter = new RouteConverter();
+        this.sonicConfig = new SonicConfig();
+        this.rowHandler = rowHandler;
+        this.rowCollector = rowHandler instanceof RowCollector collector ? collector : null;
+    }
+
+    /**
+     * The converted configuration; complete once the parser has reported the end of input.
+     * With a row handler it holds only DEVICE_METADATA, warnings and unsupported features.
+     */
+    public SonicConfig getSonicConfig() {
+        return sonicConfig;
+    }
+
+    public String getHostname() {
+        return hostname;
+    }
+
+    public int getInterfaceCount() {
+        return interfaceCount;
+    }
+
+    public int getVlanCount() {
+        return vlanCount;
+    }
+
+    public int getRouteCount() {
+        return routeCount;
+    }
+
+    @Override
+    public void onHostname(String hostname) {
+        this.hostname = hostname;
+    }
+
+    @Override
+    public void onInterfaceEnd(InterfaceConfig interfaceConfig) {
+        interfaceConverter.convertInterface(interfaceConfig.getName(), interfaceConfig, stanzaRows);
+        interfaceCount++;
+        handOver(interfaceConfig.getName());
+    }
+
+    @Override
+    public void onVlan(VlanConfig vlan) {
+        vlanConverter.convertVlan(vlan.getVlanId(), vlan, stanzaRows);
+        vlanCount++;
+        handOver(null);
+    }
+
+    @Override
+    public void onStaticRoute(RouteConfig route) {
+        routeConverter.convertRoute(route, stanzaRows);
+        routeCount++;
+        handOver(null);
+    }
+
+    @Override
+    public void onEnd() {
+        configConverter.convertDeviceMetadata(hostname, sonicConfig);
+        if (rowCollector != null) {
+            rowCollector.putInto(sonicConfig);
+        }
+    }
+
+    /**
+     * Pass the stanza's rows to the handler and keep its warnings
+     */
+    private void handOver(String interfaceName) {
+        sonicConfig.getWarnings().addAll(stanzaRows.getWarnings());
+        sonicConfig.getUnsupportedFeatures().addAll(stanzaRows.getUnsupportedFeatures());
+        stanzaRows.getWarnings().clear();
+        stanzaRows.getUnsupportedFeatures().clear();
+        try {
+            rowHandler.onRows(stanzaRows, interfaceName);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (SonicTable<?> table : stanzaRows.getTables()) {
+            table.clear();
+        }
+    }
+
+    /**
+     * Keeps the rows of every stanza until the end of input, then puts those of the last
+     * stanza of each interface into the configuration
+     */
+    private static final class RowCollector implements RowHandler {
+        private record Row(int table, Object key, SonicRow row, String interfaceName, int stanza) {
+        }
+
+        private final List<Row> rows = new ArrayList<>();
+        private final Map<String, int[]> interfaceStanzas = new HashMap<>();
+        private int stanza;
+
+        @Override
+        public void onRows(SonicConfig stanzaRows, String interfaceName) {
+            stanza++;
+            if (interfaceName != null) {
+                // First and last stanza of the interface
+                int[] stanzas = interfaceStanzas.putIfAbsent(interfaceName, new int[] {stanza, stanza});
+                if (stanzas != null) {
+                    stanzas[1] = stanza;
+                }
+            }
+            List<SonicTable<?>> tables = stanzaRows.getTables();
+            for (int t = 0; t < tables.size(); t++) {
+                for (Map.Entry<?, SonicRow> entry : tables.get(t).entries()) {
+                    rows.add(new Row(t, entry.getKey(), entry.getValue(), interfaceName, stanza));
+                }
+            }
+        }
+
+        /**
+         * The rows of each interface's last stanza, put where its first stanza was
+         */
+        void putInto(SonicConfig sonicConfig) {
+            List<Row> kept = new ArrayList<>();
+            for (Row row : rows) {
+                int[] stanzas = row.interfaceName() == null ? null : interfaceStanzas.get(row.interfaceName());
+                if (stanzas == null || stanzas[0] == stanzas[1]) {
+                    kept.add(row);
+                } else if (stanzas[1] == row.stanza()) {
+                    kept.add(new Row(row.table(), row.key(), row.row(), row.interfaceName(), stanzas[0]));
+                }
+            }
+            kept.sort(Comparator.comparingInt(Row::stanza));
+            List<SonicTable<?>> tables = sonicConfig.getTables();
+            for (Row row : kept) {
+                put(tables.get(row.table()), row.key(), row.row());
+            }
+            rows.clear();
+        }
+
+        /**
+         * Keys come from the table at the same position of getTables(), so the type
+         * matches
+         */
+        @SuppressWarnings("unchecked")
+        private static <K> void put(SonicTable<K> table, Object key, SonicRow row) {
+            table.put((K) key, row);
+        }
+    }
+}
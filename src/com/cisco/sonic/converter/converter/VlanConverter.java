@@ -14,29 +14,23 @@ public class VlanConverter {
      */
     public void convert(CiscoConfig ciscoConfig, SonicConfig sonicConfig) {
         for (Map.Entry<Integer, VlanConfig> entry : ciscoConfig.getVlans().entrySet()) {
-            Integer vlanId = entry.getKey();
-            VlanConfig vlanConfig = entry.getValue();
-            
-            String vlanName = "Vlan" + vlanId;
-            
-            // Add VLAN definition
-            Map<String, Object> vlanData = new LinkedHashMap<>();
-            vlanData.put("vlanid", String.valueOf(vlanId));
-            
-            if (vlanConfig.getName() != null) {
-                vlanData.put("description", vlanConfig.getName());
-            }
-            
-            sonicConfig.addVlan(vlanName, vlanData);
-            
-            // Add VLAN interface if IP is configured
-            if (vlanConfig.getIpAddress() != null && vlanConfig.getSubnetMask() != null) {
-                String cidr = NetworkUtils.toCidr(vlanConfig.getIpAddress(), vlanConfig.getSubnetMask());
-                Map<String, Object> vlanInterfaceData = new LinkedHashMap<>();
-                vlanInterfaceData.put("NULL", "NULL");
-                
-                sonicConfig.addVlanInterface(vlanName + "|" + cidr, vlanInterfaceData);
-            }
+            convertVlan(entry.getKey(), entry.getValue(), sonicConfig);
+        }
+    }
+
+    /**
+     * Convert a single VLAN
+     */
+    public void convertVlan(Integer vlanId, VlanConfig vlanConfig, SonicConfig sonicConfig) {
+        String vlanName = "Vlan" + vlanId;
+        
+        // Add VLAN definition
+        sonicConfig.addVlan(vlanName, new SonicRow.Vlan(String.valueOf(vlanId), vlanConfig.getName()));
+        
+        // Add VLAN interface if IP is configured
+        if (vlanConfig.getIpAddress() != null && vlanConfig.getSubnetMask() != null) {
+            String cidr = NetworkUtils.toCidr(vlanConfig.getIpAddress(), vlanConfig.getSubnetMask());
+            sonicConfig.addVlanInterface(new SonicKey.Address(vlanName, cidr), SonicRow.Null.INSTANCE);
         }
     }
 }
@@ -7,6 +7,7 @@ import com.cisco.sonic.converter.parser.CiscoConfigParser;
 import com.cisco.sonic.converter.converter.ConfigConverter;
 import com.cisco.sonic.converter.output.SonicConfigWriter;
 import com.cisco.sonic.converter.output.SonicCliGenerator;
+import com.cisco.sonic.converter.output.SonicEmitter;
 
 import javax.swing.*;
 import javax.swing.border.*;
@@ -49,11 +50,12 @@ public class ConverterGUI extends JFrame {
     private JProgressBar progressBar;
     private JComboBox<String> platformComboBox;
     private JLabel platformLabel;
+    private JCheckBox optimizedScriptCheckBox;
+    private JSpinner scriptJobsSpinner;
 
     private CiscoConfigParser parser;
     private ConfigConverter converter;
     private SonicConfigWriter writer;
-    private SonicCliGenerator cliGenerator;
 
     private File lastInputFile;
     private File lastOutputFile;
@@ -66,7 +68,6 @@ public class ConverterGUI extends JFrame {
         parser = new CiscoConfigParser();
         converter = new ConfigConverter();
         writer = new SonicConfigWriter();
-        cliGenerator = new SonicCliGenerator();
 
         // Default platform
         selectedPlatform = PLATFORM_STRINGS[0];
@@ -152,6 +153,14 @@ public class ConverterGUI extends JFrame {
         platformLabel = new JLabel("Target Platform:");
         platformLabel.setFont(new Font("Arial", Font.BOLD, 13));
 
+        // CLI script mode
+        optimizedScriptCheckBox = new JCheckBox("Optimized CLI script");
+        optimizedScriptCheckBox.setFont(new Font("Arial", Font.PLAIN, 13));
+        optimizedScriptCheckBox.setToolTipText("Use VLAN ranges and batched interface commands");
+
+        scriptJobsSpinner = new JSpinner(new SpinnerNumberModel(1, 1, 64, 1));
+        scriptJobsSpinner.setToolTipText("CLI commands the script runs at once (1 = one after another)");
+
         // Status components
         statusLabel = new JLabel("Ready");
         statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
@@ -207,6 +216,9 @@ public class ConverterGUI extends JFrame {
 
         platformPanel.add(platformLabel);
         platformPanel.add(platformComboBox);
+        platformPanel.add(optimizedScriptCheckBox);
+        platformPanel.add(new JLabel("Jobs:"));
+        platformPanel.add(scriptJobsSpinner);
 
         panel.add(platformPanel, BorderLayout.CENTER);
 
@@ -391,11 +403,13 @@ public class ConverterGUI extends JFrame {
         progressBar.setIndeterminate(true);
         statusLabel.setText("Converting...");
         logTextArea.setText("");
+        SonicCliGenerator scriptGenerator = new SonicCliGenerator(optimizedScriptCheckBox.isSelected(),
+            (Integer) scriptJobsSpinner.getValue());
 
         // Perform conversion in background thread
-        SwingWorker<String, String> worker = new SwingWorker<>() {
+        SwingWorker<Outputs, String> worker = new SwingWorker<>() {
             @Override
-            protected String doInBackground() throws Exception {
+            protected Outputs doInBackground() throws Exception {
                 publish("Starting conversion...");
                 publish("Target Platform: " + PLATFORM_OPTIONS[platformComboBox.getSelectedIndex()]);
 
@@ -436,19 +450,18 @@ public class ConverterGUI extends JFrame {
                     }
                 }
 
-                // Generate JSON output
-                publish("\nGenerating JSON output...");
-                String jsonOutput = writer.writeToString(sonicConfig);
-
-                // Generate CLI commands
-                publish("Generating CLI commands...");
-                String cliOutput = cliGenerator.generateCommands(sonicConfig);
+                // Generate JSON output and CLI commands in one pass over the configuration
+                publish("\nGenerating JSON output and CLI commands...");
+                StringWriter jsonOutput = new StringWriter();
+                StringWriter cliOutput = new StringWriter();
+                SonicEmitter.emit(sonicConfig, writer.sink(jsonOutput), scriptGenerator.sink(cliOutput));
+                Outputs outputs = new Outputs(jsonOutput.toString(), cliOutput.toString());
 
                 publish("\n✅ Conversion completed successfully!");
-                publish("✓ JSON format: " + jsonOutput.split("\n").length + " lines");
-                publish("✓ CLI format: " + cliOutput.split("\n").length + " lines");
+                publish("✓ JSON format: " + countLines(outputs.json()) + " lines");
+                publish("✓ CLI format: " + countLines(outputs.cli()) + " lines");
 
-                return jsonOutput + "\n---CLI---\n" + cliOutput;
+                return outputs;
             }
 
             @Override
@@ -461,17 +474,9 @@ public class ConverterGUI extends JFrame {
             @Override
             protected void done() {
                 try {
-                    String result = get();
-
-                    // Split the combined output into JSON and CLI
-                    String[] parts = result.split("\n---CLI---\n", 2);
-                    if (parts.length == 2) {
-                        outputJsonTextArea.setText(parts[0]);
-                        outputCliTextArea.setText(parts[1]);
-                    } else {
-                        outputJsonTextArea.setText(result);
-                        outputCliTextArea.setText("# CLI generation failed");
-                    }
+                    Outputs outputs = get();
+                    outputJsonTextArea.setText(outputs.json());
+                    outputCliTextArea.setText(outputs.cli());
 
                     saveOutputButton.setEnabled(true);
                     statusLabel.setText("Conversion completed successfully");
@@ -582,6 +587,23 @@ public class ConverterGUI extends JFrame {
         clearButton.setEnabled(enabled);
     }
 
+    /**
+     * Result of a conversion: the config_db.json document and the CLI script
+     */
+    private record Outputs(String json, String cli) {
+    }
+
+    /**
+     * Number of lines, without splitting the text
+     */
+    private static int countLines(String text) {
+        int lines = text.isEmpty() || text.endsWith("\n") ? 0 : 1;
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+            lines++;
+        }
+        return lines;
+    }
+
     private void logMessage(String message) {
         logTextArea.append(message + "\n");
         logTextArea.setCaretPosition(logTextArea.getDocument().getLength());
@@ -1,11 +1,13 @@
 package com.cisco.sonic.converter.model;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 /**
  * Represents an Access Control List configuration
  */
-public class AccessListConfig {
+public class AccessListConfig implements Stanza {
     private String name;
     private String type; // standard, extended
     private List<AclEntry> entries;
@@ -15,6 +17,16 @@ public class AccessListConfig {
         this.type = type;
         this.entries = new ArrayList<>();
     }
+
+    @Override
+    public void writeContent(DataOutput out) throws IOException {
+        Stanza.writeValue(out, name);
+        Stanza.writeValue(out, type);
+        out.writeInt(entries.size());
+        for (AclEntry entry : entries) {
+            entry.writeContent(out);
+        }
+    }
     
     public String getName() {
         return name;
@@ -44,6 +56,16 @@ public class AccessListConfig {
         public AclEntry(String action) {
             this.action = action;
         }
+
+        void writeContent(DataOutput out) throws IOException {
+            Stanza.writeValue(out, action);
+            Stanza.writeValue(out, protocol);
+            Stanza.writeValue(out, sourceIp);
+            Stanza.writeValue(out, sourceWildcard);
+            Stanza.writeValue(out, destIp);
+            Stanza.writeValue(out, destWildcard);
+            Stanza.writeValue(out, sequenceNumber);
+        }
         
         public String getAction() {
             return action;
@@ -63,6 +63,10 @@ public class CiscoConfig {
     public void addRawLine(String line) {
         this.rawLines.add(line);
     }
+
+    public void setRawLines(List<String> rawLines) {
+        this.rawLines = rawLines;
+    }
     
     public RoutingConfig getRoutingConfig() {
         return routingConfig;
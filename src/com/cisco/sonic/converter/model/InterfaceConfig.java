@@ -1,18 +1,25 @@
 package com.cisco.sonic.converter.model;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 /**
  * Represents a network interface configuration
+ *
+ * Members of an "interface range" are created against a shared template that holds the
+ * range's settings. Until a member is changed on its own it reads everything from the
+ * template, and the VLAN set and command list it returns are read-only; the first change
+ * copies the template's settings into the member.
  */
-public class InterfaceConfig {
+public class InterfaceConfig implements Stanza {
     private String name;
     private String description;
     private boolean enabled;
     private String ipAddress;
     private String subnetMask;
     private int mtu;
-    private List<Integer> allowedVlans;
+    private VlanSet allowedVlans;
     private Integer accessVlan;
     private String mode; // access, trunk, routed
     private Integer speed;
@@ -21,15 +28,70 @@ public class InterfaceConfig {
     private Integer channelGroup;  // Port-Channel number (e.g., 1 for Port-channel1)
     private String lacpMode;       // LACP mode: active, passive, on
     private List<String> additionalCommands;
+    private InterfaceConfig template;  // Shared range settings, until this interface is changed
     
     public InterfaceConfig(String name) {
         this.name = name;
         this.enabled = true;
         this.mtu = 1500;
-        this.allowedVlans = new ArrayList<>();
+        this.allowedVlans = new VlanSet();
         this.additionalCommands = new ArrayList<>();
         this.mode = "routed";
     }
+
+    /**
+     * Create an interface that shares the settings of a range template
+     */
+    public InterfaceConfig(String name, InterfaceConfig template) {
+        this.name = name;
+        this.template = template;
+    }
+
+    /**
+     * Give this interface its own copy of the template's settings.
+     * Call before modifying the VLAN set or command list returned by getAllowedVlans() or
+     * getAdditionalCommands(); both are read-only while the template is shared.
+     */
+    public void detachFromTemplate() {
+        if (template == null) {
+            return;
+        }
+        InterfaceConfig source = template;
+        this.description = source.description;
+        this.enabled = source.enabled;
+        this.ipAddress = source.ipAddress;
+        this.subnetMask = source.subnetMask;
+        this.mtu = source.mtu;
+        this.accessVlan = source.accessVlan;
+        this.mode = source.mode;
+        this.speed = source.speed;
+        this.duplex = source.duplex;
+        this.portSecurity = source.portSecurity;
+        this.channelGroup = source.channelGroup;
+        this.lacpMode = source.lacpMode;
+        this.allowedVlans = source.allowedVlans.copy();
+        this.additionalCommands = new ArrayList<>(source.additionalCommands);
+        this.template = null;
+    }
+
+    @Override
+    public void writeContent(DataOutput out) throws IOException {
+        Stanza.writeValue(out, name);
+        Stanza.writeValue(out, getDescription());
+        Stanza.writeValue(out, isEnabled());
+        Stanza.writeValue(out, getIpAddress());
+        Stanza.writeValue(out, getSubnetMask());
+        Stanza.writeValue(out, getMtu());
+        Stanza.writeValue(out, getAllowedVlans());
+        Stanza.writeValue(out, getAccessVlan());
+        Stanza.writeValue(out, getMode());
+        Stanza.writeValue(out, getSpeed());
+        Stanza.writeValue(out, getDuplex());
+        Stanza.writeValue(out, isPortSecurity());
+        Stanza.writeValue(out, getChannelGroup());
+        Stanza.writeValue(out, getLacpMode());
+        Stanza.writeValue(out, getAdditionalCommands());
+    }
     
     // Getters and Setters
     public String getName() {
@@ -41,114 +103,128 @@ public class InterfaceConfig {
     }
     
     public String getDescription() {
-        return description;
+        return template != null ? template.getDescription() : description;
     }
     
     public void setDescription(String description) {
+        detachFromTemplate();
         this.description = description;
     }
     
     public boolean isEnabled() {
-        return enabled;
+        return template != null ? template.isEnabled() : enabled;
     }
     
     public void setEnabled(boolean enabled) {
+        detachFromTemplate();
         this.enabled = enabled;
     }
     
     public String getIpAddress() {
-        return ipAddress;
+        return template != null ? template.getIpAddress() : ipAddress;
     }
     
     public void setIpAddress(String ipAddress) {
+        detachFromTemplate();
         this.ipAddress = ipAddress;
     }
     
     public String getSubnetMask() {
-        return subnetMask;
+        return template != null ? template.getSubnetMask() : subnetMask;
     }
     
     public void setSubnetMask(String subnetMask) {
+        detachFromTemplate();
         this.subnetMask = subnetMask;
     }
     
     public int getMtu() {
-        return mtu;
+        return template != null ? template.getMtu() : mtu;
     }
     
     public void setMtu(int mtu) {
+        detachFromTemplate();
         this.mtu = mtu;
     }
     
-    public List<Integer> getAllowedVlans() {
-        return allowedVlans;
+    public VlanSet getAllowedVlans() {
+        return template != null ? template.getAllowedVlans().readOnlyView() : allowedVlans;
     }
     
-    public void addAllowedVlan(Integer vlanId) {
+    public void addAllowedVlan(int vlanId) {
+        detachFromTemplate();
         this.allowedVlans.add(vlanId);
     }
     
     public Integer getAccessVlan() {
-        return accessVlan;
+        return template != null ? template.getAccessVlan() : accessVlan;
     }
     
     public void setAccessVlan(Integer accessVlan) {
+        detachFromTemplate();
         this.accessVlan = accessVlan;
     }
     
     public String getMode() {
-        return mode;
+        return template != null ? template.getMode() : mode;
     }
     
     public void setMode(String mode) {
+        detachFromTemplate();
         this.mode = mode;
     }
     
     public Integer getSpeed() {
-        return speed;
+        return template != null ? template.getSpeed() : speed;
     }
     
     public void setSpeed(Integer speed) {
+        detachFromTemplate();
         this.speed = speed;
     }
     
     public String getDuplex() {
-        return duplex;
+        return template != null ? template.getDuplex() : duplex;
     }
     
     public void setDuplex(String duplex) {
+        detachFromTemplate();
         this.duplex = duplex;
     }
     
     public boolean isPortSecurity() {
-        return portSecurity;
+        return template != null ? template.isPortSecurity() : portSecurity;
     }
     
     public void setPortSecurity(boolean portSecurity) {
+        detachFromTemplate();
         this.portSecurity = portSecurity;
     }
     
     public List<String> getAdditionalCommands() {
-        return additionalCommands;
+        return template != null ? Collections.unmodifiableList(template.getAdditionalCommands()) : additionalCommands;
     }
 
     public void addAdditionalCommand(String command) {
+        detachFromTemplate();
         this.additionalCommands.add(command);
     }
 
     public Integer getChannelGroup() {
-        return channelGroup;
+        return template != null ? template.getChannelGroup() : channelGroup;
     }
 
     public void setChannelGroup(Integer channelGroup) {
+        detachFromTemplate();
         this.channelGroup = channelGroup;
     }
 
     public String getLacpMode() {
-        return lacpMode;
+        return template != null ? template.getLacpMode() : lacpMode;
     }
 
     public void setLacpMode(String lacpMode) {
+        detachFromTemplate();
         this.lacpMode = lacpMode;
     }
 }
@@ -1,9 +1,12 @@
 package com.cisco.sonic.converter.model;
 
+import java.io.DataOutput;
+import java.io.IOException;
+
 /**
  * Represents a static route configuration
  */
-public class RouteConfig {
+public class RouteConfig implements Stanza {
     private String network;
     private String netmask;
     private String nextHop;
@@ -15,6 +18,15 @@ public class RouteConfig {
         this.netmask = netmask;
         this.nextHop = nextHop;
     }
+
+    @Override
+    public void writeContent(DataOutput out) throws IOException {
+        Stanza.writeValue(out, network);
+        Stanza.writeValue(out, netmask);
+        Stanza.writeValue(out, nextHop);
+        Stanza.writeValue(out, adminDistance);
+        Stanza.writeValue(out, exitInterface);
+    }
     
     // Getters and Setters
     public String getNetwork() {
@@ -5,34 +5,40 @@ import java.util.*;
 /**
  * Represents a SONiC configuration structure (config_db.json format)
  * Designed for Broadcom Enterprise SONiC
+ *
+ * Each table holds typed rows (see {@link SonicTable}); the Map getters return views
+ * of the same tables in their config_db.json shape. Changes through a view, down to a
+ * single field of a row, go to the table. A null field value is stored as "NULL", which
+ * is written as null.
  */
 public class SonicConfig {
     private Map<String, Object> deviceMetadata;
-    private Map<String, Map<String, Object>> ports;
-    private Map<String, Map<String, Object>> vlans;
-    private Map<String, Map<String, Object>> vlanInterfaces;
-    private Map<String, Map<String, Object>> vlanMembers;
-    private Map<String, Map<String, Object>> interfaces;
-    private Map<String, Map<String, Object>> staticRoutes;
-    private Map<String, Map<String, Object>> portChannels;
-    private Map<String, Map<String, Object>> portChannelMembers;
-    private Map<String, Map<String, Object>> aclTables;
-    private Map<String, Map<String, Object>> aclRules;
+    private final SonicTable<String> ports;
+    private final SonicTable<String> vlans;
+    private final SonicTable<SonicKey.Address> vlanInterfaces;
+    private final SonicTable<SonicKey.VlanMember> vlanMembers;
+    private final SonicTable<SonicKey.Address> interfaces;
+    private final SonicTable<SonicKey.StaticRoute> staticRoutes;
+    private final SonicTable<String> portChannels;
+    private final SonicTable<SonicKey.PortChannelMember> portChannelMembers;
+    private final SonicTable<String> aclTables;
+    private final SonicTable<SonicKey.AclRule> aclRules;
     private List<String> warnings;
     private List<String> unsupportedFeatures;
     
     public SonicConfig() {
         this.deviceMetadata = new LinkedHashMap<>();
-        this.ports = new LinkedHashMap<>();
-        this.vlans = new LinkedHashMap<>();
-        this.vlanInterfaces = new LinkedHashMap<>();
-        this.vlanMembers = new LinkedHashMap<>();
-        this.interfaces = new LinkedHashMap<>();
-        this.staticRoutes = new LinkedHashMap<>();
-        this.portChannels = new LinkedHashMap<>();
-        this.portChannelMembers = new LinkedHashMap<>();
-        this.aclTables = new LinkedHashMap<>();
-        this.aclRules = new LinkedHashMap<>();
+        this.ports = new SonicTable<>("PORT", key -> key, SonicRow.Port::fromMap);
+        this.vlans = new SonicTable<>("VLAN", key -> key, SonicRow.Vlan::fromMap);
+        this.vlanInterfaces = new SonicTable<>("VLAN_INTERFACE", SonicKey.Address::parse, SonicRow.Null::fromMap);
+        this.vlanMembers = new SonicTable<>("VLAN_MEMBER", SonicKey.VlanMember::parse, SonicRow.VlanMember::fromMap);
+        this.interfaces = new SonicTable<>("INTERFACE", SonicKey.Address::parse, SonicRow.Null::fromMap);
+        this.staticRoutes = new SonicTable<>("STATIC_ROUTE", SonicKey.StaticRoute::parse, SonicRow.StaticRoute::fromMap);
+        this.portChannels = new SonicTable<>("PORTCHANNEL", key -> key, SonicRow.PortChannel::fromMap);
+        this.portChannelMembers = new SonicTable<>("PORTCHANNEL_MEMBER", SonicKey.PortChannelMember::parse,
+            SonicRow.Empty::fromMap);
+        this.aclTables = new SonicTable<>("ACL_TABLE", key -> key, SonicRow.AclTable::fromMap);
+        this.aclRules = new SonicTable<>("ACL_RULE", SonicKey.AclRule::parse, SonicRow.AclRule::fromMap);
         this.warnings = new ArrayList<>();
         this.unsupportedFeatures = new ArrayList<>();
     }
@@ -47,46 +53,90 @@ public class SonicConfig {
     }
     
     public Map<String, Map<String, Object>> getPorts() {
+        return ports.asMap();
+    }
+
+    public SonicTable<String> getPortTable() {
         return ports;
     }
     
     public void addPort(String portName, Map<String, Object> config) {
         this.ports.put(portName, config);
     }
+
+    public void addPort(String portName, SonicRow row) {
+        this.ports.put(portName, row);
+    }
     
     public Map<String, Map<String, Object>> getVlans() {
+        return vlans.asMap();
+    }
+
+    public SonicTable<String> getVlanTable() {
         return vlans;
     }
     
     public void addVlan(String vlanName, Map<String, Object> config) {
         this.vlans.put(vlanName, config);
     }
+
+    public void addVlan(String vlanName, SonicRow row) {
+        this.vlans.put(vlanName, row);
+    }
     
     public Map<String, Map<String, Object>> getVlanInterfaces() {
+        return vlanInterfaces.asMap();
+    }
+
+    public SonicTable<SonicKey.Address> getVlanInterfaceTable() {
         return vlanInterfaces;
     }
     
     public void addVlanInterface(String vlanInterfaceName, Map<String, Object> config) {
         this.vlanInterfaces.put(vlanInterfaceName, config);
     }
+
+    public void addVlanInterface(SonicKey.Address key, SonicRow row) {
+        this.vlanInterfaces.put(key, row);
+    }
     
     public Map<String, Map<String, Object>> getVlanMembers() {
+        return vlanMembers.asMap();
+    }
+
+    public SonicTable<SonicKey.VlanMember> getVlanMemberTable() {
         return vlanMembers;
     }
     
     public void addVlanMember(String memberKey, Map<String, Object> config) {
         this.vlanMembers.put(memberKey, config);
     }
+
+    public void addVlanMember(SonicKey.VlanMember key, SonicRow row) {
+        this.vlanMembers.put(key, row);
+    }
     
     public Map<String, Map<String, Object>> getInterfaces() {
+        return interfaces.asMap();
+    }
+
+    public SonicTable<SonicKey.Address> getInterfaceTable() {
         return interfaces;
     }
     
     public void addInterface(String interfaceName, Map<String, Object> config) {
         this.interfaces.put(interfaceName, config);
     }
+
+    public void addInterface(SonicKey.Address key, SonicRow row) {
+        this.interfaces.put(key, row);
+    }
     
     public Map<String, Map<String, Object>> getStaticRoutes() {
+        return staticRoutes.asMap();
+    }
+
+    public SonicTable<SonicKey.StaticRoute> getStaticRouteTable() {
         return staticRoutes;
     }
 
@@ -94,7 +144,15 @@ public class SonicConfig {
         this.staticRoutes.put(routeKey, config);
     }
 
+    public void addStaticRoute(SonicKey.StaticRoute key, SonicRow row) {
+        this.staticRoutes.put(key, row);
+    }
+
     public Map<String, Map<String, Object>> getPortChannels() {
+        return portChannels.asMap();
+    }
+
+    public SonicTable<String> getPortChannelTable() {
         return portChannels;
     }
 
@@ -102,7 +160,15 @@ public class SonicConfig {
         this.portChannels.put(portChannelName, config);
     }
 
+    public void addPortChannel(String portChannelName, SonicRow row) {
+        this.portChannels.put(portChannelName, row);
+    }
+
     public Map<String, Map<String, Object>> getPortChannelMembers() {
+        return portChannelMembers.asMap();
+    }
+
+    public SonicTable<SonicKey.PortChannelMember> getPortChannelMemberTable() {
         return portChannelMembers;
     }
 
@@ -110,22 +176,50 @@ public class SonicConfig {
         this.portChannelMembers.put(memberKey, config);
     }
 
+    public void addPortChannelMember(SonicKey.PortChannelMember key, SonicRow row) {
+        this.portChannelMembers.put(key, row);
+    }
+
     public Map<String, Map<String, Object>> getAclTables() {
+        return aclTables.asMap();
+    }
+
+    public SonicTable<String> getAclTableTable() {
         return aclTables;
     }
     
     public void addAclTable(String tableName, Map<String, Object> config) {
         this.aclTables.put(tableName, config);
     }
+
+    public void addAclTable(String tableName, SonicRow row) {
+        this.aclTables.put(tableName, row);
+    }
     
     public Map<String, Map<String, Object>> getAclRules() {
+        return aclRules.asMap();
+    }
+
+    public SonicTable<SonicKey.AclRule> getAclRuleTable() {
         return aclRules;
     }
     
     public void addAclRule(String ruleKey, Map<String, Object> config) {
         this.aclRules.put(ruleKey, config);
     }
+
+    public void addAclRule(SonicKey.AclRule key, SonicRow row) {
+        this.aclRules.put(key, row);
+    }
     
+    /**
+     * All tables in config_db.json output order (DEVICE_METADATA is kept separately)
+     */
+    public List<SonicTable<?>> getTables() {
+        return List.of(ports, vlans, vlanInterfaces, vlanMembers, interfaces, staticRoutes,
+            portChannels, portChannelMembers, aclTables, aclRules);
+    }
+
     public List<String> getWarnings() {
         return warnings;
     }
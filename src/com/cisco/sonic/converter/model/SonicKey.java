@@ -0,0 +1,130 @@
+package com.cisco.sonic.converter.model;
+
+/**
+ * Composite keys of SONiC config_db tables. In config_db.json the parts of a key are
+ * joined with '|', e.g. "Vlan10|Ethernet1" in VLAN_MEMBER; here they are kept apart so
+ * readers of a SonicConfig never have to split key strings. toString() gives the joined
+ * form and parse() reads it back.
+ */
+public interface SonicKey {
+
+    /**
+     * VLAN_MEMBER key: Vlan&lt;id&gt;|&lt;port&gt;
+     */
+    record VlanMember(int vlanId, String port) implements SonicKey {
+        public String vlanName() {
+            return "Vlan" + vlanId;
+        }
+
+        public static VlanMember parse(String key) {
+            int bar = key.indexOf('|');
+            if (bar < 0 || !key.startsWith("Vlan")) {
+                throw new IllegalArgumentException("Invalid VLAN_MEMBER key: " + key);
+            }
+            try {
+                return new VlanMember(Integer.parseInt(key, 4, bar, 10), key.substring(bar + 1));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid VLAN_MEMBER key: " + key);
+            }
+        }
+
+        /**
+         * Port names differ in their last characters, so the record's 31 * vlanId + port
+         * hash collides across neighbouring VLANs and ports; spread the VLAN ID apart
+         * from the port instead
+         */
+        @Override
+        public int hashCode() {
+            return port.hashCode() * 4099 + vlanId;
+        }
+
+        @Override
+        public String toString() {
+            return "Vlan" + vlanId + "|" + port;
+        }
+    }
+
+    /**
+     * INTERFACE and VLAN_INTERFACE key: &lt;interface&gt;|&lt;ip/prefix&gt;, or just the
+     * interface name for a row without an address
+     */
+    record Address(String interfaceName, String prefix) implements SonicKey {
+        public static Address parse(String key) {
+            int bar = key.indexOf('|');
+            return bar < 0 ? new Address(key, null) : new Address(key.substring(0, bar), key.substring(bar + 1));
+        }
+
+        @Override
+        public String toString() {
+            return prefix == null ? interfaceName : interfaceName + "|" + prefix;
+        }
+    }
+
+    /**
+     * STATIC_ROUTE key. The converter writes &lt;scope&gt;|&lt;prefix&gt;|&lt;nexthop&gt;
+     * with 0.0.0.0/0 as scope; keys read from elsewhere may have only the prefix, or a
+     * VRF and the prefix.
+     */
+    record StaticRoute(String scope, String prefix, String nextHop) implements SonicKey {
+        public static StaticRoute parse(String key) {
+            int first = key.indexOf('|');
+            if (first < 0) {
+                return new StaticRoute(null, key, null);
+            }
+            int second = key.indexOf('|', first + 1);
+            if (second < 0) {
+                return new StaticRoute(key.substring(0, first), key.substring(first + 1), null);
+            }
+            return new StaticRoute(key.substring(0, first), key.substring(first + 1, second), key.substring(second + 1));
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder key = new StringBuilder();
+            if (scope != null) {
+                key.append(scope).append('|');
+            }
+            key.append(prefix);
+            if (nextHop != null) {
+                key.append('|').append(nextHop);
+            }
+            return key.toString();
+        }
+    }
+
+    /**
+     * PORTCHANNEL_MEMBER key: &lt;portchannel&gt;|&lt;port&gt;
+     */
+    record PortChannelMember(String portChannel, String port) implements SonicKey {
+        public static PortChannelMember parse(String key) {
+            int bar = key.indexOf('|');
+            if (bar < 0) {
+                throw new IllegalArgumentException("Invalid PORTCHANNEL_MEMBER key: " + key);
+            }
+            return new PortChannelMember(key.substring(0, bar), key.substring(bar + 1));
+        }
+
+        @Override
+        public String toString() {
+            return portChannel + "|" + port;
+        }
+    }
+
+    /**
+     * ACL_RULE key: &lt;table&gt;|&lt;rule&gt;
+     */
+    record AclRule(String table, String rule) implements SonicKey {
+        public static AclRule parse(String key) {
+            int bar = key.indexOf('|');
+            if (bar < 0) {
+                throw new IllegalArgumentException("Invalid ACL_RULE key: " + key);
+            }
+            return new AclRule(key.substring(0, bar), key.substring(bar + 1));
+        }
+
+        @Override
+        public String toString() {
+            return table + "|" + rule;
+        }
+    }
+}
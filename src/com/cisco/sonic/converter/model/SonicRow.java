@@ -0,0 +1,580 @@
+package com.cisco.sonic.converter.model;
+
+import java.util.*;
+
+/**
+ * One row of a SONiC config_db table, such as the value of "Ethernet1" in PORT.
+ *
+ * The converter's own rows are small immutable objects with one field per attribute
+ * instead of a hash map per row. Fields that are null are not part of the row. Rows of
+ * any other shape (e.g. read from a device's config_db.json) are kept as {@link Fields}.
+ * Fields are exposed by position so writers can walk a row without allocating.
+ *
+ * Rows never change once built, so rows that recur across a table (VLAN membership
+ * tagging modes, the NULL and empty marker rows) are shared instances: a trunk allowing
+ * 4094 VLANs adds 4094 keys but no new rows. Code reading a table must not rely on rows
+ * being distinct objects.
+ */
+public abstract class SonicRow {
+
+    /** Names of the fields this kind of row can hold, in output order */
+    abstract String[] names();
+
+    /** Value of the field at the given position in names(), or null if it is not set */
+    abstract Object slot(int index);
+
+    /**
+     * Number of fields set in this row
+     */
+    public int fieldCount() {
+        int count = 0;
+        for (int i = 0; i < names().length; i++) {
+            if (slot(i) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Name of the index-th field that is set
+     */
+    public String fieldName(int index) {
+        return names()[position(index)];
+    }
+
+    /**
+     * Value of the index-th field that is set
+     */
+    public Object fieldValue(int index) {
+        return slot(position(index));
+    }
+
+    /**
+     * Value of the named field, or null if it is not set
+     */
+    public Object get(String name) {
+        String[] names = names();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return slot(i);
+            }
+        }
+        return null;
+    }
+
+    public boolean containsField(String name) {
+        return get(name) != null;
+    }
+
+    /**
+     * Read-only copy of the row as a field map, in output order
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < names().length; i++) {
+            if (slot(i) != null) {
+                map.put(names()[i], slot(i));
+            }
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    private int position(int index) {
+        for (int i = 0, seen = 0; i < names().length; i++) {
+            if (slot(i) != null && seen++ == index) {
+                return i;
+            }
+        }
+        throw new IndexOutOfBoundsException("Field " + index + " of " + fieldCount());
+    }
+
+    /**
+     * Rows are equal when they hold the same fields with the same values, whatever their class
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SonicRow other) || other.fieldCount() != fieldCount()) {
+            return false;
+        }
+        for (int i = 0; i < fieldCount(); i++) {
+            if (!fieldName(i).equals(other.fieldName(i)) || !fieldValue(i).equals(other.fieldValue(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < names().length; i++) {
+            if (slot(i) != null) {
+                hash = 31 * hash + (names()[i].hashCode() ^ slot(i).hashCode());
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return toMap().toString();
+    }
+
+    /**
+     * Use the typed row if it holds exactly the fields of the map, in the same order;
+     * otherwise keep the map's fields as they are
+     */
+    static SonicRow fromMap(Map<String, Object> map, SonicRow typed) {
+        if (typed.fieldCount() != map.size()) {
+            return new Fields(map);
+        }
+        int i = 0;
+        for (Map.Entry<String, Object> field : map.entrySet()) {
+            if (!typed.fieldName(i).equals(field.getKey()) || !typed.fieldValue(i).equals(field.getValue())) {
+                return new Fields(map);
+            }
+            i++;
+        }
+        return typed;
+    }
+
+    private static String string(Map<String, Object> map, String name) {
+        return map.get(name) instanceof String value ? value : null;
+    }
+
+    /**
+     * PORT row
+     */
+    public static final class Port extends SonicRow {
+        private static final String[] NAMES = {"admin_status", "mtu", "speed", "description"};
+
+        private final String adminStatus;
+        private final String mtu;
+        private final String speed;
+        private final String description;
+
+        public Port(String adminStatus, String mtu, String speed, String description) {
+            this.adminStatus = adminStatus;
+            this.mtu = mtu;
+            this.speed = speed;
+            this.description = description;
+        }
+
+        public static SonicRow fromMap(Map<String, Object> map) {
+            return SonicRow.fromMap(map, new Port(string(map, "admin_status"), string(map, "mtu"),
+                string(map, "speed"), string(map, "description")));
+        }
+
+        public String getAdminStatus() {
+            return adminStatus;
+        }
+
+        public String getMtu() {
+            return mtu;
+        }
+
+        public String getSpeed() {
+            return speed;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return switch (index) {
+                case 0 -> adminStatus;
+                case 1 -> mtu;
+                case 2 -> speed;
+                default -> description;
+            };
+        }
+    }
+
+    /**
+     * VLAN row
+     */
+    public static final class Vlan extends SonicRow {
+        private static final String[] NAMES = {"vlanid", "description"};
+
+        private final String vlanId;
+        private final String description;
+
+        public Vlan(String vlanId, String description) {
+            this.vlanId = vlanId;
+            this.description = description;
+        }
+
+        public static SonicRow fromMap(Map<String, Object> map) {
+            return SonicRow.fromMap(map, new Vlan(string(map, "vlanid"), string(map, "description")));
+        }
+
+        public String getVlanId() {
+            return vlanId;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return index == 0 ? vlanId : description;
+        }
+    }
+
+    /**
+     * VLAN_MEMBER row
+     */
+    public static final class VlanMember extends SonicRow {
+        private static final String[] NAMES = {"tagging_mode"};
+
+        public static final VlanMember TAGGED = new VlanMember("tagged");
+        public static final VlanMember UNTAGGED = new VlanMember("untagged");
+
+        private final String taggingMode;
+
+        private VlanMember(String taggingMode) {
+            this.taggingMode = taggingMode;
+        }
+
+        /**
+         * Shared row for "tagged" and "untagged"; other modes get a row of their own
+         */
+        public static VlanMember of(String taggingMode) {
+            if (TAGGED.taggingMode.equals(taggingMode)) {
+                return TAGGED;
+            }
+            if (UNTAGGED.taggingMode.equals(taggingMode)) {
+                return UNTAGGED;
+            }
+            return new VlanMember(taggingMode);
+        }
+
+        public static SonicRow fromMap(Map<String, Object> map) {
+            return SonicRow.fromMap(map, of(string(map, "tagging_mode")));
+        }
+
+        public String getTaggingMode() {
+            return taggingMode;
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return taggingMode;
+        }
+    }
+
+    /**
+     * The {"NULL": "NULL"} row used by INTERFACE and VLAN_INTERFACE address entries
+     */
+    public static final class Null extends SonicRow {
+        private static final String[] NAMES = {"NULL"};
+
+        public static final Null INSTANCE = new Null();
+
+        private Null() {
+        }
+
+        public static SonicRow fromMap(Map<String, Object> map) {
+            return SonicRow.fromMap(map, INSTANCE);
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return "NULL";
+        }
+    }
+
+    /**
+     * A row without fields, as used by PORTCHANNEL_MEMBER
+     */
+    public static final class Empty extends SonicRow {
+        private static final String[] NAMES = {};
+
+        public static final Empty INSTANCE = new Empty();
+
+        private Empty() {
+        }
+
+        public static SonicRow fromMap(Map<String, Object> map) {
+            return SonicRow.fromMap(map, INSTANCE);
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return null;
+        }
+    }
+
+    /**
+     * STATIC_ROUTE row
+     */
+    public static final class StaticRoute extends SonicRow {
+        private static final String[] NAMES = {"nexthop", "ifname", "distance"};
+
+        private final String nexthop;
+        private final String ifname;
+        private final String distance;
+
+        public StaticRoute(String nexthop, String ifname, String distance) {
+            this.nexthop = nexthop;
+            this.ifname = ifname;
+            this.distance = distance;
+        }
+
+        public static SonicRow fromMap(Map<String, Object> map) {
+            return SonicRow.fromMap(map, new StaticRoute(string(map, "nexthop"), string(map, "ifname"),
+                string(map, "distance")));
+        }
+
+        public String getNexthop() {
+            return nexthop;
+        }
+
+        public String getIfname() {
+            return ifname;
+        }
+
+        public String getDistance() {
+            return distance;
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return switch (index) {
+                case 0 -> nexthop;
+                case 1 -> ifname;
+                default -> distance;
+            };
+        }
+    }
+
+    /**
+     * PORTCHANNEL row
+     */
+    public static final class PortChannel extends SonicRow {
+        private static final String[] NAMES = {"admin_status", "mtu", "min_links"};
+
+        private final String adminStatus;
+        private final String mtu;
+        private final String minLinks;
+
+        public PortChannel(String adminStatus, String mtu, String minLinks) {
+            this.adminStatus = adminStatus;
+            this.mtu = mtu;
+            this.minLinks = minLinks;
+        }
+
+        public static SonicRow fromMap(Map<String, Object> map) {
+            return SonicRow.fromMap(map, new PortChannel(string(map, "admin_status"), string(map, "mtu"),
+                string(map, "min_links")));
+        }
+
+        public String getAdminStatus() {
+            return adminStatus;
+        }
+
+        public String getMtu() {
+            return mtu;
+        }
+
+        public String getMinLinks() {
+            return minLinks;
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return switch (index) {
+                case 0 -> adminStatus;
+                case 1 -> mtu;
+                default -> minLinks;
+            };
+        }
+    }
+
+    /**
+     * ACL_TABLE row
+     */
+    public static final class AclTable extends SonicRow {
+        private static final String[] NAMES = {"type", "policy_desc", "ports"};
+
+        private final String type;
+        private final String policyDesc;
+        private final List<String> ports;
+
+        public AclTable(String type, String policyDesc, List<String> ports) {
+            this.type = type;
+            this.policyDesc = policyDesc;
+            this.ports = ports == null ? null : List.copyOf(ports);
+        }
+
+        @SuppressWarnings("unchecked")
+        public static SonicRow fromMap(Map<String, Object> map) {
+            List<String> ports = null;
+            if (map.get("ports") instanceof List<?> list && list.stream().allMatch(String.class::isInstance)) {
+                ports = (List<String>) list;
+            }
+            return SonicRow.fromMap(map, new AclTable(string(map, "type"), string(map, "policy_desc"), ports));
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getPolicyDesc() {
+            return policyDesc;
+        }
+
+        public List<String> getPorts() {
+            return ports;
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return switch (index) {
+                case 0 -> type;
+                case 1 -> policyDesc;
+                default -> ports;
+            };
+        }
+    }
+
+    /**
+     * ACL_RULE row
+     */
+    public static final class AclRule extends SonicRow {
+        private static final String[] NAMES = {"PACKET_ACTION", "PRIORITY", "IP_PROTOCOL", "SRC_IP", "DST_IP"};
+
+        private final String packetAction;
+        private final String priority;
+        private final String ipProtocol;
+        private final String srcIp;
+        private final String dstIp;
+
+        public AclRule(String packetAction, String priority, String ipProtocol, String srcIp, String dstIp) {
+            this.packetAction = packetAction;
+            this.priority = priority;
+            this.ipProtocol = ipProtocol;
+            this.srcIp = srcIp;
+            this.dstIp = dstIp;
+        }
+
+        public static SonicRow fromMap(Map<String, Object> map) {
+            return SonicRow.fromMap(map, new AclRule(string(map, "PACKET_ACTION"), string(map, "PRIORITY"),
+                string(map, "IP_PROTOCOL"), string(map, "SRC_IP"), string(map, "DST_IP")));
+        }
+
+        public String getPacketAction() {
+            return packetAction;
+        }
+
+        public String getPriority() {
+            return priority;
+        }
+
+        public String getIpProtocol() {
+            return ipProtocol;
+        }
+
+        public String getSrcIp() {
+            return srcIp;
+        }
+
+        public String getDstIp() {
+            return dstIp;
+        }
+
+        @Override
+        String[] names() {
+            return NAMES;
+        }
+
+        @Override
+        Object slot(int index) {
+            return switch (index) {
+                case 0 -> packetAction;
+                case 1 -> priority;
+                case 2 -> ipProtocol;
+                case 3 -> srcIp;
+                default -> dstIp;
+            };
+        }
+    }
+
+    /**
+     * A row of any other shape, kept field by field. Null values are stored as "NULL", as
+     * SonicConfigReader reads a JSON null.
+     */
+    public static final class Fields extends SonicRow {
+        private final String[] names;
+        private final Object[] values;
+
+        public Fields(Map<String, Object> fields) {
+            this.names = new String[fields.size()];
+            this.values = new Object[fields.size()];
+            int i = 0;
+            for (Map.Entry<String, Object> field : fields.entrySet()) {
+                names[i] = field.getKey();
+                // A null value is kept as "NULL", which config_db.json writes as null
+                values[i] = field.getValue() == null ? "NULL" : field.getValue();
+                i++;
+            }
+        }
+
+        @Override
+        String[] names() {
+            return names;
+        }
+
+        @Override
+        Object slot(int index) {
+            return values[index];
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.cisco.sonic.converter.model;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * One config_db table: typed rows by key, in insertion order.
+ *
+ * K is String for tables keyed by a single name (PORT, VLAN, ...) and a {@link SonicKey}
+ * record for composite keys. {@link #asMap()} offers the table in the older
+ * Map&lt;String, Map&lt;String, Object&gt;&gt; shape for code that still expects it.
+ */
+public final class SonicTable<K> {
+    private final String name;
+    private final Function<String, K> keyParser;
+    private final Function<Map<String, Object>, SonicRow> rowParser;
+    private final Map<K, SonicRow> rows;
+    private final Map<String, Map<String, Object>> mapView;
+
+    public SonicTable(String name, Function<String, K> keyParser, Function<Map<String, Object>, SonicRow> rowParser) {
+        this.name = name;
+        this.keyParser = keyParser;
+        this.rowParser = rowParser;
+        this.rows = new LinkedHashMap<>();
+        this.mapView = new MapView();
+    }
+
+    /**
+     * config_db table name, e.g. "VLAN_MEMBER"
+     */
+    public String getName() {
+        return name;
+    }
+
+    public void put(K key, SonicRow row) {
+        rows.put(key, row);
+    }
+
+    public SonicRow get(K key) {
+        return rows.get(key);
+    }
+
+    public SonicRow remove(K key) {
+        return rows.remove(key);
+    }
+
+    public boolean containsKey(K key) {
+        return rows.containsKey(key);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    public boolean isEmpty() {
+        return rows.isEmpty();
+    }
+
+    public void clear() {
+        rows.clear();
+    }
+
+    public Set<K> keys() {
+        return Collections.unmodifiableSet(rows.keySet());
+    }
+
+    public Set<Map.Entry<K, SonicRow>> entries() {
+        return Collections.unmodifiableSet(rows.entrySet());
+    }
+
+    /**
+     * Read a key in its config_db.json form, e.g. "Vlan10|Ethernet1"
+     */
+    public K parseKey(String key) {
+        return keyParser.apply(key);
+    }
+
+    /**
+     * Read a row given as a field map: the typed row when the fields match its shape
+     */
+    public SonicRow parseRow(Map<String, Object> fields) {
+        return rowParser.apply(fields);
+    }
+
+    /**
+     * Store a row given as a field map under a key in its config_db.json form
+     */
+    public void put(String key, Map<String, Object> fields) {
+        rows.put(keyParser.apply(key), rowParser.apply(fields));
+    }
+
+    /**
+     * The table as a map from joined key to field map. Changes go through to the table,
+     * including changes to a row's field map, which re-read the row from its new fields.
+     */
+    public Map<String, Map<String, Object>> asMap() {
+        return mapView;
+    }
+
+    private K keyOf(Object key) {
+        if (!(key instanceof String text)) {
+            return null;
+        }
+        try {
+            return keyParser.apply(text);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private class MapView extends AbstractMap<String, Map<String, Object>> {
+        @Override
+        public int size() {
+            return rows.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            K typedKey = keyOf(key);
+            return typedKey != null && rows.containsKey(typedKey);
+        }
+
+        @Override
+        public Map<String, Object> get(Object key) {
+            K typedKey = keyOf(key);
+            return typedKey == null || !rows.containsKey(typedKey) ? null : new RowView(typedKey);
+        }
+
+        @Override
+        public Map<String, Object> put(String key, Map<String, Object> fields) {
+            SonicRow previous = rows.put(keyParser.apply(key), rowParser.apply(fields));
+            return previous == null ? null : previous.toMap();
+        }
+
+        @Override
+        public Map<String, Object> remove(Object key) {
+            K typedKey = keyOf(key);
+            SonicRow previous = typedKey == null ? null : rows.remove(typedKey);
+            return previous == null ? null : previous.toMap();
+        }
+
+        @Override
+        public void clear() {
+            rows.clear();
+        }
+
+        @Override
+        public Set<Entry<String, Map<String, Object>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return rows.size();
+                }
+
+                @Override
+                public Iterator<Entry<String, Map<String, Object>>> iterator() {
+                    Iterator<Map.Entry<K, SonicRow>> entries = rows.entrySet().iterator();
+                    return new Iterator<>() {
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Map<String, Object>> next() {
+                            Map.Entry<K, SonicRow> entry = entries.next();
+                            return new SimpleImmutableEntry<>(entry.getKey().toString(), new RowView(entry.getKey()));
+                        }
+
+                        @Override
+                        public void remove() {
+                            entries.remove();
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+    /**
+     * A row of the map view. Reads see the row as it is in the table; each change stores
+     * a new row parsed from the changed fields.
+     */
+    private class RowView extends AbstractMap<String, Object> {
+        private final K key;
+
+        RowView(K key) {
+            this.key = key;
+        }
+
+        private Map<String, Object> fields() {
+            SonicRow row = rows.get(key);
+            return row == null ? Map.of() : row.toMap();
+        }
+
+        private void store(Map<String, Object> fields) {
+            rows.put(key, rowParser.apply(fields));
+        }
+
+        @Override
+        public Object get(Object field) {
+            return fields().get(field);
+        }
+
+        @Override
+        public boolean containsKey(Object field) {
+            return fields().containsKey(field);
+        }
+
+        @Override
+        public Object put(String field, Object value) {
+            Map<String, Object> fields = new LinkedHashMap<>(fields());
+            Object previous = fields.put(field, value);
+            store(fields);
+            return previous;
+        }
+
+        @Override
+        public Object remove(Object field) {
+            Map<String, Object> fields = fields();
+            if (!fields.containsKey(field)) {
+                return null;
+            }
+            fields = new LinkedHashMap<>(fields);
+            Object previous = fields.remove(field);
+            store(fields);
+            return previous;
+        }
+
+        @Override
+        public void clear() {
+            store(new LinkedHashMap<>());
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return fields().size();
+                }
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<Entry<String, Object>> entries = fields().entrySet().iterator();
+                    return new Iterator<>() {
+                        private String last;
+
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            Entry<String, Object> entry = entries.next();
+                            last = entry.getKey();
+                            return new SimpleImmutableEntry<>(entry);
+                        }
+
+                        @Override
+                        public void remove() {
+                            if (last == null) {
+                                throw new IllegalStateException();
+                            }
+                            RowView.this.remove(last);
+                            last = null;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.cisco.sonic.converter.model;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * A top-level block of a Cisco configuration that converts on its own: an interface,
+ * VLAN, static route or access list
+ */
+public interface Stanza {
+
+    /**
+     * Write every field conversion reads, so stanzas that write the same bytes convert to
+     * the same rows. A field added to the class must be written here too.
+     */
+    void writeContent(DataOutput out) throws IOException;
+
+    /**
+     * Write a field value: null, a list of values, or anything else as its string form
+     */
+    static void writeValue(DataOutput out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte('-');
+        } else if (value instanceof List<?> list) {
+            out.writeByte('[');
+            out.writeInt(list.size());
+            for (Object item : list) {
+                writeValue(out, item);
+            }
+        } else {
+            out.writeByte('=');
+            out.writeUTF(value.toString());
+        }
+    }
+}
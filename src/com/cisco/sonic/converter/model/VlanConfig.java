@@ -1,11 +1,13 @@
 package com.cisco.sonic.converter.model;
 
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.*;
 
 /**
  * Represents a VLAN configuration
  */
-public class VlanConfig {
+public class VlanConfig implements Stanza {
     private int vlanId;
     private String name;
     private String ipAddress;
@@ -18,6 +20,16 @@ public class VlanConfig {
         this.enabled = true;
         this.memberPorts = new ArrayList<>();
     }
+
+    @Override
+    public void writeContent(DataOutput out) throws IOException {
+        Stanza.writeValue(out, vlanId);
+        Stanza.writeValue(out, name);
+        Stanza.writeValue(out, ipAddress);
+        Stanza.writeValue(out, subnetMask);
+        Stanza.writeValue(out, enabled);
+        Stanza.writeValue(out, memberPorts);
+    }
     
     // Getters and Setters
     public int getVlanId() {
@@ -0,0 +1,250 @@
+package com.cisco.sonic.converter.model;
+
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Set of VLAN IDs backed by a fixed 4096-bit bitmap.
+ *
+ * Used for trunk allowed-VLAN lists, where "1-4094" would otherwise expand into
+ * thousands of boxed Integers per port. Iteration is in ascending VLAN order and
+ * does not box: either use {@link #forEach(IntConsumer)} or
+ * {@code for (int id = set.first(); id >= 0; id = set.next(id + 1))}.
+ *
+ * {@link #readOnlyView()} gives a view of a set that cannot be changed through it.
+ */
+public final class VlanSet {
+    public static final int MIN_VLAN_ID = 0;
+    public static final int MAX_VLAN_ID = 4095;
+
+    /** Lowest and highest VLAN IDs a trunk can carry ("all" / "except") */
+    public static final int FIRST_USABLE_VLAN_ID = 1;
+    public static final int LAST_USABLE_VLAN_ID = 4094;
+
+    private static final int WORDS = (MAX_VLAN_ID + 1) / Long.SIZE;
+
+    private final long[] words;
+    private final boolean readOnly;
+
+    public VlanSet() {
+        this(new long[WORDS], false);
+    }
+
+    private VlanSet(long[] words, boolean readOnly) {
+        this.words = words;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * Set of all usable VLANs (1-4094), as meant by "allowed vlan all"
+     */
+    public static VlanSet allUsable() {
+        VlanSet set = new VlanSet();
+        set.addRange(FIRST_USABLE_VLAN_ID, LAST_USABLE_VLAN_ID);
+        return set;
+    }
+
+    public void add(int vlanId) {
+        checkWritable();
+        checkVlanId(vlanId);
+        words[vlanId >>> 6] |= 1L << vlanId;
+    }
+
+    public void remove(int vlanId) {
+        checkWritable();
+        checkVlanId(vlanId);
+        words[vlanId >>> 6] &= ~(1L << vlanId);
+    }
+
+    public boolean contains(int vlanId) {
+        return vlanId >= MIN_VLAN_ID && vlanId <= MAX_VLAN_ID
+            && (words[vlanId >>> 6] & (1L << vlanId)) != 0;
+    }
+
+    /**
+     * Add every VLAN from first to last, inclusive
+     */
+    public void addRange(int first, int last) {
+        checkWritable();
+        checkRange(first, last);
+        for (int word = first >>> 6; word <= last >>> 6; word++) {
+            words[word] |= rangeMask(word, first, last);
+        }
+    }
+
+    /**
+     * Remove every VLAN from first to last, inclusive
+     */
+    public void removeRange(int first, int last) {
+        checkWritable();
+        checkRange(first, last);
+        for (int word = first >>> 6; word <= last >>> 6; word++) {
+            words[word] &= ~rangeMask(word, first, last);
+        }
+    }
+
+    public void addAll(VlanSet other) {
+        checkWritable();
+        for (int i = 0; i < WORDS; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    public void removeAll(VlanSet other) {
+        checkWritable();
+        for (int i = 0; i < WORDS; i++) {
+            words[i] &= ~other.words[i];
+        }
+    }
+
+    /**
+     * Replace the contents with those of another set
+     */
+    public void setTo(VlanSet other) {
+        checkWritable();
+        System.arraycopy(other.words, 0, words, 0, WORDS);
+    }
+
+    public void clear() {
+        checkWritable();
+        Arrays.fill(words, 0L);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        int size = 0;
+        for (long word : words) {
+            size += Long.bitCount(word);
+        }
+        return size;
+    }
+
+    /**
+     * Lowest VLAN ID in the set, or -1 if it is empty
+     */
+    public int first() {
+        return next(MIN_VLAN_ID);
+    }
+
+    /**
+     * Lowest VLAN ID in the set that is greater than or equal to fromId, or -1 if there is none
+     */
+    public int next(int fromId) {
+        if (fromId > MAX_VLAN_ID) {
+            return -1;
+        }
+        fromId = Math.max(fromId, MIN_VLAN_ID);
+        int word = fromId >>> 6;
+        long bits = words[word] & (-1L << fromId);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == WORDS) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    /**
+     * Call the action for each VLAN ID in ascending order
+     */
+    public void forEach(IntConsumer action) {
+        for (int word = 0; word < WORDS; word++) {
+            long bits = words[word];
+            while (bits != 0) {
+                action.accept((word << 6) + Long.numberOfTrailingZeros(bits));
+                bits &= bits - 1;
+            }
+        }
+    }
+
+    /**
+     * Modifiable copy of the set
+     */
+    public VlanSet copy() {
+        return new VlanSet(words.clone(), false);
+    }
+
+    /**
+     * View of this set that reflects its changes but throws UnsupportedOperationException
+     * when modified itself
+     */
+    public VlanSet readOnlyView() {
+        return readOnly ? this : new VlanSet(words, true);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof VlanSet other && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+
+    /**
+     * Cisco-style range list, e.g. "10,20,30-40"
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        int start = first();
+        while (start >= 0) {
+            int end = start;
+            while (end < MAX_VLAN_ID && contains(end + 1)) {
+                end++;
+            }
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(start);
+            if (end > start) {
+                sb.append('-').append(end);
+            }
+            start = next(end + 1);
+        }
+        return sb.toString();
+    }
+
+    private static long rangeMask(int word, int first, int last) {
+        long mask = -1L;
+        if (word == first >>> 6) {
+            mask &= -1L << first;
+        }
+        if (word == last >>> 6) {
+            mask &= -1L >>> (63 - (last & 63));
+        }
+        return mask;
+    }
+
+    private void checkWritable() {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Read-only VLAN set");
+        }
+    }
+
+    private static void checkVlanId(int vlanId) {
+        if (vlanId < MIN_VLAN_ID || vlanId > MAX_VLAN_ID) {
+            throw new IllegalArgumentException("VLAN ID out of range: " + vlanId);
+        }
+    }
+
+    private static void checkRange(int first, int last) {
+        checkVlanId(first);
+        checkVlanId(last);
+        if (first > last) {
+            throw new IllegalArgumentException("Invalid VLAN range: " + first + "-" + last);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.cisco.sonic.converter.output;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Dependency graph of CLI jobs for a parallel configuration script.
+ *
+ * A job is a short list of commands run one after another, together with the objects
+ * (ports, VLANs, port-channels, ...) it reads and writes. Jobs are added in the order of
+ * the serial script. Like {@link com.cisco.sonic.converter.converter.ConversionStage}, a
+ * job waits for every earlier job it shares a written object with, so commands touching
+ * the same object still run in their serial order.
+ *
+ * Each job is placed in the earliest stage after all its dependencies when its first
+ * command is added; jobs holding only comments depend on nothing. The rendered
+ * script starts the jobs of a stage in the background, at most MAX_JOBS at a time, and
+ * waits for all of them before starting the next stage.
+ */
+class CommandGraph {
+    private final List<Job> jobs = new ArrayList<>();
+    private final Map<String, Access> objects = new HashMap<>();
+    private final List<String> notes = new ArrayList<>();
+    private int stages;
+
+    /**
+     * Commands that run in sequence, plus comments shown above them
+     */
+    final class Job {
+        private final Collection<String> writes;
+        private final Collection<String> reads;
+        private final List<String> comments = new ArrayList<>();
+        private final List<String> commands = new ArrayList<>();
+        private int stage;
+
+        private Job(Collection<String> writes, Collection<String> reads) {
+            this.writes = writes;
+            this.reads = reads;
+        }
+
+        void comment(String text) {
+            comments.add(text);
+        }
+
+        void command(String command) {
+            if (commands.isEmpty()) {
+                place(this);
+            }
+            commands.add(command);
+        }
+    }
+
+    /**
+     * Last job to write an object and the jobs that read it since
+     */
+    private static final class Access {
+        Job writer;
+        List<Job> readers = new ArrayList<>();
+    }
+
+    /**
+     * Add a job after the jobs added so far
+     */
+    Job add(Collection<String> writes, Collection<String> reads) {
+        Job job = new Job(writes, reads);
+        jobs.add(job);
+        return job;
+    }
+
+    /**
+     * Put a job in the first stage after the jobs it depends on and record its accesses
+     */
+    private void place(Job job) {
+        Collection<String> writes = job.writes;
+        Collection<String> reads = job.reads;
+        int stage = 1;
+        for (String object : writes) {
+            Access access = objects.get(object);
+            if (access != null) {
+                stage = Math.max(stage, after(access.writer));
+                for (Job reader : access.readers) {
+                    stage = Math.max(stage, reader.stage + 1);
+                }
+            }
+        }
+        for (String object : reads) {
+            Access access = objects.get(object);
+            if (access != null) {
+                stage = Math.max(stage, after(access.writer));
+            }
+        }
+
+        job.stage = stage;
+        for (String object : writes) {
+            Access access = objects.computeIfAbsent(object, o -> new Access());
+            access.writer = job;
+            access.readers = new ArrayList<>();
+        }
+        for (String object : reads) {
+            if (!writes.contains(object)) {
+                objects.computeIfAbsent(object, o -> new Access()).readers.add(job);
+            }
+        }
+        stages = Math.max(stages, stage);
+    }
+
+    private static int after(Job job) {
+        return job == null ? 1 : job.stage + 1;
+    }
+
+    /**
+     * Comment that belongs to no job; shown after the last stage
+     */
+    void note(String text) {
+        notes.add(text);
+    }
+
+    /**
+     * Append the job-control helpers and every stage, separated by barriers
+     */
+    void render(Appendable out, int maxJobs) throws IOException {
+        out.append("# Independent commands run in parallel in ").append(String.valueOf(stages)).append(" stages.\n");
+        out.append("# Set MAX_JOBS to change how many run at once.\n");
+        out.append("MAX_JOBS=${MAX_JOBS:-").append(String.valueOf(maxJobs)).append("}\n");
+        out.append("PIDS=()\n");
+        out.append("FAILED=0\n\n");
+        // Called after starting a job: wait for the oldest one once MAX_JOBS are running
+        out.append("track() {\n");
+        out.append("    PIDS+=($!)\n");
+        out.append("    if [ ${#PIDS[@]} -ge \"$MAX_JOBS\" ]; then\n");
+        out.append("        wait \"${PIDS[0]}\" || FAILED=1\n");
+        out.append("        PIDS=(\"${PIDS[@]:1}\")\n");
+        out.append("    fi\n");
+        out.append("}\n\n");
+        // Wait for the whole stage; later stages depend on it, so stop if anything failed
+        out.append("barrier() {\n");
+        out.append("    for pid in \"${PIDS[@]}\"; do\n");
+        out.append("        wait \"$pid\" || FAILED=1\n");
+        out.append("    done\n");
+        out.append("    PIDS=()\n");
+        out.append("    if [ \"$FAILED\" -ne 0 ]; then\n");
+        out.append("        echo \"Stage $1 failed, stopping\"\n");
+        out.append("        exit 1\n");
+        out.append("    fi\n");
+        out.append("}\n\n");
+
+        // Jobs of each stage, in the order they were added; comment-only jobs go first
+        List<List<Job>> byStage = new ArrayList<>();
+        for (int i = 0; i < Math.max(stages, 1); i++) {
+            byStage.add(new ArrayList<>());
+        }
+        for (Job job : jobs) {
+            byStage.get(Math.max(job.stage, 1) - 1).add(job);
+        }
+
+        for (int i = 0; i < stages; i++) {
+            int stage = i + 1;
+            List<Job> stageJobs = byStage.get(i);
+            int running = 0;
+            for (Job job : stageJobs) {
+                running += job.commands.isEmpty() ? 0 : 1;
+            }
+            out.append("# Stage ").append(String.valueOf(stage)).append(" (").append(String.valueOf(running))
+                .append(running == 1 ? " job)\n" : " jobs)\n");
+            out.append("echo \"Stage ").append(String.valueOf(stage)).append(" of ").append(String.valueOf(stages)).append("...\"\n");
+            for (Job job : stageJobs) {
+                for (String comment : job.comments) {
+                    out.append("# ").append(comment).append("\n");
+                }
+                if (job.commands.size() == 1) {
+                    out.append(job.commands.get(0)).append(" & track\n");
+                } else if (!job.commands.isEmpty()) {
+                    out.append("{ ");
+                    for (int c = 0; c < job.commands.size(); c++) {
+                        out.append(c > 0 ? " && " : "").append(job.commands.get(c));
+                    }
+                    out.append("; } & track\n");
+                }
+            }
+            out.append("barrier ").append(String.valueOf(stage)).append("\n\n");
+        }
+
+        // Without any commands there are no stages to show the comments in
+        List<String> trailing = new ArrayList<>();
+        if (stages == 0) {
+            for (Job job : jobs) {
+                trailing.addAll(job.comments);
+            }
+        }
+        trailing.addAll(notes);
+        for (String note : trailing) {
+            out.append("# ").append(note).append("\n");
+        }
+        if (!trailing.isEmpty()) {
+            out.append("\n");
+        }
+    }
+}
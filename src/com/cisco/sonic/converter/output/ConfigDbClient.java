@@ -0,0 +1,461 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.SonicConfig;
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.*;
+
+/**
+ * Applies a SonicConfig directly to a CONFIG_DB Redis endpoint
+ *
+ * Rows are sent as the same HSET commands {@link SonicRespWriter} produces, grouped into
+ * MULTI/EXEC transactions of at most batchSize commands that never span two tables.
+ * Batches are pipelined over one connection: up to maxInFlight batches are sent before
+ * the replies of the oldest one are read, which keeps the connection busy while bounding
+ * the replies waiting in the socket buffers.
+ *
+ * A batch whose transaction fails is sent again; if the connection is lost, the client
+ * reconnects and resends every batch not yet acknowledged. HSET is idempotent, so
+ * repeating a batch is safe. Either way a batch is tried at most maxRetries + 1 times.
+ *
+ * In dry-run mode the batches are built and counted but nothing is sent.
+ */
+public class ConfigDbClient {
+    public static final int CONFIG_DB = 4;
+    public static final int DEFAULT_PORT = 6379;
+
+    private static final List<String> MULTI = List.of("MULTI");
+    private static final List<String> EXEC = List.of("EXEC");
+
+    private final String host;
+    private final int port;
+    private int database = CONFIG_DB;
+    private int batchSize = 500;
+    private int maxInFlight = 4;
+    private int maxRetries = 3;
+    private long retryDelayMillis = 200;
+    private int timeoutMillis = 10_000;
+    private boolean dryRun;
+
+    public ConfigDbClient(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Parse "host", "host:port" or ":port" (localhost)
+     */
+    public static ConfigDbClient forEndpoint(String endpoint) {
+        int colon = endpoint.lastIndexOf(':');
+        if (colon < 0) {
+            return new ConfigDbClient(endpoint, DEFAULT_PORT);
+        }
+        String host = colon == 0 ? "localhost" : endpoint.substring(0, colon);
+        return new ConfigDbClient(host, Integer.parseInt(endpoint.substring(colon + 1)));
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public int getDatabase() {
+        return database;
+    }
+
+    public void setDatabase(int database) {
+        this.database = database;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Maximum HSET commands per MULTI/EXEC transaction
+     */
+    public void setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Maximum batches sent but not yet acknowledged
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("In-flight batches must be at least 1");
+        }
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryDelayMillis() {
+        return retryDelayMillis;
+    }
+
+    /**
+     * Pause before a retry; multiplied by the attempt number
+     */
+    public void setRetryDelayMillis(long retryDelayMillis) {
+        this.retryDelayMillis = retryDelayMillis;
+    }
+
+    public int getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(int timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    /**
+     * Write every row of the configuration to CONFIG_DB
+     */
+    public ApplyResult apply(SonicConfig config) throws IOException {
+        long start = System.nanoTime();
+        ApplyResult result = new ApplyResult(dryRun);
+        Session session = new Session(result);
+        try {
+            SonicRespWriter.forEachCommand(config, session);
+            session.finish();
+        } finally {
+            session.close();
+        }
+        result.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return result;
+    }
+
+    /**
+     * One MULTI ... EXEC transaction, encoded once and resent as is on retry
+     */
+    private static final class Batch {
+        final String table;
+        final byte[] payload;
+        final int commands;
+        int attempts = 1;
+
+        Batch(String table, byte[] payload, int commands) {
+            this.table = table;
+            this.payload = payload;
+            this.commands = commands;
+        }
+    }
+
+    /**
+     * Socket with a RESP reader
+     */
+    private static final class Connection implements Closeable {
+        final Socket socket;
+        final OutputStream out;
+        final RespReader in;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+            this.in = new RespReader(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+        }
+
+        void send(Batch batch) throws IOException {
+            out.write(batch.payload);
+            out.flush();
+        }
+
+        @Override
+        public void close() {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignore close errors
+            }
+        }
+    }
+
+    /**
+     * State of one apply() call: the batch being built and the batches in flight
+     */
+    private final class Session implements SonicRespWriter.CommandConsumer {
+        private final ApplyResult result;
+        private final Deque<Batch> inFlight = new ArrayDeque<>();
+        private Connection connection;
+        private ByteArrayOutputStream bytes;
+        private SonicRespWriter.RespOutput encoder;
+        private String table;
+        private int commands;
+
+        Session(ApplyResult result) {
+            this.result = result;
+        }
+
+        @Override
+        public void accept(String table, List<String> command) throws IOException {
+            if (encoder != null && (!table.equals(this.table) || commands == batchSize)) {
+                dispatch(seal());
+            }
+            if (encoder == null) {
+                bytes = new ByteArrayOutputStream();
+                encoder = new SonicRespWriter.RespOutput(bytes, 8192);
+                encoder.writeCommand(MULTI);
+                this.table = table;
+                commands = 0;
+            }
+            encoder.writeCommand(command);
+            commands++;
+        }
+
+        void finish() throws IOException {
+            if (encoder != null) {
+                dispatch(seal());
+            }
+            while (!inFlight.isEmpty()) {
+                complete();
+            }
+        }
+
+        void close() {
+            if (connection != null) {
+                connection.close();
+            }
+        }
+
+        private Batch seal() throws IOException {
+            encoder.writeCommand(EXEC);
+            encoder.flush();
+            Batch batch = new Batch(table, bytes.toByteArray(), commands);
+            encoder = null;
+            bytes = null;
+            return batch;
+        }
+
+        private void dispatch(Batch batch) throws IOException {
+            result.batches++;
+            result.commands += batch.commands;
+            result.bytes += batch.payload.length;
+            result.tableCommands.merge(batch.table, batch.commands, Integer::sum);
+            if (dryRun) {
+                return;
+            }
+
+            while (inFlight.size() >= maxInFlight) {
+                complete();
+            }
+            inFlight.addLast(batch);
+            try {
+                if (connection == null) {
+                    connection = connect();
+                }
+                connection.send(batch);
+            } catch (IOException e) {
+                recover(e);
+            }
+        }
+
+        /**
+         * Read the replies of the oldest batch in flight: +OK for MULTI, +QUEUED for each
+         * command and the EXEC result, an array with one reply per command. A command
+         * that fails inside EXEC (e.g. WRONGTYPE) is an error element of that array; the
+         * others were applied, and since HSET can be repeated the batch is sent again.
+         */
+        private void complete() throws IOException {
+            Batch batch = inFlight.peekFirst();
+            String failure = null;
+            try {
+                for (int i = 0; i < batch.commands + 2; i++) {
+                    Object reply = connection.in.read();
+                    if (failure != null) {
+                        continue;
+                    }
+                    if (reply instanceof RespReader.Error error) {
+                        failure = error.message();
+                    } else if (i == batch.commands + 1) {
+                        failure = reply == null ? "transaction aborted" : execFailure(reply);
+                    }
+                }
+            } catch (IOException e) {
+                recover(e);
+                return;
+            }
+
+            inFlight.removeFirst();
+            if (failure == null) {
+                return;
+            }
+            if (batch.attempts > maxRetries) {
+                throw new IOException("CONFIG_DB batch for " + batch.table + " failed after "
+                    + batch.attempts + " attempts: " + failure);
+            }
+            result.retries++;
+            pause(batch.attempts++);
+            inFlight.addLast(batch);
+            try {
+                connection.send(batch);
+            } catch (IOException e) {
+                recover(e);
+            }
+        }
+
+        /**
+         * The first error among the results of EXEC, or null if every command succeeded
+         */
+        private String execFailure(Object execReply) {
+            if (execReply instanceof List<?> results) {
+                for (Object result : results) {
+                    if (result instanceof RespReader.Error error) {
+                        return error.message();
+                    }
+                }
+            }
+            return null;
+        }
+
+        /**
+         * The connection failed: reconnect and resend every unacknowledged batch
+         */
+        private void recover(IOException cause) throws IOException {
+            for (int attempt = 1; ; attempt++) {
+                if (connection != null) {
+                    connection.close();
+                    connection = null;
+                }
+                for (Batch batch : inFlight) {
+                    if (batch.attempts > maxRetries) {
+                        throw new IOException("CONFIG_DB batch for " + batch.table + " failed after "
+                            + batch.attempts + " attempts", cause);
+                    }
+                }
+                if (attempt > maxRetries + 1) {
+                    throw new IOException("Cannot reach CONFIG_DB at " + host + ":" + port, cause);
+                }
+                pause(attempt);
+                result.reconnects++;
+                try {
+                    connection = connect();
+                    for (Batch batch : inFlight) {
+                        batch.attempts++;
+                        connection.send(batch);
+                    }
+                    return;
+                } catch (IOException e) {
+                    cause = e;
+                }
+            }
+        }
+
+        private Connection connect() throws IOException {
+            Socket socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.setSoTimeout(timeoutMillis);
+            try {
+                socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+                Connection connection = new Connection(socket);
+                SonicRespWriter.RespOutput select = new SonicRespWriter.RespOutput(connection.out, 64);
+                select.writeCommand(List.of("SELECT", String.valueOf(database)));
+                select.flush();
+                if (connection.in.read() instanceof RespReader.Error error) {
+                    throw new IOException("SELECT " + database + " failed: " + error.message());
+                }
+                return connection;
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+        }
+
+        private void pause(int attempt) throws IOException {
+            try {
+                Thread.sleep(retryDelayMillis * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while retrying");
+            }
+        }
+    }
+
+    /**
+     * What apply() sent
+     */
+    public static class ApplyResult {
+        private final boolean dryRun;
+        private final Map<String, Integer> tableCommands = new LinkedHashMap<>();
+        private int commands;
+        private int batches;
+        private long bytes;
+        private int retries;
+        private int reconnects;
+        private long elapsedMillis;
+
+        ApplyResult(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        public boolean isDryRun() {
+            return dryRun;
+        }
+
+        /**
+         * HSET commands per table, in the order the tables were sent
+         */
+        public Map<String, Integer> getTableCommands() {
+            return Collections.unmodifiableMap(tableCommands);
+        }
+
+        public int getCommands() {
+            return commands;
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Transactions sent again after a failed EXEC
+         */
+        public int getRetries() {
+            return retries;
+        }
+
+        public int getReconnects() {
+            return reconnects;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return (dryRun ? "Dry run: " : "Applied ") + commands + " HSET commands in " + batches
+                + " transactions (" + bytes + " bytes, " + retries + " retries, " + reconnects
+                + " reconnects) in " + elapsedMillis + " ms";
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Callbacks driven by {@link SonicEmitter} while it walks a SonicConfig, for output
+ * formats that write the configuration as it is visited.
+ *
+ * Every method has an empty default, so implementations only override what they need.
+ * Empty tables are not visited. The SonicConfig passed to onStart() can be read at any
+ * time, for lookups into tables that have not been visited yet.
+ */
+public interface ConfigSink {
+
+    /**
+     * Before anything else
+     */
+    default void onStart(SonicConfig config) throws IOException {
+    }
+
+    /**
+     * The DEVICE_METADATA entries, before the first table; not called if there are none
+     */
+    default void onDeviceMetadata(Map<String, Object> metadata) throws IOException {
+    }
+
+    default void onTableStart(SonicTable<?> table) throws IOException {
+    }
+
+    /**
+     * A row of the current table; key is the table's key type (String or a SonicKey)
+     */
+    default void onRow(SonicTable<?> table, Object key, SonicRow row) throws IOException {
+    }
+
+    default void onTableEnd(SonicTable<?> table) throws IOException {
+    }
+
+    /**
+     * Everything has been visited; flush any buffered output
+     */
+    default void onEnd() throws IOException {
+    }
+}
@@ -0,0 +1,497 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.SonicKey;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Pull scanner over a UTF-8 JSON document held in a ByteBuffer (typically a memory-mapped
+ * config_db.json)
+ *
+ * Values are read where they are needed and skipped otherwise; no document tree is
+ * built. Short ASCII strings without escapes (field names, "up", "tagged", port names)
+ * are looked up in a small cache before a String is created, so the same text shares one
+ * instance across a file. A scanner keeps its position and cache, so it must not be
+ * shared between threads.
+ */
+final class JsonScanner {
+    private static final int CACHE_SIZE = 4096;
+    private static final int CACHED_LENGTH = 32;
+
+    private final ByteBuffer buffer;
+    private final int limit;
+    private int position;
+    // False once a value has been read at the current level, so the next one needs a comma
+    private boolean first;
+    private final String[] cache = new String[CACHE_SIZE];
+    private byte[] scratch = new byte[256];
+
+    JsonScanner(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        this.position = buffer.position();
+        // Skip a UTF-8 byte order mark
+        if (limit - position >= 3 && buffer.get(position) == (byte) 0xEF && buffer.get(position + 1) == (byte) 0xBB
+                && buffer.get(position + 2) == (byte) 0xBF) {
+            position += 3;
+        }
+    }
+
+    int position() {
+        return position;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Next non-whitespace byte without consuming it, or -1 at the end
+     */
+    int peek() {
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return b & 0xFF;
+            }
+            position++;
+        }
+        return -1;
+    }
+
+    void beginObject() throws IOException {
+        expect('{');
+        first = true;
+    }
+
+    void endObject() throws IOException {
+        expect('}');
+        first = false;
+    }
+
+    void beginArray() throws IOException {
+        expect('[');
+        first = true;
+    }
+
+    void endArray() throws IOException {
+        expect(']');
+        first = false;
+    }
+
+    /**
+     * Whether the current object or array has another member; consumes the comma before it
+     */
+    boolean hasNext() throws IOException {
+        int c = peek();
+        if (c == '}' || c == ']') {
+            return false;
+        }
+        if (!first) {
+            if (c != ',') {
+                throw error("Expected ',' or end of " + (c < 0 ? "document" : "object or array"));
+            }
+            position++;
+            c = peek();
+            if (c == '}' || c == ']') {
+                throw error("Trailing comma");
+            }
+        }
+        first = false;
+        return true;
+    }
+
+    /**
+     * Member name and the ':' after it
+     */
+    String nextName() throws IOException {
+        String name = readString();
+        expect(':');
+        return name;
+    }
+
+    /**
+     * A config_db field value: a string, a list of strings, or null (read as "NULL", the
+     * way {@link SonicConfigWriter} writes it). Numbers and booleans are kept as their text.
+     */
+    Object readFieldValue() throws IOException {
+        int c = peek();
+        if (c == '[') {
+            List<Object> list = new ArrayList<>();
+            beginArray();
+            while (hasNext()) {
+                list.add(readScalar());
+            }
+            endArray();
+            return list;
+        }
+        if (c == '{') {
+            throw error("Unexpected object in a field value");
+        }
+        return readScalar();
+    }
+
+    /**
+     * Any value as Strings, Numbers, Booleans, nulls, Lists and LinkedHashMaps, for the
+     * small DEVICE_METADATA section
+     */
+    Object readValue() throws IOException {
+        int c = peek();
+        if (c == '{') {
+            Map<String, Object> map = new LinkedHashMap<>();
+            beginObject();
+            while (hasNext()) {
+                String name = nextName();
+                map.put(name, readValue());
+            }
+            endObject();
+            return map;
+        }
+        if (c == '[') {
+            List<Object> list = new ArrayList<>();
+            beginArray();
+            while (hasNext()) {
+                list.add(readValue());
+            }
+            endArray();
+            return list;
+        }
+        if (c == '"') {
+            return readString();
+        }
+        String literal = readLiteral();
+        if (literal.equals("null")) {
+            return null;
+        }
+        if (literal.equals("true") || literal.equals("false")) {
+            return Boolean.valueOf(literal);
+        }
+        try {
+            return Long.valueOf(literal);
+        } catch (NumberFormatException e) {
+            return Double.valueOf(literal);
+        }
+    }
+
+    private String readScalar() throws IOException {
+        if (peek() == '"') {
+            return readString();
+        }
+        String literal = readLiteral();
+        return literal.equals("null") ? "NULL" : literal;
+    }
+
+    /**
+     * true, false, null or a number, as its text
+     */
+    private String readLiteral() throws IOException {
+        int c = peek();
+        int start = position;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == ',' || b == '}' || b == ']' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                break;
+            }
+            position++;
+        }
+        if (position == start) {
+            throw error(c < 0 ? "Unexpected end of document" : "Unexpected '" + (char) c + "'");
+        }
+        String literal = decode(start, position - start, true);
+        if (!literal.equals("null") && !literal.equals("true") && !literal.equals("false") && !isNumber(literal)) {
+            throw error("Invalid literal " + literal);
+        }
+        return literal;
+    }
+
+    /**
+     * Skip any value without decoding it, and return where it started; the value's bytes
+     * are [start, position()). Only strings and brackets are checked inside a skipped
+     * object or array.
+     */
+    int skipValue() throws IOException {
+        int c = peek();
+        int start = position;
+        if (c == '{' || c == '[') {
+            // Strings are skipped whole, so brackets inside them are not counted
+            int depth = 0;
+            do {
+                c = peek();
+                if (c == '"') {
+                    skipString();
+                    continue;
+                }
+                if (c < 0) {
+                    throw error("Unexpected end of document");
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                }
+                position++;
+            } while (depth > 0);
+        } else if (c == '"') {
+            skipString();
+        } else {
+            readLiteral();
+        }
+        return start;
+    }
+
+    private void skipString() throws IOException {
+        expect('"');
+        while (position < limit) {
+            byte b = buffer.get(position++);
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                position++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    /**
+     * A VLAN_MEMBER key "Vlan&lt;id&gt;|&lt;port&gt;" read without building the joined string, or
+     * null (with nothing consumed) when the key has another form
+     */
+    SonicKey.VlanMember readVlanMemberKey() throws IOException {
+        if (peek() != '"' || !startsWith(position + 1, "Vlan")) {
+            return null;
+        }
+        int i = position + 5;
+        int vlanId = 0;
+        int digits = 0;
+        while (i < limit && buffer.get(i) >= '0' && buffer.get(i) <= '9' && digits < 5) {
+            vlanId = vlanId * 10 + (buffer.get(i++) - '0');
+            digits++;
+        }
+        if (digits == 0 || i >= limit || buffer.get(i) != '|') {
+            return null;
+        }
+        int portStart = ++i;
+        int hash = 0;
+        while (i < limit && buffer.get(i) != '"') {
+            byte b = buffer.get(i);
+            if (b == '\\' || b < 0x20) {
+                return null;
+            }
+            hash = 31 * hash + b;
+            i++;
+        }
+        if (i >= limit || i == portStart) {
+            return null;
+        }
+        String port = decodeAscii(portStart, i - portStart, hash);
+        position = i + 1;
+        return new SonicKey.VlanMember(vlanId, port);
+    }
+
+    String readString() throws IOException {
+        expect('"');
+        int start = position;
+        boolean ascii = true;
+        int hash = 0;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == '"') {
+                String value = ascii ? decodeAscii(start, position - start, hash)
+                    : newString(start, position - start, StandardCharsets.UTF_8);
+                position++;
+                return value;
+            }
+            if (b == '\\') {
+                position = start;
+                return readEscapedString();
+            }
+            if (b < 0) {
+                ascii = false;
+            } else if (b < 0x20) {
+                throw error("Control character in string");
+            }
+            hash = 31 * hash + b;
+            position++;
+        }
+        throw error("Unterminated string");
+    }
+
+    /**
+     * Slow path for strings with escapes: runs of raw bytes are decoded as UTF-8
+     */
+    private String readEscapedString() throws IOException {
+        StringBuilder value = new StringBuilder();
+        int run = position;
+        while (position < limit) {
+            byte b = buffer.get(position);
+            if (b == '"' || b == '\\') {
+                value.append(decode(run, position - run, false));
+                position++;
+                if (b == '"') {
+                    return value.toString();
+                }
+                if (position >= limit) {
+                    break;
+                }
+                byte escape = buffer.get(position++);
+                switch (escape) {
+                    case '"', '\\', '/' -> value.append((char) escape);
+                    case 'b' -> value.append('\b');
+                    case 'f' -> value.append('\f');
+                    case 'n' -> value.append('\n');
+                    case 'r' -> value.append('\r');
+                    case 't' -> value.append('\t');
+                    case 'u' -> value.append(readHexChar());
+                    default -> throw error("Invalid escape \\" + (char) escape);
+                }
+                run = position;
+            } else if (b >= 0 && b < 0x20) {
+                throw error("Control character in string");
+            } else {
+                position++;
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private char readHexChar() throws IOException {
+        if (position + 4 > limit) {
+            throw error("Truncated \\u escape");
+        }
+        int value = 0;
+        for (int i = 0; i < 4; i++) {
+            int digit = Character.digit(buffer.get(position++), 16);
+            if (digit < 0) {
+                throw error("Invalid \\u escape");
+            }
+            value = value * 16 + digit;
+        }
+        return (char) value;
+    }
+
+    /**
+     * String for bytes [start, start + length); short ASCII strings come from the cache
+     */
+    private String decode(int start, int length, boolean ascii) {
+        if (!ascii) {
+            return newString(start, length, StandardCharsets.UTF_8);
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + buffer.get(start + i);
+        }
+        return decodeAscii(start, length, hash);
+    }
+
+    /**
+     * ASCII bytes whose hash was computed while scanning them
+     */
+    private String decodeAscii(int start, int length, int hash) {
+        if (length > CACHED_LENGTH) {
+            return newString(start, length, StandardCharsets.ISO_8859_1);
+        }
+        int slot = (hash ^ (hash >>> 12)) & (CACHE_SIZE - 1);
+        String cached = cache[slot];
+        if (cached != null && matches(cached, start, length)) {
+            return cached;
+        }
+        String value = newString(start, length, StandardCharsets.ISO_8859_1);
+        cache[slot] = value;
+        return value;
+    }
+
+    private String newString(int start, int length, Charset charset) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, charset);
+    }
+
+    private boolean matches(String cached, int start, int length) {
+        if (cached.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (cached.charAt(i) != buffer.get(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWith(int at, String prefix) {
+        if (at + prefix.length() > limit) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer.get(at + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * JSON number grammar: -?(0|[1-9][0-9]*)(.[0-9]+)?([eE][+-]?[0-9]+)?
+     */
+    private static boolean isNumber(String literal) {
+        int i = literal.startsWith("-") ? 1 : 0;
+        int digits = countDigits(literal, i);
+        if (digits == 0 || (digits > 1 && literal.charAt(i) == '0')) {
+            return false;
+        }
+        i += digits;
+        if (i < literal.length() && literal.charAt(i) == '.') {
+            digits = countDigits(literal, ++i);
+            if (digits == 0) {
+                return false;
+            }
+            i += digits;
+        }
+        if (i < literal.length() && (literal.charAt(i) == 'e' || literal.charAt(i) == 'E')) {
+            i++;
+            if (i < literal.length() && (literal.charAt(i) == '+' || literal.charAt(i) == '-')) {
+                i++;
+            }
+            digits = countDigits(literal, i);
+            if (digits == 0) {
+                return false;
+            }
+            i += digits;
+        }
+        return i == literal.length();
+    }
+
+    private static int countDigits(String text, int from) {
+        int i = from;
+        while (i < text.length() && text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+            i++;
+        }
+        return i - from;
+    }
+
+    void expect(char c) throws IOException {
+        if (peek() != c) {
+            throw error("Expected '" + c + "'");
+        }
+        position++;
+    }
+
+    /**
+     * Only whitespace may follow the top-level value
+     */
+    void expectEnd() throws IOException {
+        if (peek() >= 0) {
+            throw error("Unexpected data after the document");
+        }
+    }
+
+    IOException error(String message) {
+        return new IOException(message + " at offset " + position);
+    }
+}
@@ -0,0 +1,81 @@
+package com.cisco.sonic.converter.output;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Reads Redis protocol (RESP2) values: simple strings, errors, integers, bulk strings
+ * and arrays. Bulk strings are decoded as UTF-8; null bulk strings and arrays are null.
+ */
+class RespReader {
+    private final InputStream in;
+
+    /**
+     * An error reply (-ERR ...)
+     */
+    record Error(String message) {
+    }
+
+    RespReader(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * Next value, or throws EOFException at the end of the stream
+     */
+    Object read() throws IOException {
+        int type = in.read();
+        if (type < 0) {
+            throw new EOFException("Connection closed");
+        }
+        String line = readLine();
+        switch (type) {
+            case '+':
+                return line;
+            case '-':
+                return new Error(line);
+            case ':':
+                return Long.parseLong(line);
+            case '$': {
+                int length = Integer.parseInt(line);
+                if (length < 0) {
+                    return null;
+                }
+                byte[] data = in.readNBytes(length);
+                if (data.length < length || in.read() != '\r' || in.read() != '\n') {
+                    throw new EOFException("Truncated bulk string");
+                }
+                return new String(data, StandardCharsets.UTF_8);
+            }
+            case '*': {
+                int count = Integer.parseInt(line);
+                if (count < 0) {
+                    return null;
+                }
+                List<Object> values = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) {
+                    values.add(read());
+                }
+                return values;
+            }
+            default:
+                throw new IOException("Invalid RESP type byte: " + (char) type);
+        }
+    }
+
+    private String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = in.read()) != '\r') {
+            if (c < 0) {
+                throw new EOFException("Connection closed");
+            }
+            line.append((char) c);
+        }
+        if (in.read() != '\n') {
+            throw new IOException("Malformed RESP line: " + line);
+        }
+        return line.toString();
+    }
+}
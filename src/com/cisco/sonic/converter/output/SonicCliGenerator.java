@@ -1,341 +1,812 @@
 package com.cisco.sonic.converter.output;
 
-import com.cisco.sonic.converter.model.SonicConfig;
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
 
 /**
  * Generates SONiC CLI commands from SonicConfig object
  * Produces executable shell script with SONiC CLI commands
+ *
+ * The optimized mode produces a script with far fewer commands: contiguous VLAN IDs are
+ * created with "config vlan range add", each port joins contiguous VLANs with one
+ * "config vlan member range add" per run and tagging mode, and ports sharing an admin
+ * status are started or shut down with a single comma-separated invocation.
+ *
+ * With more than one job, the commands are grouped into jobs by the objects they touch
+ * and the script runs independent jobs concurrently (see {@link CommandGraph}).
+ *
+ * Serial scripts are written out as they are generated; parallel scripts are grouped
+ * into stages first. The script can also be written by a {@link SonicEmitter} sink, in
+ * the same traversal as other output formats.
+ *
+ * The generator can be shared between threads.
  */
 public class SonicCliGenerator {
-    
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    // Positions of the tables in scriptOrder()
+    private static final int VLAN = 0;
+    private static final int PORTCHANNEL = 1;
+    private static final int PORTCHANNEL_MEMBER = 2;
+    private static final int PORT = 3;
+    private static final int INTERFACE = 4;
+    private static final int VLAN_INTERFACE = 5;
+    private static final int VLAN_MEMBER = 6;
+    private static final int STATIC_ROUTE = 7;
+    private static final int ACL_TABLE = 8;
+    private static final int ACL_RULE = 9;
+
+    private final boolean optimized;
+    private final int maxJobs;
+
+    public SonicCliGenerator() {
+        this(false);
+    }
+
+    /**
+     * @param optimized collapse VLAN and VLAN member commands into ranges and batch
+     *                  interface startup/shutdown
+     */
+    public SonicCliGenerator(boolean optimized) {
+        this(optimized, 1);
+    }
+
+    /**
+     * @param optimized collapse VLAN and VLAN member commands into ranges and batch
+     *                  interface startup/shutdown
+     * @param maxJobs   default number of commands the script runs at once; 1 for a
+     *                  serial script
+     */
+    public SonicCliGenerator(boolean optimized, int maxJobs) {
+        if (maxJobs < 1) {
+            throw new IllegalArgumentException("Jobs must be at least 1");
+        }
+        this.optimized = optimized;
+        this.maxJobs = maxJobs;
+    }
+
+    public boolean isOptimized() {
+        return optimized;
+    }
+
+    public int getMaxJobs() {
+        return maxJobs;
+    }
+
     /**
      * Generate SONiC CLI commands as a string
      */
     public String generateCommands(SonicConfig config) {
         StringBuilder sb = new StringBuilder();
-        
-        // Header
-        sb.append("#!/bin/bash\n");
-        sb.append("# SONiC Configuration Script\n");
-        sb.append("# Generated by Cisco to SONiC Configuration Converter\n");
-        sb.append("#\n");
-        sb.append("# This script contains SONiC CLI commands to configure the device.\n");
-        sb.append("# Run this script on a SONiC device with appropriate permissions.\n");
-        sb.append("#\n\n");
-        
-        sb.append("echo \"Starting SONiC configuration...\"\n\n");
-        
-        // Device metadata (hostname)
-        generateHostnameCommands(config, sb);
-        
-        // VLANs
-        generateVlanCommands(config, sb);
-
-        // Port-Channels
-        generatePortChannelCommands(config, sb);
-
-        // Interfaces
-        generateInterfaceCommands(config, sb);
-
-        // VLAN interfaces
-        generateVlanInterfaceCommands(config, sb);
-
-        // VLAN members
-        generateVlanMemberCommands(config, sb);
-
-        // Static routes
-        generateStaticRouteCommands(config, sb);
-        
-        // ACLs
-        generateAclCommands(config, sb);
-        
-        // Footer
-        sb.append("\necho \"Configuration completed!\"\n");
-        sb.append("echo \"Please verify the configuration with 'show' commands.\"\n");
-        
+        try {
+            generate(config, sb);
+        } catch (IOException e) {
+            // StringBuilder doesn't throw IOException
+            return "";
+        }
         return sb.toString();
     }
-    
-    private void generateHostnameCommands(SonicConfig config, StringBuilder sb) {
-        Map<String, Object> metadata = config.getDeviceMetadata();
-        if (metadata.containsKey("localhost")) {
-            @SuppressWarnings("unchecked")
-            Map<String, Object> localhost = (Map<String, Object>) metadata.get("localhost");
-            
-            if (localhost.containsKey("hostname")) {
-                String hostname = (String) localhost.get("hostname");
-                sb.append("# Configure hostname\n");
-                sb.append("echo \"Setting hostname to ").append(hostname).append("...\"\n");
-                sb.append("sudo config hostname ").append(hostname).append("\n\n");
+
+    /**
+     * Write the script to a Writer; the writer is flushed but not closed
+     */
+    public void generateCommands(SonicConfig config, Writer writer) throws IOException {
+        BufferedWriter buffered = new BufferedWriter(writer, BUFFER_SIZE);
+        generate(config, buffered);
+        buffered.flush();
+    }
+
+    /**
+     * Write the script to a file as UTF-8
+     */
+    public void writeToFile(SonicConfig config, String filePath) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            generate(config, writer);
+        }
+    }
+
+    /**
+     * Sink that writes the script to a Writer while {@link SonicEmitter} walks the
+     * configuration, e.g. together with the JSON or RESP sinks; the writer is flushed
+     * but not closed
+     */
+    public ConfigSink sink(Writer writer) {
+        return new ScriptSink(new BufferedWriter(writer, BUFFER_SIZE));
+    }
+
+    private void generate(SonicConfig config, Appendable out) throws IOException {
+        // In script order nothing has to be held back
+        SonicEmitter.emit(config, scriptOrder(config), new ScriptSink(out));
+    }
+
+    /**
+     * Tables in the order their sections appear in the script
+     */
+    private static List<SonicTable<?>> scriptOrder(SonicConfig config) {
+        return List.of(config.getVlanTable(), config.getPortChannelTable(), config.getPortChannelMemberTable(),
+            config.getPortTable(), config.getInterfaceTable(), config.getVlanInterfaceTable(),
+            config.getVlanMemberTable(), config.getStaticRouteTable(), config.getAclTableTable(),
+            config.getAclRuleTable());
+    }
+
+    /**
+     * Receives the generated commands. job() starts a group of commands on the given
+     * objects; a serial script ignores it.
+     */
+    private interface Script {
+        void section(String title, String message) throws IOException;
+
+        void endSection() throws IOException;
+
+        void job(Collection<String> writes, Collection<String> reads);
+
+        void comment(String text) throws IOException;
+
+        void command(String command) throws IOException;
+
+        void command(String command, String note) throws IOException;
+    }
+
+    /**
+     * Commands one after another, under section headers
+     */
+    private static final class SerialScript implements Script {
+        private final Appendable out;
+
+        SerialScript(Appendable out) {
+            this.out = out;
+        }
+
+        @Override
+        public void section(String title, String message) throws IOException {
+            out.append("# ").append(title).append("\n");
+            if (message != null) {
+                out.append("echo \"").append(message).append("\"\n");
             }
         }
+
+        @Override
+        public void endSection() throws IOException {
+            out.append("\n");
+        }
+
+        @Override
+        public void job(Collection<String> writes, Collection<String> reads) {
+            // Serial scripts have no jobs
+        }
+
+        @Override
+        public void comment(String text) throws IOException {
+            out.append("# ").append(text).append("\n");
+        }
+
+        @Override
+        public void command(String command) throws IOException {
+            out.append(command).append("\n");
+        }
+
+        @Override
+        public void command(String command, String note) throws IOException {
+            out.append(command).append("  # ").append(note).append("\n");
+        }
     }
-    
-    private void generateVlanCommands(SonicConfig config, StringBuilder sb) {
-        Map<String, Map<String, Object>> vlans = config.getVlans();
-        if (!vlans.isEmpty()) {
-            sb.append("# Configure VLANs\n");
-            sb.append("echo \"Configuring VLANs...\"\n");
-            
-            for (Map.Entry<String, Map<String, Object>> entry : vlans.entrySet()) {
-                String vlanName = entry.getKey();
-                Map<String, Object> vlanConfig = entry.getValue();
-                
-                if (vlanConfig.containsKey("vlanid")) {
-                    String vlanId = (String) vlanConfig.get("vlanid");
-                    sb.append("sudo config vlan add ").append(vlanId);
-                    
-                    // Add description as comment if available
-                    if (vlanConfig.containsKey("description")) {
-                        sb.append("  # ").append(vlanConfig.get("description"));
-                    }
-                    sb.append("\n");
-                }
+
+    /**
+     * Collects the commands into jobs of a CommandGraph
+     */
+    private static final class GraphScript implements Script {
+        private final CommandGraph graph;
+        private CommandGraph.Job job;
+
+        GraphScript(CommandGraph graph) {
+            this.graph = graph;
+        }
+
+        @Override
+        public void section(String title, String message) {
+            job = null;
+        }
+
+        @Override
+        public void endSection() {
+            job = null;
+        }
+
+        @Override
+        public void job(Collection<String> writes, Collection<String> reads) {
+            job = graph.add(writes, reads);
+        }
+
+        @Override
+        public void comment(String text) {
+            if (job != null) {
+                job.comment(text);
+            } else {
+                graph.note(text);
+            }
+        }
+
+        @Override
+        public void command(String command) {
+            // A command outside a job depends on nothing
+            CommandGraph.Job target = job != null ? job : graph.add(List.of(), List.of());
+            target.command(command);
+        }
+
+        @Override
+        public void command(String command, String note) {
+            comment(note);
+            command(command);
+        }
+    }
+
+    /**
+     * Holds back the commands of a section until the sections before it are added to a
+     * parallel script
+     */
+    private static final class RecordingScript implements Script {
+        private final List<ScriptOp> ops = new ArrayList<>();
+
+        @Override
+        public void section(String title, String message) {
+            ops.add(script -> script.section(title, message));
+        }
+
+        @Override
+        public void endSection() {
+            ops.add(Script::endSection);
+        }
+
+        @Override
+        public void job(Collection<String> writes, Collection<String> reads) {
+            ops.add(script -> script.job(writes, reads));
+        }
+
+        @Override
+        public void comment(String text) {
+            ops.add(script -> script.comment(text));
+        }
+
+        @Override
+        public void command(String command) {
+            ops.add(script -> script.command(command));
+        }
+
+        @Override
+        public void command(String command, String note) {
+            ops.add(script -> script.command(command, note));
+        }
+
+        void replay(Script script) throws IOException {
+            for (ScriptOp op : ops) {
+                op.apply(script);
             }
-            sb.append("\n");
         }
     }
 
-    private void generatePortChannelCommands(SonicConfig config, StringBuilder sb) {
-        Map<String, Map<String, Object>> portChannels = config.getPortChannels();
-        Map<String, Map<String, Object>> portChannelMembers = config.getPortChannelMembers();
+    private interface ScriptOp {
+        void apply(Script script) throws IOException;
+    }
 
-        if (!portChannels.isEmpty()) {
-            sb.append("# Configure Port-Channels (LAGs)\n");
-            sb.append("echo \"Configuring Port-Channels...\"\n");
+    /**
+     * Writes the script from the rows of each table as they are visited.
+     *
+     * Every table produces its own part of the script, in the order of scriptOrder().
+     * Output of a table whose turn has not come yet (config_db.json order is different)
+     * is held back until every table before it is done: as text for a serial script, as
+     * recorded commands for a parallel one.
+     */
+    private final class ScriptSink implements ConfigSink {
+        private final Appendable out;
+        private SonicConfig config;
+        private List<SonicTable<?>> tables;
+        private boolean[] done;
+        private StringBuilder[] heldText;
+        private RecordingScript[] heldCommands;
+        private Script target;
+        private CommandGraph graph;
+        // Next table to write directly; the one being visited and where its commands go
+        private int current;
+        private int table;
+        private Script script;
+
+        // Optimized mode: VLANs and memberships collected for ranges, ports by admin status
+        private VlanSet vlanIds;
+        private Map<String, VlanSet[]> portVlans;
+        private List<String> startup;
+        private List<String> shutdown;
+        // Interfaces the static routes resolve through
+        private List<String> routedInterfaces;
+
+        ScriptSink(Appendable out) {
+            this.out = out;
+        }
 
-            // Create Port-Channels
-            for (Map.Entry<String, Map<String, Object>> entry : portChannels.entrySet()) {
-                String portChannelName = entry.getKey();
-                Map<String, Object> portChannelConfig = entry.getValue();
+        @Override
+        public void onStart(SonicConfig config) throws IOException {
+            this.config = config;
+            tables = scriptOrder(config);
+            done = new boolean[tables.size()];
+            heldText = new StringBuilder[tables.size()];
+            heldCommands = new RecordingScript[tables.size()];
+            for (int i = 0; i < tables.size(); i++) {
+                done[i] = tables.get(i).isEmpty();
+            }
 
-                // Add Port-Channel
-                sb.append("sudo config portchannel add ").append(portChannelName).append("\n");
+            // Header
+            out.append("#!/bin/bash\n");
+            out.append("# SONiC Configuration Script\n");
+            out.append("# Generated by Cisco to SONiC Configuration Converter\n");
+            out.append("#\n");
+            out.append("# This script contains SONiC CLI commands to configure the device.\n");
+            out.append("# Run this script on a SONiC device with appropriate permissions.\n");
+            out.append("#\n\n");
+
+            out.append("echo \"Starting SONiC configuration...\"\n\n");
+
+            if (maxJobs > 1) {
+                graph = new CommandGraph();
+                target = new GraphScript(graph);
+            } else {
+                target = new SerialScript(out);
+            }
+            current = 0;
+            advance();
+        }
 
-                // Set min_links if specified
-                if (portChannelConfig.containsKey("min_links")) {
-                    sb.append("# Min links: ").append(portChannelConfig.get("min_links")).append("\n");
+        @Override
+        public void onDeviceMetadata(Map<String, Object> metadata) throws IOException {
+            // Comes before every table, so the hostname is always first
+            if (metadata.containsKey("localhost")) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> localhost = (Map<String, Object>) metadata.get("localhost");
+
+                if (localhost.containsKey("hostname")) {
+                    String hostname = (String) localhost.get("hostname");
+                    target.section("Configure hostname", "Setting hostname to " + hostname + "...");
+                    target.job(List.of("DEVICE_METADATA"), List.of());
+                    target.command("sudo config hostname " + hostname);
+                    target.endSection();
                 }
             }
-            sb.append("\n");
-
-            // Add Port-Channel members
-            if (!portChannelMembers.isEmpty()) {
-                sb.append("# Add Port-Channel members\n");
-                for (Map.Entry<String, Map<String, Object>> entry : portChannelMembers.entrySet()) {
-                    String memberKey = entry.getKey();
-
-                    // Format: "PortChannel1|Ethernet1"
-                    String[] parts = memberKey.split("\\|");
-                    if (parts.length == 2) {
-                        String portChannelName = parts[0];
-                        String memberPort = parts[1];
-
-                        sb.append("sudo config portchannel member add ").append(portChannelName);
-                        sb.append(" ").append(memberPort).append("\n");
+        }
+
+        @Override
+        public void onTableStart(SonicTable<?> visited) throws IOException {
+            table = tables.indexOf(visited);
+            if (table < 0) {
+                return;
+            }
+            if (table == current) {
+                script = target;
+            } else if (graph == null) {
+                heldText[table] = new StringBuilder();
+                script = new SerialScript(heldText[table]);
+            } else {
+                heldCommands[table] = new RecordingScript();
+                script = heldCommands[table];
+            }
+
+            switch (table) {
+                case VLAN:
+                    script.section("Configure VLANs", "Configuring VLANs...");
+                    vlanIds = new VlanSet();
+                    break;
+                case PORTCHANNEL:
+                    script.section("Configure Port-Channels (LAGs)", "Configuring Port-Channels...");
+                    break;
+                case PORTCHANNEL_MEMBER:
+                    if (!config.getPortChannelTable().isEmpty()) {
+                        script.section("Add Port-Channel members", null);
                     }
-                }
-                sb.append("\n");
+                    break;
+                case PORT:
+                    script.section("Configure interfaces", "Configuring interfaces...");
+                    startup = new ArrayList<>();
+                    shutdown = new ArrayList<>();
+                    break;
+                case INTERFACE:
+                    if (config.getPortTable().isEmpty()) {
+                        script.section("Configure interfaces", "Configuring interfaces...");
+                    }
+                    break;
+                case VLAN_INTERFACE:
+                    script.section("Configure VLAN interfaces (SVIs)", "Configuring VLAN interfaces...");
+                    break;
+                case VLAN_MEMBER:
+                    script.section("Configure VLAN memberships", "Configuring VLAN memberships...");
+                    // Ports in first-seen order; [0] holds untagged VLANs, [1] tagged
+                    portVlans = new LinkedHashMap<>();
+                    break;
+                case STATIC_ROUTE:
+                    script.section("Configure static routes", "Configuring static routes...");
+                    // Routes come after the interface addresses their next hops resolve through
+                    routedInterfaces = new ArrayList<>();
+                    for (SonicKey.Address interfaceKey : config.getInterfaceTable().keys()) {
+                        routedInterfaces.add(interfaceKey.interfaceName());
+                    }
+                    for (SonicKey.Address interfaceKey : config.getVlanInterfaceTable().keys()) {
+                        routedInterfaces.add(interfaceKey.interfaceName());
+                    }
+                    break;
+                case ACL_TABLE:
+                    aclSection();
+                    break;
+                case ACL_RULE:
+                    if (config.getAclTableTable().isEmpty()) {
+                        aclSection();
+                    }
+                    break;
+                default:
+                    break;
             }
         }
-    }
 
-    private void generateInterfaceCommands(SonicConfig config, StringBuilder sb) {
-        Map<String, Map<String, Object>> ports = config.getPorts();
-        Map<String, Map<String, Object>> interfaces = config.getInterfaces();
-        
-        if (!ports.isEmpty() || !interfaces.isEmpty()) {
-            sb.append("# Configure interfaces\n");
-            sb.append("echo \"Configuring interfaces...\"\n");
-            
-            // Process ports (admin status, MTU, speed, description)
-            for (Map.Entry<String, Map<String, Object>> entry : ports.entrySet()) {
-                String portName = entry.getKey();
-                Map<String, Object> portConfig = entry.getValue();
-                
-                // Skip VLAN interfaces (they're handled separately)
-                if (portName.startsWith("Vlan")) {
-                    continue;
+        private void aclSection() throws IOException {
+            script.section("Configure ACLs", "Configuring ACLs...");
+            script.comment("Note: ACL configuration via CLI may be limited.");
+            script.comment("For complex ACLs, consider using JSON configuration directly.");
+        }
+
+        @Override
+        public void onRow(SonicTable<?> visited, Object key, SonicRow row) throws IOException {
+            switch (table) {
+                case VLAN:
+                    vlanRow((String) key, row);
+                    break;
+                case PORTCHANNEL:
+                    portChannelRow((String) key, row);
+                    break;
+                case PORTCHANNEL_MEMBER:
+                    if (!config.getPortChannelTable().isEmpty()) {
+                        SonicKey.PortChannelMember memberKey = (SonicKey.PortChannelMember) key;
+                        script.job(List.of(memberKey.portChannel(), memberKey.port()), List.of());
+                        script.command("sudo config portchannel member add " + memberKey.portChannel()
+                            + " " + memberKey.port());
+                    }
+                    break;
+                case PORT:
+                    portRow((String) key, row);
+                    break;
+                case INTERFACE:
+                    interfaceRow((SonicKey.Address) key);
+                    break;
+                case VLAN_INTERFACE:
+                    vlanInterfaceRow((SonicKey.Address) key);
+                    break;
+                case VLAN_MEMBER:
+                    vlanMemberRow((SonicKey.VlanMember) key, row);
+                    break;
+                case STATIC_ROUTE:
+                    staticRouteRow((SonicKey.StaticRoute) key, row);
+                    break;
+                case ACL_TABLE: {
+                    String comment = "ACL Table: " + key;
+                    if (row.containsField("type")) {
+                        comment += " (Type: " + row.get("type") + ")";
+                    }
+                    script.comment(comment);
+                    script.comment("ACL rules should be configured via acl-loader or JSON config");
+                    break;
                 }
-                
-                // Add description as comment
-                if (portConfig.containsKey("description")) {
-                    sb.append("# ").append(portName).append(": ").append(portConfig.get("description")).append("\n");
+                default:
+                    // ACL rules are left to acl-loader
+                    break;
+            }
+        }
+
+        @Override
+        public void onTableEnd(SonicTable<?> visited) throws IOException {
+            if (table < 0) {
+                return;
+            }
+            switch (table) {
+                case VLAN:
+                    if (optimized) {
+                        vlanRanges();
+                    }
+                    script.endSection();
+                    break;
+                case PORTCHANNEL:
+                case VLAN_INTERFACE:
+                case STATIC_ROUTE:
+                case INTERFACE:
+                case ACL_RULE:
+                    script.endSection();
+                    break;
+                case PORTCHANNEL_MEMBER:
+                    if (!config.getPortChannelTable().isEmpty()) {
+                        script.endSection();
+                    }
+                    break;
+                case PORT:
+                    if (!shutdown.isEmpty()) {
+                        script.job(shutdown, List.of());
+                        script.command("sudo config interface shutdown " + String.join(",", shutdown));
+                    }
+                    if (!startup.isEmpty()) {
+                        script.job(startup, List.of());
+                        script.command("sudo config interface startup " + String.join(",", startup));
+                    }
+                    if (config.getInterfaceTable().isEmpty()) {
+                        script.endSection();
+                    }
+                    break;
+                case VLAN_MEMBER:
+                    if (optimized) {
+                        vlanMemberRanges();
+                    }
+                    script.endSection();
+                    break;
+                case ACL_TABLE:
+                    if (config.getAclRuleTable().isEmpty()) {
+                        script.endSection();
+                    }
+                    break;
+                default:
+                    break;
+            }
+            done[table] = true;
+            advance();
+        }
+
+        /**
+         * Move past the finished tables, writing out what was held back for the next ones
+         */
+        private void advance() throws IOException {
+            while (current < done.length && done[current]) {
+                current++;
+                if (current == done.length) {
+                    break;
                 }
-                
-                // Admin status
-                if (portConfig.containsKey("admin_status")) {
-                    String adminStatus = (String) portConfig.get("admin_status");
-                    sb.append("sudo config interface ").append(adminStatus.equals("up") ? "startup" : "shutdown");
-                    sb.append(" ").append(portName).append("\n");
+                if (heldText[current] != null) {
+                    out.append(heldText[current]);
+                    heldText[current] = null;
+                } else if (heldCommands[current] != null) {
+                    heldCommands[current].replay(target);
+                    heldCommands[current] = null;
                 }
-                
-                // MTU
-                if (portConfig.containsKey("mtu")) {
-                    sb.append("sudo config interface mtu ").append(portName);
-                    sb.append(" ").append(portConfig.get("mtu")).append("\n");
+            }
+        }
+
+        @Override
+        public void onEnd() throws IOException {
+            if (graph != null) {
+                graph.render(out, maxJobs);
+            }
+
+            // Footer
+            out.append("\necho \"Configuration completed!\"\n");
+            out.append("echo \"Please verify the configuration with 'show' commands.\"\n");
+            if (out instanceof Flushable flushable) {
+                flushable.flush();
+            }
+        }
+
+        private void vlanRow(String vlanName, SonicRow vlanConfig) throws IOException {
+            if (!vlanConfig.containsField("vlanid")) {
+                return;
+            }
+            String vlanId = (String) vlanConfig.get("vlanid");
+
+            if (optimized) {
+                // Descriptions become comments; the VLANs are added in ranges at the end
+                if (vlanConfig.containsField("description")) {
+                    script.comment("Vlan" + vlanId + ": " + vlanConfig.get("description"));
                 }
-                
-                // Speed
-                if (portConfig.containsKey("speed")) {
-                    sb.append("sudo config interface speed ").append(portName);
-                    sb.append(" ").append(portConfig.get("speed")).append("\n");
+                int id = parseVlanId(vlanId);
+                if (id < 0) {
+                    script.job(List.of(vlanName), List.of());
+                    script.command("sudo config vlan add " + vlanId);
+                } else {
+                    vlanIds.add(id);
                 }
+                return;
             }
 
-            // Process IP addresses on interfaces
-            for (Map.Entry<String, Map<String, Object>> entry : interfaces.entrySet()) {
-                String interfaceKey = entry.getKey();
-                // Format: "Ethernet1|10.0.1.1/30"
-                String[] parts = interfaceKey.split("\\|");
-                if (parts.length == 2) {
-                    String portName = parts[0];
-                    String ipAddress = parts[1];
-
-                    // Skip VLAN interfaces (handled separately)
-                    if (!portName.startsWith("Vlan")) {
-                        sb.append("sudo config interface ip add ").append(portName);
-                        sb.append(" ").append(ipAddress).append("\n");
-                    }
-                }
+            script.job(List.of(vlanName), List.of());
+
+            // Add description as comment if available
+            if (vlanConfig.containsField("description")) {
+                script.command("sudo config vlan add " + vlanId, String.valueOf(vlanConfig.get("description")));
+            } else {
+                script.command("sudo config vlan add " + vlanId);
             }
-            sb.append("\n");
         }
-    }
 
-    private void generateVlanInterfaceCommands(SonicConfig config, StringBuilder sb) {
-        Map<String, Map<String, Object>> vlanInterfaces = config.getVlanInterfaces();
-        Map<String, Map<String, Object>> ports = config.getPorts();
-
-        if (!vlanInterfaces.isEmpty()) {
-            sb.append("# Configure VLAN interfaces (SVIs)\n");
-            sb.append("echo \"Configuring VLAN interfaces...\"\n");
-
-            for (Map.Entry<String, Map<String, Object>> entry : vlanInterfaces.entrySet()) {
-                String interfaceKey = entry.getKey();
-                // Format: "Vlan10|192.168.10.1/24"
-                String[] parts = interfaceKey.split("\\|");
-                if (parts.length == 2) {
-                    String vlanName = parts[0];
-                    String ipAddress = parts[1];
-
-                    sb.append("sudo config interface ip add ").append(vlanName);
-                    sb.append(" ").append(ipAddress).append("\n");
-
-                    // Set admin status if available
-                    if (ports.containsKey(vlanName)) {
-                        Map<String, Object> portConfig = ports.get(vlanName);
-                        if (portConfig.containsKey("admin_status")) {
-                            String adminStatus = (String) portConfig.get("admin_status");
-                            sb.append("sudo config interface ").append(adminStatus.equals("up") ? "startup" : "shutdown");
-                            sb.append(" ").append(vlanName).append("\n");
-                        }
-                    }
+        /**
+         * One "vlan range add" per run of contiguous VLAN IDs
+         */
+        private void vlanRanges() throws IOException {
+            for (int first = vlanIds.first(); first >= 0; ) {
+                int last = lastInRun(vlanIds, first);
+                script.job(vlanNames(vlanIds, first, last), List.of());
+                if (first == last) {
+                    script.command("sudo config vlan add " + first);
+                } else {
+                    script.command("sudo config vlan range add " + first + " " + last);
                 }
+                first = vlanIds.next(last + 1);
             }
-            sb.append("\n");
         }
-    }
 
-    private void generateVlanMemberCommands(SonicConfig config, StringBuilder sb) {
-        Map<String, Map<String, Object>> vlanMembers = config.getVlanMembers();
+        private void portChannelRow(String portChannelName, SonicRow portChannelConfig) throws IOException {
+            // Add Port-Channel
+            script.job(List.of(portChannelName), List.of());
+            script.command("sudo config portchannel add " + portChannelName);
 
-        if (!vlanMembers.isEmpty()) {
-            sb.append("# Configure VLAN memberships\n");
-            sb.append("echo \"Configuring VLAN memberships...\"\n");
+            // Set min_links if specified
+            if (portChannelConfig.containsField("min_links")) {
+                script.comment("Min links: " + portChannelConfig.get("min_links"));
+            }
+        }
 
-            for (Map.Entry<String, Map<String, Object>> entry : vlanMembers.entrySet()) {
-                String memberKey = entry.getKey();
-                Map<String, Object> memberConfig = entry.getValue();
+        private void portRow(String portName, SonicRow portConfig) throws IOException {
+            // Skip VLAN interfaces (they're handled separately)
+            if (portName.startsWith("Vlan")) {
+                return;
+            }
+            script.job(List.of(portName), List.of());
 
-                // Format: "Vlan20|Ethernet2"
-                String[] parts = memberKey.split("\\|");
-                if (parts.length == 2) {
-                    String vlanName = parts[0];
-                    String portName = parts[1];
+            // Add description as comment
+            if (portConfig.containsField("description")) {
+                script.comment(portName + ": " + portConfig.get("description"));
+            }
 
-                    // Extract VLAN ID from name (e.g., "Vlan20" -> "20")
-                    String vlanId = vlanName.substring(4);
+            // Admin status; in optimized mode ports sharing one are started or shut down together
+            if (portConfig.containsField("admin_status")) {
+                String adminStatus = (String) portConfig.get("admin_status");
+                if (optimized) {
+                    (adminStatus.equals("up") ? startup : shutdown).add(portName);
+                } else {
+                    script.command("sudo config interface " + (adminStatus.equals("up") ? "startup" : "shutdown")
+                        + " " + portName);
+                }
+            }
 
-                    sb.append("sudo config vlan member add ");
+            // MTU
+            if (portConfig.containsField("mtu")) {
+                script.command("sudo config interface mtu " + portName + " " + portConfig.get("mtu"));
+            }
 
-                    // Add tagging mode flag
-                    if (memberConfig.containsKey("tagging_mode")) {
-                        String taggingMode = (String) memberConfig.get("tagging_mode");
-                        if (taggingMode.equals("tagged")) {
-                            sb.append("-u ");  // -u for tagged (trunk)
-                        }
-                    }
+            // Speed
+            if (portConfig.containsField("speed")) {
+                script.command("sudo config interface speed " + portName + " " + portConfig.get("speed"));
+            }
+        }
 
-                    sb.append(vlanId).append(" ").append(portName).append("\n");
+        private void interfaceRow(SonicKey.Address interfaceKey) throws IOException {
+            if (interfaceKey.prefix() != null) {
+                String portName = interfaceKey.interfaceName();
+                String ipAddress = interfaceKey.prefix();
+
+                // Skip VLAN interfaces (handled separately)
+                if (!portName.startsWith("Vlan")) {
+                    script.job(List.of(portName), List.of());
+                    script.command("sudo config interface ip add " + portName + " " + ipAddress);
                 }
             }
-            sb.append("\n");
         }
-    }
 
-    private void generateStaticRouteCommands(SonicConfig config, StringBuilder sb) {
-        Map<String, Map<String, Object>> staticRoutes = config.getStaticRoutes();
+        private void vlanInterfaceRow(SonicKey.Address interfaceKey) throws IOException {
+            if (interfaceKey.prefix() != null) {
+                String vlanName = interfaceKey.interfaceName();
+                String ipAddress = interfaceKey.prefix();
+
+                script.job(List.of(vlanName), List.of());
+                script.command("sudo config interface ip add " + vlanName + " " + ipAddress);
+
+                // Set admin status if available
+                SonicTable<String> ports = config.getPortTable();
+                if (ports.containsKey(vlanName)) {
+                    SonicRow portConfig = ports.get(vlanName);
+                    if (portConfig.containsField("admin_status")) {
+                        String adminStatus = (String) portConfig.get("admin_status");
+                        script.command("sudo config interface " + (adminStatus.equals("up") ? "startup" : "shutdown")
+                            + " " + vlanName);
+                    }
+                }
+            }
+        }
 
-        if (!staticRoutes.isEmpty()) {
-            sb.append("# Configure static routes\n");
-            sb.append("echo \"Configuring static routes...\"\n");
+        private void vlanMemberRow(SonicKey.VlanMember memberKey, SonicRow memberConfig) throws IOException {
+            boolean tagged = "tagged".equals(memberConfig.get("tagging_mode"));
 
-            for (Map.Entry<String, Map<String, Object>> entry : staticRoutes.entrySet()) {
-                String routeKey = entry.getKey();
-                Map<String, Object> routeConfig = entry.getValue();
+            if (optimized && memberKey.vlanId() >= VlanSet.MIN_VLAN_ID && memberKey.vlanId() <= VlanSet.MAX_VLAN_ID) {
+                VlanSet[] modes = portVlans.computeIfAbsent(memberKey.port(),
+                    port -> new VlanSet[] {new VlanSet(), new VlanSet()});
+                modes[tagged ? 1 : 0].add(memberKey.vlanId());
+                return;
+            }
 
-                // Format: "0.0.0.0/0|0.0.0.0/0|10.0.1.2"
-                String[] parts = routeKey.split("\\|");
-                if (parts.length >= 3) {
-                    String prefix = parts[0];
-                    String nexthop = parts[2];
+            // Add tagging mode flag: -u for tagged (trunk)
+            String flag = tagged ? "-u " : "";
 
-                    sb.append("sudo config route add prefix ").append(prefix);
-                    sb.append(" nexthop ").append(nexthop);
+            // Adding a member updates the VLAN; the port is only read
+            if (optimized || maxJobs > 1) {
+                script.job(List.of(memberKey.vlanName()), List.of(memberKey.port()));
+            }
+            script.command("sudo config vlan member add " + flag + memberKey.vlanId() + " " + memberKey.port());
+        }
 
-                    // Add interface if specified
-                    if (routeConfig.containsKey("ifname")) {
-                        String ifname = (String) routeConfig.get("ifname");
-                        if (ifname != null && !ifname.isEmpty()) {
-                            sb.append(" dev ").append(ifname);
+        /**
+         * Per port and tagging mode, one "vlan member range add" per run of contiguous VLANs
+         */
+        private void vlanMemberRanges() throws IOException {
+            for (Map.Entry<String, VlanSet[]> entry : portVlans.entrySet()) {
+                String port = entry.getKey();
+                VlanSet all = entry.getValue()[0].copy();
+                all.addAll(entry.getValue()[1]);
+                script.job(vlanNames(all, VlanSet.MIN_VLAN_ID, VlanSet.MAX_VLAN_ID), List.of(port));
+
+                for (int mode = 0; mode < 2; mode++) {
+                    VlanSet vlanIds = entry.getValue()[mode];
+                    // Same flag convention as the per-member commands
+                    String flag = mode == 1 ? "-u " : "";
+                    for (int first = vlanIds.first(); first >= 0; ) {
+                        int last = lastInRun(vlanIds, first);
+                        if (first == last) {
+                            script.command("sudo config vlan member add " + flag + first + " " + port);
+                        } else {
+                            script.command("sudo config vlan member range add " + flag + first + " " + last + " " + port);
                         }
+                        first = vlanIds.next(last + 1);
                     }
-
-                    sb.append("\n");
                 }
             }
-            sb.append("\n");
         }
-    }
-
-    private void generateAclCommands(SonicConfig config, StringBuilder sb) {
-        Map<String, Map<String, Object>> aclTables = config.getAclTables();
-        Map<String, Map<String, Object>> aclRules = config.getAclRules();
-
-        if (!aclTables.isEmpty() || !aclRules.isEmpty()) {
-            sb.append("# Configure ACLs\n");
-            sb.append("echo \"Configuring ACLs...\"\n");
-            sb.append("# Note: ACL configuration via CLI may be limited.\n");
-            sb.append("# For complex ACLs, consider using JSON configuration directly.\n");
-
-            // ACL tables
-            for (Map.Entry<String, Map<String, Object>> entry : aclTables.entrySet()) {
-                String tableName = entry.getKey();
-                Map<String, Object> tableConfig = entry.getValue();
 
-                sb.append("# ACL Table: ").append(tableName);
-                if (tableConfig.containsKey("type")) {
-                    sb.append(" (Type: ").append(tableConfig.get("type")).append(")");
+        private void staticRouteRow(SonicKey.StaticRoute routeKey, SonicRow routeConfig) throws IOException {
+            // Format: "0.0.0.0/0|0.0.0.0/0|10.0.1.2"
+            if (routeKey.scope() != null && routeKey.nextHop() != null) {
+                String prefix = routeKey.scope();
+                String nexthop = routeKey.nextHop();
+                StringBuilder command = new StringBuilder("sudo config route add prefix ").append(prefix);
+                command.append(" nexthop ").append(nexthop);
+
+                // Add interface if specified
+                List<String> reads = routedInterfaces;
+                String ifname = routeConfig.containsField("ifname") ? (String) routeConfig.get("ifname") : null;
+                if (ifname != null && !ifname.isEmpty()) {
+                    command.append(" dev ").append(ifname);
+                    reads = new ArrayList<>(routedInterfaces);
+                    reads.add(ifname);
                 }
-                sb.append("\n");
-                sb.append("# ACL rules should be configured via acl-loader or JSON config\n");
+
+                script.job(List.of(routeKey.toString()), reads);
+                script.command(command.toString());
             }
+        }
+    }
 
-            sb.append("\n");
+    private static int lastInRun(VlanSet vlanIds, int first) {
+        int last = first;
+        while (last < VlanSet.MAX_VLAN_ID && vlanIds.contains(last + 1)) {
+            last++;
         }
+        return last;
     }
-}
 
+    /**
+     * Names of the VLANs of a set between first and last
+     */
+    private static List<String> vlanNames(VlanSet vlanIds, int first, int last) {
+        List<String> names = new ArrayList<>();
+        for (int id = vlanIds.next(first); id >= 0 && id <= last; id = vlanIds.next(id + 1)) {
+            names.add("Vlan" + id);
+        }
+        return names;
+    }
 
+    private static int parseVlanId(String vlanId) {
+        try {
+            int id = Integer.parseInt(vlanId);
+            return id >= VlanSet.MIN_VLAN_ID && id <= VlanSet.MAX_VLAN_ID ? id : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
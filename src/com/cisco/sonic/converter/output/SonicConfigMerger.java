@@ -0,0 +1,240 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.*;
+
+/**
+ * Overlays a converted SonicConfig onto the config_db.json a device already runs
+ *
+ * The device document is streamed table by table straight from its bytes and the result
+ * is written as it goes, so only one device table is held in memory at a time:
+ * <ul>
+ *   <li>Tables the converter produced are merged: device rows are kept, converted rows
+ *       overwrite the fields they set (so PORT keeps its lanes, alias and index) and new
+ *       rows are added at the end. In REPLACE mode the converted table is written
+ *       instead.</li>
+ *   <li>Every other table (BGP_NEIGHBOR, FEATURE, ...) and tables the converter left
+ *       empty are copied byte for byte.</li>
+ *   <li>DEVICE_METADATA is copied as well: the converter only knows placeholders for the
+ *       platform and MAC, the device knows the real values.</li>
+ * </ul>
+ * Converted tables the device does not have yet are appended after its tables.
+ *
+ * The merger can be shared between threads.
+ */
+public class SonicConfigMerger {
+
+    /**
+     * How tables present in both documents are combined
+     */
+    public enum Mode {
+        /** Keep device rows and fields, overlay the converted ones */
+        MERGE,
+        /** Write the converted table in place of the device's */
+        REPLACE
+    }
+
+    /**
+     * What was done with a table of the merged document
+     */
+    public enum Action {
+        KEPT, MERGED, REPLACED, ADDED
+    }
+
+    private final Mode mode;
+    private final SonicConfigWriter writer;
+
+    public SonicConfigMerger() {
+        this(Mode.MERGE, false);
+    }
+
+    /**
+     * @param compact write the tables the merger produces without indentation and line
+     *                breaks; copied tables keep their layout
+     */
+    public SonicConfigMerger(Mode mode, boolean compact) {
+        this.mode = mode;
+        this.writer = new SonicConfigWriter(compact);
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Merge the converted configuration into a device config_db.json file and write the
+     * result to outputPath, which may be the device file itself: the output is written
+     * to a temporary file next to it and moved into place when complete. The output keeps
+     * the permissions and owner of the file it replaces, or else of the device file.
+     *
+     * @return the action taken for each table, in document order
+     */
+    public Map<String, Action> mergeFile(String deviceConfigPath, SonicConfig converted, String outputPath)
+            throws IOException {
+        Path output = Paths.get(outputPath).toAbsolutePath();
+        Path temp = Files.createTempFile(output.getParent(), output.getFileName().toString(), ".tmp");
+        try (FileChannel channel = FileChannel.open(Paths.get(deviceConfigPath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(deviceConfigPath + " is larger than 2 GB");
+            }
+            ByteBuffer device = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            Map<String, Action> actions;
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                actions = merge(device, converted, out);
+            }
+            Path original = Files.exists(output) ? output : Paths.get(deviceConfigPath);
+            copyPosixAttributes(original, temp);
+            Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return actions;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Give the temporary file the original's permissions, group and owner; a temporary file
+     * is created readable by its owner only
+     */
+    private static void copyPosixAttributes(Path original, Path temp) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        PosixFileAttributes attributes = Files.readAttributes(original, PosixFileAttributes.class);
+        try {
+            view.setGroup(attributes.group());
+            view.setOwner(attributes.owner());
+        } catch (FileSystemException e) {
+            // Ignore: only root can give a file to another user; the permissions still apply
+        }
+        // After the owner, since changing it can clear set-user-ID bits
+        view.setPermissions(attributes.permissions());
+    }
+
+    /**
+     * Merge the converted configuration into the device config_db.json held as UTF-8
+     * between the buffer's position and limit; the writer is flushed but not closed
+     *
+     * @return the action taken for each table, in document order
+     */
+    public Map<String, Action> merge(ByteBuffer deviceConfig, SonicConfig converted, Writer out) throws IOException {
+        Map<String, SonicTable<?>> convertedTables = SonicConfigReader.tablesByName(converted);
+        Map<String, Action> actions = new LinkedHashMap<>();
+        SonicConfigWriter.JsonSink sink = writer.documentSink(out);
+        JsonScanner scanner = new JsonScanner(deviceConfig);
+
+        sink.onStart(converted);
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            String name = scanner.nextName();
+            if (actions.containsKey(name)) {
+                throw scanner.error("Duplicate table " + name);
+            }
+            SonicTable<?> table = convertedTables.get(name);
+            if (table == null || table.isEmpty()) {
+                int start = scanner.skipValue();
+                sink.onRawSection(name, scanner.buffer(), start, scanner.position());
+                actions.put(name, Action.KEPT);
+            } else if (mode == Mode.REPLACE) {
+                scanner.skipValue();
+                writeTable(sink, table);
+                actions.put(name, Action.REPLACED);
+            } else {
+                // A fresh table of the same kind to read the device's rows into
+                SonicTable<?> deviceTable = SonicConfigReader.tablesByName(new SonicConfig()).get(name);
+                SonicConfigReader.readTable(scanner, deviceTable);
+                overlay(deviceTable, table);
+                writeTable(sink, deviceTable);
+                actions.put(name, Action.MERGED);
+            }
+        }
+        scanner.endObject();
+        scanner.expectEnd();
+
+        if (!actions.containsKey("DEVICE_METADATA")) {
+            sink.onDeviceMetadata(converted.getDeviceMetadata());
+            actions.put("DEVICE_METADATA", Action.ADDED);
+        }
+        for (SonicTable<?> table : converted.getTables()) {
+            if (!table.isEmpty() && !actions.containsKey(table.getName())) {
+                writeTable(sink, table);
+                actions.put(table.getName(), Action.ADDED);
+            }
+        }
+        sink.onEnd();
+        return actions;
+    }
+
+    /**
+     * The configuration merge() would write, held in memory: the device's tables and
+     * DEVICE_METADATA with the converted tables merged in or, in REPLACE mode, in their
+     * place. Tables SonicConfig does not model are not part of it. Neither argument is
+     * changed.
+     */
+    public SonicConfig overlay(SonicConfig deviceConfig, SonicConfig converted) {
+        SonicConfig merged = new SonicConfig();
+        merged.setDeviceMetadata(deviceConfig.getDeviceMetadata().isEmpty()
+            ? converted.getDeviceMetadata() : deviceConfig.getDeviceMetadata());
+        List<SonicTable<?>> deviceTables = deviceConfig.getTables();
+        List<SonicTable<?>> convertedTables = converted.getTables();
+        List<SonicTable<?>> mergedTables = merged.getTables();
+        for (int i = 0; i < mergedTables.size(); i++) {
+            SonicTable<?> convertedTable = convertedTables.get(i);
+            if (convertedTable.isEmpty() || mode == Mode.MERGE) {
+                overlay(mergedTables.get(i), deviceTables.get(i));
+            }
+            overlay(mergedTables.get(i), convertedTable);
+        }
+        return merged;
+    }
+
+    /**
+     * Overlay the converted rows onto the device's: fields the converter sets replace the
+     * device's values, the others stay. A bare "NULL" row only says the row exists, so an
+     * existing device row is left as it is.
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> void overlay(SonicTable<K> deviceTable, SonicTable<?> convertedTable) {
+        for (Map.Entry<?, SonicRow> entry : convertedTable.entries()) {
+            K key = (K) entry.getKey();
+            SonicRow row = entry.getValue();
+            SonicRow deviceRow = deviceTable.get(key);
+            if (deviceRow == null) {
+                deviceTable.put(key, row);
+            } else if (!(row instanceof SonicRow.Null) && !containsFields(deviceRow, row)) {
+                Map<String, Object> fields = new LinkedHashMap<>(deviceRow.toMap());
+                fields.putAll(row.toMap());
+                deviceTable.put(key, deviceTable.parseRow(fields));
+            }
+        }
+    }
+
+    /**
+     * True when the device row already holds every converted field with the same value,
+     * as most rows do when a device is migrated again
+     */
+    private static boolean containsFields(SonicRow deviceRow, SonicRow row) {
+        for (int i = 0; i < row.fieldCount(); i++) {
+            if (!row.fieldValue(i).equals(deviceRow.get(row.fieldName(i)))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <K> void writeTable(SonicConfigWriter.JsonSink sink, SonicTable<K> table) throws IOException {
+        sink.onTableStart(table);
+        for (Map.Entry<K, SonicRow> entry : table.entries()) {
+            sink.onRow(table, entry.getKey(), entry.getValue());
+        }
+        sink.onTableEnd(table);
+    }
+}
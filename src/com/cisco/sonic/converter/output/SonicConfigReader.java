@@ -0,0 +1,142 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Reads config_db.json into a SonicConfig
+ *
+ * The document is scanned straight from its bytes (a memory-mapped file or a buffer) and
+ * each row goes into its table as soon as it is read; no JSON tree is built. Rows that
+ * match a typed row become that row, so the shared tagged and untagged VLAN members are
+ * not duplicated, and VLAN_MEMBER keys are read without building the joined key.
+ *
+ * Tables SonicConfig does not model (BGP_NEIGHBOR, FEATURE, ...) are skipped; pass a
+ * consumer to learn their names. Reading what {@link SonicConfigWriter} wrote gives back
+ * the same configuration.
+ *
+ * The reader can be shared between threads.
+ */
+public class SonicConfigReader {
+
+    /**
+     * Read a config_db.json file through a memory mapping
+     */
+    public SonicConfig readFile(String filePath) throws IOException {
+        return readFile(filePath, table -> { });
+    }
+
+    /**
+     * Read a config_db.json file, reporting the name of every table that was skipped
+     */
+    public SonicConfig readFile(String filePath, Consumer<String> skippedTables) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(filePath + " is larger than 2 GB");
+            }
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), skippedTables);
+        }
+    }
+
+    /**
+     * Read config_db.json from a stream
+     */
+    public SonicConfig read(InputStream in) throws IOException {
+        return read(ByteBuffer.wrap(in.readAllBytes()), table -> { });
+    }
+
+    /**
+     * Read config_db.json from a string
+     */
+    public SonicConfig readString(String json) throws IOException {
+        return read(ByteBuffer.wrap(json.getBytes(StandardCharsets.UTF_8)), table -> { });
+    }
+
+    /**
+     * Read config_db.json from the UTF-8 bytes between the buffer's position and limit
+     */
+    public SonicConfig read(ByteBuffer json, Consumer<String> skippedTables) throws IOException {
+        SonicConfig config = new SonicConfig();
+        Map<String, SonicTable<?>> tables = tablesByName(config);
+        JsonScanner scanner = new JsonScanner(json);
+
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            String name = scanner.nextName();
+            SonicTable<?> table = tables.get(name);
+            if (table != null) {
+                readTable(scanner, table);
+            } else if ("DEVICE_METADATA".equals(name)) {
+                config.setDeviceMetadata(readDeviceMetadata(scanner));
+            } else {
+                scanner.skipValue();
+                skippedTables.accept(name);
+            }
+        }
+        scanner.endObject();
+        scanner.expectEnd();
+        return config;
+    }
+
+    /**
+     * The configuration's tables by config_db name
+     */
+    static Map<String, SonicTable<?>> tablesByName(SonicConfig config) {
+        Map<String, SonicTable<?>> tables = new HashMap<>();
+        for (SonicTable<?> table : config.getTables()) {
+            tables.put(table.getName(), table);
+        }
+        return tables;
+    }
+
+    @SuppressWarnings("unchecked")
+    static Map<String, Object> readDeviceMetadata(JsonScanner scanner) throws IOException {
+        if (scanner.peek() != '{') {
+            throw scanner.error("DEVICE_METADATA is not an object");
+        }
+        return (Map<String, Object>) scanner.readValue();
+    }
+
+    /**
+     * Read a table object into the table, row by row
+     */
+    @SuppressWarnings("unchecked")
+    static void readTable(JsonScanner scanner, SonicTable<?> table) throws IOException {
+        boolean vlanMembers = "VLAN_MEMBER".equals(table.getName());
+        // Reused for every row; rows copy the fields they keep
+        Map<String, Object> fields = new LinkedHashMap<>();
+
+        scanner.beginObject();
+        while (scanner.hasNext()) {
+            SonicKey.VlanMember memberKey = vlanMembers ? scanner.readVlanMemberKey() : null;
+            String key = memberKey == null ? scanner.readString() : null;
+            scanner.expect(':');
+
+            fields.clear();
+            scanner.beginObject();
+            while (scanner.hasNext()) {
+                String field = scanner.nextName();
+                fields.put(field, scanner.readFieldValue());
+            }
+            scanner.endObject();
+
+            if (memberKey != null) {
+                ((SonicTable<SonicKey.VlanMember>) table).put(memberKey, table.parseRow(fields));
+            } else {
+                try {
+                    table.put(key, fields);
+                } catch (IllegalArgumentException e) {
+                    throw scanner.error(e.getMessage() + " in " + table.getName());
+                }
+            }
+        }
+        scanner.endObject();
+    }
+}
@@ -1,23 +1,67 @@
 package com.cisco.sonic.converter.output;
 
-import com.cisco.sonic.converter.model.SonicConfig;
+import com.cisco.sonic.converter.model.*;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Writes SONiC configuration to JSON format (config_db.json)
+ *
+ * The document is produced in one pass over the tables (as a {@link SonicEmitter} sink,
+ * so it can share the traversal with other formats): keys and values are escaped
+ * straight into a buffer that is flushed when full, so no intermediate strings or key
+ * lists are created. Files are written through a FileChannel from a direct ByteBuffer,
+ * encoding UTF-8 on the fly; the buffers are pooled and reused across calls.
+ *
+ * In compact mode all indentation and line breaks are left out (apart from the final
+ * newline), which makes a typical config_db.json about a third smaller.
+ *
+ * The writer can be shared between threads.
  */
 public class SonicConfigWriter {
-    
+    private static final int BUFFER_SIZE = 8192;
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    private final boolean compact;
+    private final Queue<ByteBuffer> fileBuffers = new ConcurrentLinkedQueue<>();
+
+    public SonicConfigWriter() {
+        this(false);
+    }
+
+    /**
+     * @param compact write JSON without indentation and line breaks
+     */
+    public SonicConfigWriter(boolean compact) {
+        this.compact = compact;
+    }
+
+    public boolean isCompact() {
+        return compact;
+    }
+
     /**
-     * Write SONiC configuration to a file
+     * Write SONiC configuration to a file as UTF-8
      */
     public void writeToFile(SonicConfig config, String filePath) throws IOException {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            write(config, writer);
+        ByteBuffer buffer = fileBuffers.poll();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(FILE_BUFFER_SIZE);
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            buffer.clear();
+            write(config, new ChannelOutput(channel, buffer, compact));
+        } finally {
+            fileBuffers.offer(buffer);
         }
     }
-    
+
     /**
      * Convert SONiC configuration to JSON string
      */
@@ -31,215 +75,501 @@ public class SonicConfigWriter {
         }
         return stringWriter.toString();
     }
-    
+
     /**
      * Write SONiC configuration to a Writer
      */
-    private void write(SonicConfig config, Writer writer) throws IOException {
-        writer.write("{\n");
-        
-        boolean firstSection = true;
-        
-        // Write DEVICE_METADATA
-        if (!config.getDeviceMetadata().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"DEVICE_METADATA\": ");
-            writeMap(config.getDeviceMetadata(), writer, 2);
-            firstSection = false;
-        }
-        
-        // Write PORT
-        if (!config.getPorts().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"PORT\": ");
-            writeNestedMap(config.getPorts(), writer, 2);
-            firstSection = false;
+    public void write(SonicConfig config, Writer writer) throws IOException {
+        write(config, new WriterOutput(writer, compact));
+    }
+
+    /**
+     * Sink writing the JSON document to a Writer during a {@link SonicEmitter} traversal;
+     * the writer is flushed at the end but not closed
+     */
+    public ConfigSink sink(Writer writer) {
+        return new JsonSink(new WriterOutput(writer, compact));
+    }
+
+    private void write(SonicConfig config, JsonOutput out) throws IOException {
+        SonicEmitter.emit(config, new JsonSink(out));
+    }
+
+    /**
+     * Sink for a document assembled section by section (see {@link SonicConfigMerger} and
+     * {@link SonicStreamWriter})
+     */
+    JsonSink documentSink(Writer writer) {
+        return new JsonSink(new WriterOutput(writer, compact));
+    }
+
+    /**
+     * Write JSON Patch operations as an array of {"op", "path", "value"} objects, with
+     * values in config_db.json form
+     */
+    void writePatch(List<SonicPatchGenerator.PatchOperation> operations, Writer writer) throws IOException {
+        JsonOutput out = new WriterOutput(writer, compact);
+        out.write('[');
+        out.newline();
+        for (int i = 0; i < operations.size(); i++) {
+            SonicPatchGenerator.PatchOperation operation = operations.get(i);
+            out.writeIndent(1);
+            out.write('{');
+            out.newline();
+            out.writeIndent(2);
+            out.writeKey("op");
+            out.writeString(operation.op());
+            out.write(',');
+            out.newline();
+            out.writeIndent(2);
+            out.writeKey("path");
+            out.writeString(operation.path());
+            if (!"remove".equals(operation.op())) {
+                out.write(',');
+                out.newline();
+                out.writeIndent(2);
+                out.writeKey("value");
+                writeValue(operation.value(), out, 2);
+            }
+            out.newline();
+            out.writeIndent(1);
+            out.write('}');
+            if (i < operations.size() - 1) {
+                out.write(',');
+            }
+            out.newline();
         }
-        
-        // Write VLAN
-        if (!config.getVlans().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"VLAN\": ");
-            writeNestedMap(config.getVlans(), writer, 2);
-            firstSection = false;
+        out.write(']');
+        out.write('\n');
+        out.flush();
+    }
+
+    /**
+     * Writes the document as the tables are visited: DEVICE_METADATA, then each table as
+     * an object of rows
+     */
+    final class JsonSink implements ConfigSink {
+        private final JsonOutput out;
+        private boolean firstSection = true;
+        private boolean firstRow;
+
+        JsonSink(JsonOutput out) {
+            this.out = out;
         }
-        
-        // Write VLAN_INTERFACE
-        if (!config.getVlanInterfaces().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"VLAN_INTERFACE\": ");
-            writeNestedMap(config.getVlanInterfaces(), writer, 2);
-            firstSection = false;
+
+        @Override
+        public void onStart(SonicConfig config) throws IOException {
+            out.write('{');
+            out.newline();
         }
-        
-        // Write VLAN_MEMBER
-        if (!config.getVlanMembers().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"VLAN_MEMBER\": ");
-            writeNestedMap(config.getVlanMembers(), writer, 2);
+
+        @Override
+        public void onDeviceMetadata(Map<String, Object> metadata) throws IOException {
+            separateSection();
+            out.writeIndent(1);
+            out.writeKey("DEVICE_METADATA");
+            writeMap(metadata, out, 2);
             firstSection = false;
         }
-        
-        // Write INTERFACE
-        if (!config.getInterfaces().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"INTERFACE\": ");
-            writeNestedMap(config.getInterfaces(), writer, 2);
+
+        @Override
+        public void onTableStart(SonicTable<?> table) throws IOException {
+            separateSection();
+            out.writeIndent(1);
+            out.writeKey(table.getName());
+            out.write('{');
+            out.newline();
+            firstRow = true;
             firstSection = false;
         }
-        
-        // Write STATIC_ROUTE
-        if (!config.getStaticRoutes().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"STATIC_ROUTE\": ");
-            writeNestedMap(config.getStaticRoutes(), writer, 2);
-            firstSection = false;
+
+        @Override
+        public void onRow(SonicTable<?> table, Object key, SonicRow row) throws IOException {
+            // The separator goes before each row, so the row count need not be known
+            if (!firstRow) {
+                out.write(',');
+                out.newline();
+            }
+            firstRow = false;
+            out.writeIndent(3);
+            if (key instanceof SonicKey.VlanMember member) {
+                // By far the largest table; write its key without building the joined string
+                out.writeVlanMemberKey(member);
+            } else {
+                out.writeKey(key.toString());
+            }
+            writeRow(row, out, 3);
         }
 
-        // Write PORTCHANNEL
-        if (!config.getPortChannels().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"PORTCHANNEL\": ");
-            writeNestedMap(config.getPortChannels(), writer, 2);
-            firstSection = false;
+        @Override
+        public void onTableEnd(SonicTable<?> table) throws IOException {
+            if (!firstRow) {
+                out.newline();
+            }
+            out.writeIndent(2);
+            out.write('}');
         }
 
-        // Write PORTCHANNEL_MEMBER
-        if (!config.getPortChannelMembers().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"PORTCHANNEL_MEMBER\": ");
-            writeNestedMap(config.getPortChannelMembers(), writer, 2);
-            firstSection = false;
+        @Override
+        public void onEnd() throws IOException {
+            out.newline();
+            out.write('}');
+            out.write('\n');
+            out.flush();
         }
 
-        // Write ACL_TABLE
-        if (!config.getAclTables().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"ACL_TABLE\": ");
-            writeNestedMap(config.getAclTables(), writer, 2);
+        /**
+         * Write a section whose value is copied unchanged from UTF-8 JSON text: the bytes
+         * between start and end of the source
+         */
+        void onRawSection(String name, ByteBuffer source, int start, int end) throws IOException {
+            separateSection();
+            out.writeIndent(1);
+            out.writeKey(name);
+            out.writeUtf8(source, start, end);
             firstSection = false;
         }
-        
-        // Write ACL_RULE
-        if (!config.getAclRules().isEmpty()) {
-            if (!firstSection) writer.write(",\n");
-            writer.write("  \"ACL_RULE\": ");
-            writeNestedMap(config.getAclRules(), writer, 2);
-            firstSection = false;
+
+        private void separateSection() throws IOException {
+            if (!firstSection) {
+                out.write(',');
+                out.newline();
+            }
         }
-        
-        writer.write("\n}\n");
     }
-    
+
     /**
-     * Write a nested map (Map<String, Map<String, Object>>)
+     * Write a row (SonicRow)
      */
-    private void writeNestedMap(Map<String, Map<String, Object>> map, Writer writer, int indent) throws IOException {
-        writer.write("{\n");
-        
-        List<String> keys = new ArrayList<>(map.keySet());
-        for (int i = 0; i < keys.size(); i++) {
-            String key = keys.get(i);
-            Map<String, Object> value = map.get(key);
-            
-            writeIndent(writer, indent + 1);
-            writer.write("\"" + escapeJson(key) + "\": ");
-            writeMap(value, writer, indent + 1);
-            
-            if (i < keys.size() - 1) {
-                writer.write(",");
-            }
-            writer.write("\n");
-        }
-        
-        writeIndent(writer, indent);
-        writer.write("}");
-    }
-    
+    private void writeRow(SonicRow row, JsonOutput out, int indent) throws IOException {
+        out.write('{');
+        out.newline();
+
+        int count = row.fieldCount();
+        for (int i = 0; i < count; i++) {
+            out.writeIndent(indent + 1);
+            out.writeKey(row.fieldName(i));
+            writeValue(row.fieldValue(i), out, indent + 1);
+
+            if (i < count - 1) {
+                out.write(',');
+            }
+            out.newline();
+        }
+
+        out.writeIndent(indent);
+        out.write('}');
+    }
+
     /**
      * Write a map (Map<String, Object>)
      */
-    private void writeMap(Map<String, Object> map, Writer writer, int indent) throws IOException {
-        writer.write("{\n");
-        
-        List<String> keys = new ArrayList<>(map.keySet());
-        for (int i = 0; i < keys.size(); i++) {
-            String key = keys.get(i);
-            Object value = map.get(key);
-            
-            writeIndent(writer, indent + 1);
-            writer.write("\"" + escapeJson(key) + "\": ");
-            writeValue(value, writer, indent + 1);
-            
-            if (i < keys.size() - 1) {
-                writer.write(",");
-            }
-            writer.write("\n");
-        }
-        
-        writeIndent(writer, indent);
-        writer.write("}");
+    private void writeMap(Map<String, Object> map, JsonOutput out, int indent) throws IOException {
+        out.write('{');
+        out.newline();
+
+        int remaining = map.size();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            out.writeIndent(indent + 1);
+            out.writeKey(entry.getKey());
+            writeValue(entry.getValue(), out, indent + 1);
+
+            if (--remaining > 0) {
+                out.write(',');
+            }
+            out.newline();
+        }
+
+        out.writeIndent(indent);
+        out.write('}');
     }
 
     /**
      * Write a value (can be String, Number, List, Map, etc.)
      */
     @SuppressWarnings("unchecked")
-    private void writeValue(Object value, Writer writer, int indent) throws IOException {
+    private void writeValue(Object value, JsonOutput out, int indent) throws IOException {
         if (value == null || "NULL".equals(value)) {
-            writer.write("null");
+            out.write("null");
         } else if (value instanceof String) {
-            writer.write("\"" + escapeJson((String) value) + "\"");
+            out.writeString((String) value);
         } else if (value instanceof Number) {
-            writer.write(value.toString());
+            out.write(value.toString());
         } else if (value instanceof Boolean) {
-            writer.write(value.toString());
+            out.write(value.toString());
         } else if (value instanceof List) {
-            writeList((List<?>) value, writer, indent);
+            writeList((List<?>) value, out, indent);
         } else if (value instanceof Map) {
-            writeMap((Map<String, Object>) value, writer, indent);
+            writeMap((Map<String, Object>) value, out, indent);
         } else {
-            writer.write("\"" + escapeJson(value.toString()) + "\"");
+            out.writeString(value.toString());
         }
     }
 
     /**
      * Write a list
      */
-    private void writeList(List<?> list, Writer writer, int indent) throws IOException {
-        writer.write("[");
+    private void writeList(List<?> list, JsonOutput out, int indent) throws IOException {
+        out.write('[');
 
         for (int i = 0; i < list.size(); i++) {
-            writeValue(list.get(i), writer, indent);
+            writeValue(list.get(i), out, indent);
             if (i < list.size() - 1) {
-                writer.write(", ");
+                out.write(',');
+                out.space();
             }
         }
 
-        writer.write("]");
+        out.write(']');
     }
 
     /**
-     * Write indentation
+     * JSON text output with string escaping; pretty or compact layout
      */
-    private void writeIndent(Writer writer, int indent) throws IOException {
-        for (int i = 0; i < indent; i++) {
-            writer.write("  ");
+    private abstract static class JsonOutput {
+        private final boolean compact;
+
+        JsonOutput(boolean compact) {
+            this.compact = compact;
+        }
+
+        abstract void write(char c) throws IOException;
+
+        abstract void flush() throws IOException;
+
+        void write(String str) throws IOException {
+            for (int i = 0; i < str.length(); i++) {
+                write(str.charAt(i));
+            }
+        }
+
+        /**
+         * Line break between members (pretty layout only)
+         */
+        void newline() throws IOException {
+            if (!compact) {
+                write('\n');
+            }
+        }
+
+        /**
+         * Space after ':' and ',' (pretty layout only)
+         */
+        void space() throws IOException {
+            if (!compact) {
+                write(' ');
+            }
+        }
+
+        /**
+         * Write "key": with the key escaped
+         */
+        void writeKey(String key) throws IOException {
+            writeString(key);
+            write(':');
+            space();
+        }
+
+        /**
+         * Write "Vlan<id>|<port>": for a VLAN_MEMBER key
+         */
+        void writeVlanMemberKey(SonicKey.VlanMember key) throws IOException {
+            write("\"Vlan");
+            writeDigits(key.vlanId());
+            write('|');
+            writeEscaped(key.port());
+            write('"');
+            write(':');
+            space();
+        }
+
+        private void writeDigits(int value) throws IOException {
+            if (value >= 10) {
+                writeDigits(value / 10);
+            }
+            write((char) ('0' + value % 10));
+        }
+
+        /**
+         * Write a quoted string, escaping backslash, quote, newline, carriage return and tab
+         */
+        void writeString(String str) throws IOException {
+            write('"');
+            writeEscaped(str);
+            write('"');
+        }
+
+        private void writeEscaped(String str) throws IOException {
+            int length = str.length();
+            for (int i = 0; i < length; i++) {
+                char c = str.charAt(i);
+                switch (c) {
+                    case '\\' -> { write('\\'); write('\\'); }
+                    case '"' -> { write('\\'); write('"'); }
+                    case '\n' -> { write('\\'); write('n'); }
+                    case '\r' -> { write('\\'); write('r'); }
+                    case '\t' -> { write('\\'); write('t'); }
+                    default -> write(c);
+                }
+            }
+        }
+
+        /**
+         * Write UTF-8 text from a buffer as is, decoding it in chunks that end on a
+         * character boundary
+         */
+        void writeUtf8(ByteBuffer source, int start, int end) throws IOException {
+            byte[] chunk = new byte[Math.min(BUFFER_SIZE, end - start)];
+            int offset = start;
+            while (offset < end) {
+                int length = Math.min(chunk.length, end - offset);
+                if (offset + length < end) {
+                    // Don't split a multi-byte sequence: stop before its first byte
+                    while (length > 1 && (source.get(offset + length) & 0xC0) == 0x80) {
+                        length--;
+                    }
+                }
+                source.get(offset, chunk, 0, length);
+                write(new String(chunk, 0, length, StandardCharsets.UTF_8));
+                offset += length;
+            }
+        }
+
+        /**
+         * Write indentation (pretty layout only)
+         */
+        void writeIndent(int indent) throws IOException {
+            if (!compact) {
+                for (int i = 0; i < indent; i++) {
+                    write("  ");
+                }
+            }
         }
     }
 
     /**
-     * Escape special characters in JSON strings
+     * Character buffer in front of a Writer
      */
-    private String escapeJson(String str) {
-        if (str == null) {
-            return "";
+    private static final class WriterOutput extends JsonOutput {
+        private final Writer writer;
+        private final char[] buffer = new char[BUFFER_SIZE];
+        private int position;
+
+        WriterOutput(Writer writer, boolean compact) {
+            super(compact);
+            this.writer = writer;
+        }
+
+        @Override
+        void write(char c) throws IOException {
+            if (position == buffer.length) {
+                flushBuffer();
+            }
+            buffer[position++] = c;
+        }
+
+        @Override
+        void write(String str) throws IOException {
+            int length = str.length();
+            int offset = 0;
+            while (offset < length) {
+                if (position == buffer.length) {
+                    flushBuffer();
+                }
+                int count = Math.min(length - offset, buffer.length - position);
+                str.getChars(offset, offset + count, buffer, position);
+                position += count;
+                offset += count;
+            }
         }
 
-        return str.replace("\\", "\\\\")
-                  .replace("\"", "\\\"")
-                  .replace("\n", "\\n")
-                  .replace("\r", "\\r")
-                  .replace("\t", "\\t");
+        @Override
+        void flush() throws IOException {
+            flushBuffer();
+            writer.flush();
+        }
+
+        private void flushBuffer() throws IOException {
+            writer.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+
+    /**
+     * UTF-8 encoder writing into a ByteBuffer that is drained to a FileChannel when full.
+     * Unpaired surrogates are written as '?', like the JDK's UTF-8 encoder does.
+     */
+    private static final class ChannelOutput extends JsonOutput {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private char highSurrogate;
+
+        ChannelOutput(FileChannel channel, ByteBuffer buffer, boolean compact) {
+            super(compact);
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        @Override
+        void write(char c) throws IOException {
+            if (highSurrogate != 0) {
+                char high = highSurrogate;
+                highSurrogate = 0;
+                if (Character.isLowSurrogate(c)) {
+                    int codePoint = Character.toCodePoint(high, c);
+                    ensure(4);
+                    buffer.put((byte) (0xF0 | (codePoint >> 18)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                    buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                    buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                    return;
+                }
+                ensure(1);
+                buffer.put((byte) '?');
+            }
+
+            if (c < 0x80) {
+                ensure(1);
+                buffer.put((byte) c);
+            } else if (c < 0x800) {
+                ensure(2);
+                buffer.put((byte) (0xC0 | (c >> 6)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c)) {
+                highSurrogate = c;
+            } else if (Character.isLowSurrogate(c)) {
+                ensure(1);
+                buffer.put((byte) '?');
+            } else {
+                ensure(3);
+                buffer.put((byte) (0xE0 | (c >> 12)));
+                buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+
+        @Override
+        void flush() throws IOException {
+            if (highSurrogate != 0) {
+                highSurrogate = 0;
+                ensure(1);
+                buffer.put((byte) '?');
+            }
+            drain();
+        }
+
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
     }
 }
@@ -0,0 +1,66 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Walks a SonicConfig once and reports every table and row to any number of sinks, so
+ * several output formats (config_db.json, CLI script, RESP, ...) are produced from a
+ * single traversal, each into its own stream.
+ *
+ * DEVICE_METADATA comes first, then the tables in config_db.json order unless another
+ * order is given. Every event goes to the sinks in the order they were passed.
+ */
+public final class SonicEmitter {
+
+    private SonicEmitter() {
+    }
+
+    /**
+     * Visit the configuration in config_db.json order
+     */
+    public static void emit(SonicConfig config, ConfigSink... sinks) throws IOException {
+        emit(config, config.getTables(), sinks);
+    }
+
+    /**
+     * Visit the configuration with the tables in the given order
+     */
+    public static void emit(SonicConfig config, List<SonicTable<?>> tables, ConfigSink... sinks)
+            throws IOException {
+        for (ConfigSink sink : sinks) {
+            sink.onStart(config);
+        }
+
+        Map<String, Object> metadata = config.getDeviceMetadata();
+        if (!metadata.isEmpty()) {
+            for (ConfigSink sink : sinks) {
+                sink.onDeviceMetadata(metadata);
+            }
+        }
+
+        for (SonicTable<?> table : tables) {
+            if (table.isEmpty()) {
+                continue;
+            }
+            for (ConfigSink sink : sinks) {
+                sink.onTableStart(table);
+            }
+            for (Map.Entry<?, SonicRow> entry : table.entries()) {
+                Object key = entry.getKey();
+                SonicRow row = entry.getValue();
+                for (ConfigSink sink : sinks) {
+                    sink.onRow(table, key, row);
+                }
+            }
+            for (ConfigSink sink : sinks) {
+                sink.onTableEnd(table);
+            }
+        }
+
+        for (ConfigSink sink : sinks) {
+            sink.onEnd();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Computes the changes between two SONiC configurations as an RFC 6902 JSON Patch, the
+ * input of SONiC's "config apply-patch"
+ *
+ * Tables are compared one by one: each row of the old table is looked up by key in the
+ * new one (both are hash tables), then the new rows missing from the old table are
+ * added, so a diff is linear in the size of the tables. A table that appears or
+ * disappears as a whole is one "add" or "remove"; a changed row is patched field by
+ * field. Paths escape '~' and '/' as RFC 6901 requires, e.g.
+ * "/INTERFACE/Ethernet1|10.0.0.1~124".
+ *
+ * Operations come in config_db.json table order; apply-patch orders dependent changes
+ * itself. The generator can be shared between threads.
+ */
+public class SonicPatchGenerator {
+    private final SonicConfigWriter writer;
+
+    public SonicPatchGenerator() {
+        this(false);
+    }
+
+    /**
+     * @param compact write the patch without indentation and line breaks
+     */
+    public SonicPatchGenerator(boolean compact) {
+        this.writer = new SonicConfigWriter(compact);
+    }
+
+    /**
+     * One JSON Patch operation; value is null for "remove"
+     */
+    public record PatchOperation(String op, String path, Object value) {
+        @Override
+        public String toString() {
+            return op + " " + path;
+        }
+    }
+
+    /**
+     * The operations turning the old configuration into the new one; empty when they
+     * hold the same tables
+     */
+    public List<PatchOperation> diff(SonicConfig oldConfig, SonicConfig newConfig) {
+        List<PatchOperation> operations = new ArrayList<>();
+        diffDeviceMetadata(oldConfig.getDeviceMetadata(), newConfig.getDeviceMetadata(), operations);
+
+        List<SonicTable<?>> oldTables = oldConfig.getTables();
+        List<SonicTable<?>> newTables = newConfig.getTables();
+        for (int i = 0; i < oldTables.size(); i++) {
+            diffTable(oldTables.get(i), newTables.get(i), operations);
+        }
+        return operations;
+    }
+
+    /**
+     * Write the patch between two configurations to a file as UTF-8
+     */
+    public void writeToFile(SonicConfig oldConfig, SonicConfig newConfig, String filePath) throws IOException {
+        try (Writer out = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            write(diff(oldConfig, newConfig), out);
+        }
+    }
+
+    /**
+     * Write operations as a JSON Patch document
+     */
+    public void write(List<PatchOperation> operations, Writer out) throws IOException {
+        writer.writePatch(operations, out);
+    }
+
+    /**
+     * The patch between two configurations as a JSON string
+     */
+    public String generate(SonicConfig oldConfig, SonicConfig newConfig) {
+        StringWriter out = new StringWriter();
+        try {
+            write(diff(oldConfig, newConfig), out);
+        } catch (IOException e) {
+            // StringWriter doesn't throw IOException
+            return "";
+        }
+        return out.toString();
+    }
+
+    /**
+     * DEVICE_METADATA is a map of rows ("localhost") that are maps themselves
+     */
+    @SuppressWarnings("unchecked")
+    private static void diffDeviceMetadata(Map<String, Object> oldMetadata, Map<String, Object> newMetadata,
+            List<PatchOperation> operations) {
+        String tablePath = "/DEVICE_METADATA";
+        if (oldMetadata.isEmpty() || newMetadata.isEmpty()) {
+            if (!newMetadata.isEmpty()) {
+                operations.add(new PatchOperation("add", tablePath, newMetadata));
+            } else if (!oldMetadata.isEmpty()) {
+                operations.add(new PatchOperation("remove", tablePath, null));
+            }
+            return;
+        }
+
+        for (Map.Entry<String, Object> entry : oldMetadata.entrySet()) {
+            String rowPath = tablePath + "/" + escape(entry.getKey());
+            Object newRow = newMetadata.get(entry.getKey());
+            if (newRow == null) {
+                operations.add(new PatchOperation("remove", rowPath, null));
+            } else if (entry.getValue() instanceof Map && newRow instanceof Map) {
+                diffFields(rowPath, (Map<String, Object>) entry.getValue(), (Map<String, Object>) newRow, operations);
+            } else if (!entry.getValue().equals(newRow)) {
+                operations.add(new PatchOperation("replace", rowPath, newRow));
+            }
+        }
+        for (Map.Entry<String, Object> entry : newMetadata.entrySet()) {
+            if (!oldMetadata.containsKey(entry.getKey())) {
+                operations.add(new PatchOperation("add", tablePath + "/" + escape(entry.getKey()), entry.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Both tables come from the same position of getTables(), so they share a key type
+     */
+    @SuppressWarnings("unchecked")
+    private static <K> void diffTable(SonicTable<K> oldTable, SonicTable<?> newTable, List<PatchOperation> operations) {
+        SonicTable<K> table = (SonicTable<K>) newTable;
+        String tablePath = "/" + escape(oldTable.getName());
+
+        // A table that appears or goes away is a single operation
+        if (oldTable.isEmpty() || table.isEmpty()) {
+            if (!table.isEmpty()) {
+                operations.add(new PatchOperation("add", tablePath, new LinkedHashMap<>(table.asMap())));
+            } else if (!oldTable.isEmpty()) {
+                operations.add(new PatchOperation("remove", tablePath, null));
+            }
+            return;
+        }
+
+        // Paths are only built for rows that changed
+        for (Map.Entry<K, SonicRow> entry : oldTable.entries()) {
+            SonicRow newRow = table.get(entry.getKey());
+            if (newRow != null && newRow.equals(entry.getValue())) {
+                continue;
+            }
+            String rowPath = tablePath + "/" + escape(entry.getKey().toString());
+            if (newRow == null) {
+                operations.add(new PatchOperation("remove", rowPath, null));
+            } else {
+                if (newRow.fieldCount() == 0) {
+                    operations.add(new PatchOperation("replace", rowPath, newRow.toMap()));
+                } else {
+                    diffFields(rowPath, entry.getValue().toMap(), newRow.toMap(), operations);
+                }
+            }
+        }
+        for (Map.Entry<K, SonicRow> entry : table.entries()) {
+            if (!oldTable.containsKey(entry.getKey())) {
+                operations.add(new PatchOperation("add", tablePath + "/" + escape(entry.getKey().toString()),
+                    entry.getValue().toMap()));
+            }
+        }
+    }
+
+    private static void diffFields(String rowPath, Map<String, Object> oldFields, Map<String, Object> newFields,
+            List<PatchOperation> operations) {
+        for (Map.Entry<String, Object> field : newFields.entrySet()) {
+            Object oldValue = oldFields.get(field.getKey());
+            if (oldValue == null) {
+                operations.add(new PatchOperation("add", rowPath + "/" + escape(field.getKey()), field.getValue()));
+            } else if (!oldValue.equals(field.getValue())) {
+                operations.add(new PatchOperation("replace", rowPath + "/" + escape(field.getKey()), field.getValue()));
+            }
+        }
+        for (String name : oldFields.keySet()) {
+            if (!newFields.containsKey(name)) {
+                operations.add(new PatchOperation("remove", rowPath + "/" + escape(name), null));
+            }
+        }
+    }
+
+    /**
+     * JSON Pointer escaping of one path segment (RFC 6901)
+     */
+    static String escape(String segment) {
+        if (segment.indexOf('~') < 0 && segment.indexOf('/') < 0) {
+            return segment;
+        }
+        return segment.replace("~", "~0").replace("/", "~1");
+    }
+}
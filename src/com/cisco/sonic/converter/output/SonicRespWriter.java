@@ -0,0 +1,261 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Writes SONiC configuration as a Redis protocol (RESP) command stream for CONFIG_DB
+ *
+ * Each row becomes one "HSET TABLE|key field value [field value ...]" command, the way
+ * CONFIG_DB stores config_db.json entries, so the output can be loaded directly with
+ * "redis-cli -n 4 --pipe". Commands are emitted table by table in config_db.json order
+ * and encoded straight into a byte buffer, so the stream is never held in memory.
+ *
+ * Values follow the CONFIG_DB conventions: a list is stored in a field with an '@'
+ * suffix as a comma-separated string, and a row without fields gets "NULL" "NULL"
+ * because Redis has no empty hashes.
+ */
+public class SonicRespWriter {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String KEY_SEPARATOR = "|";
+
+    /**
+     * Write the command stream to a file
+     */
+    public void writeToFile(SonicConfig config, String filePath) throws IOException {
+        try (OutputStream out = Files.newOutputStream(Paths.get(filePath))) {
+            write(config, out);
+        }
+    }
+
+    /**
+     * Write the command stream to an OutputStream
+     */
+    public void write(SonicConfig config, OutputStream out) throws IOException {
+        SonicEmitter.emit(config, sink(out));
+    }
+
+    /**
+     * Sink writing the command stream to an OutputStream during a {@link SonicEmitter}
+     * traversal; the stream is flushed at the end but not closed
+     */
+    public ConfigSink sink(OutputStream out) {
+        RespOutput resp = new RespOutput(out);
+        return new CommandSink((table, command) -> resp.writeCommand(command)) {
+            @Override
+            public void onEnd() throws IOException {
+                resp.flush();
+            }
+        };
+    }
+
+    /**
+     * Number of HSET commands write() produces for a configuration
+     */
+    public int countCommands(SonicConfig config) {
+        int count = 0;
+        for (Object value : config.getDeviceMetadata().values()) {
+            if (value instanceof Map) {
+                count++;
+            }
+        }
+        for (SonicTable<?> table : config.getTables()) {
+            count += table.size();
+        }
+        return count;
+    }
+
+    /**
+     * Receives the HSET command for each row, together with the row's table
+     */
+    interface CommandConsumer {
+        void accept(String table, List<String> command) throws IOException;
+    }
+
+    /**
+     * Produce the HSET command of every row: DEVICE_METADATA first, then the tables in
+     * config_db.json order. The command list is reused between calls.
+     */
+    static void forEachCommand(SonicConfig config, CommandConsumer consumer) throws IOException {
+        SonicEmitter.emit(config, new CommandSink(consumer));
+    }
+
+    /**
+     * Turns each visited row into its HSET command
+     */
+    private static class CommandSink implements ConfigSink {
+        private final CommandConsumer consumer;
+        private final List<String> command = new ArrayList<>();
+
+        CommandSink(CommandConsumer consumer) {
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void onDeviceMetadata(Map<String, Object> metadata) throws IOException {
+            // DEVICE_METADATA rows are nested maps: {"localhost": {...}}
+            for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+                if (entry.getValue() instanceof Map<?, ?> fields) {
+                    startHset(command, "DEVICE_METADATA", entry.getKey());
+                    for (Map.Entry<?, ?> field : fields.entrySet()) {
+                        addField(command, String.valueOf(field.getKey()), field.getValue());
+                    }
+                    consumer.accept("DEVICE_METADATA", finishHset(command));
+                }
+            }
+        }
+
+        @Override
+        public void onRow(SonicTable<?> table, Object key, SonicRow row) throws IOException {
+            startHset(command, table.getName(), key.toString());
+            for (int i = 0; i < row.fieldCount(); i++) {
+                addField(command, row.fieldName(i), row.fieldValue(i));
+            }
+            consumer.accept(table.getName(), finishHset(command));
+        }
+    }
+
+    private static void startHset(List<String> command, String table, String key) {
+        command.clear();
+        command.add("HSET");
+        command.add(table + KEY_SEPARATOR + key);
+    }
+
+    private static List<String> finishHset(List<String> command) {
+        // Redis has no empty hashes
+        if (command.size() == 2) {
+            command.add("NULL");
+            command.add("NULL");
+        }
+        return command;
+    }
+
+    private static void addField(List<String> command, String name, Object value) {
+        if (value instanceof List<?> list) {
+            StringBuilder joined = new StringBuilder();
+            for (Object item : list) {
+                if (joined.length() > 0) {
+                    joined.append(',');
+                }
+                joined.append(item);
+            }
+            command.add(name + "@");
+            command.add(joined.toString());
+        } else {
+            command.add(name);
+            command.add(value == null ? "NULL" : value.toString());
+        }
+    }
+
+    /**
+     * RESP encoder over a byte buffer; strings are written as UTF-8 bulk strings
+     */
+    static final class RespOutput {
+        private final OutputStream out;
+        private final byte[] buffer;
+        private int position;
+
+        RespOutput(OutputStream out) {
+            this(out, BUFFER_SIZE);
+        }
+
+        RespOutput(OutputStream out, int bufferSize) {
+            this.out = out;
+            this.buffer = new byte[bufferSize];
+        }
+
+        /**
+         * A command: an array of bulk strings
+         */
+        void writeCommand(List<String> args) throws IOException {
+            writeByte('*');
+            writeDecimal(args.size());
+            writeCrlf();
+            for (String arg : args) {
+                writeBulk(arg);
+            }
+        }
+
+        void writeBulk(String value) throws IOException {
+            writeByte('$');
+            writeDecimal(utf8Length(value));
+            writeCrlf();
+            writeUtf8(value);
+            writeCrlf();
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+            out.flush();
+        }
+
+        private void writeCrlf() throws IOException {
+            writeByte('\r');
+            writeByte('\n');
+        }
+
+        private void writeDecimal(int value) throws IOException {
+            if (value >= 10) {
+                writeDecimal(value / 10);
+            }
+            writeByte('0' + value % 10);
+        }
+
+        private void writeByte(int b) throws IOException {
+            if (position == buffer.length) {
+                out.write(buffer, 0, position);
+                position = 0;
+            }
+            buffer[position++] = (byte) b;
+        }
+
+        private void writeUtf8(String str) throws IOException {
+            for (int i = 0; i < str.length(); i++) {
+                char c = str.charAt(i);
+                if (c < 0x80) {
+                    writeByte(c);
+                } else if (c < 0x800) {
+                    writeByte(0xC0 | (c >> 6));
+                    writeByte(0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < str.length()
+                        && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                    writeByte(0xF0 | (codePoint >> 18));
+                    writeByte(0x80 | ((codePoint >> 12) & 0x3F));
+                    writeByte(0x80 | ((codePoint >> 6) & 0x3F));
+                    writeByte(0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    writeByte('?');
+                } else {
+                    writeByte(0xE0 | (c >> 12));
+                    writeByte(0x80 | ((c >> 6) & 0x3F));
+                    writeByte(0x80 | (c & 0x3F));
+                }
+            }
+        }
+
+        private static int utf8Length(String str) {
+            int length = 0;
+            for (int i = 0; i < str.length(); i++) {
+                char c = str.charAt(i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < str.length()
+                        && Character.isLowSurrogate(str.charAt(i + 1))) {
+                    length += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    length++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+    }
+}
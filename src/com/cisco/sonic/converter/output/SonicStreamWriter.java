@@ -0,0 +1,444 @@
+package com.cisco.sonic.converter.output;
+
+import com.cisco.sonic.converter.model.*;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Writes config_db.json for a conversion that produces its rows a stanza at a time, without
+ * holding the rows in memory
+ *
+ * config_db.json groups rows by table, but one stanza gives rows for several tables, so
+ * each table's rows are appended to a temporary segment file as they arrive and the
+ * document is put together from the segments at the end. A key that arrives again keeps
+ * its first position and takes its last row, as in a SonicTable. Repeats are found
+ * through a 4-byte hash per row; only the keys whose hash was seen before are kept in
+ * memory, so memory grows by 5-11 bytes per row rather than by the rows themselves
+ * (1.5 million interfaces convert in a 48 MB heap).
+ *
+ * Rows can be added on behalf of an owner, the interface they were converted from. When
+ * an owner adds rows again, e.g. for an interface configured in two stanzas, the rows it
+ * added before are dropped and the new ones take their place, as if the interface had
+ * been configured once by its last stanza. Owners are tracked by hash as well; names
+ * whose hash repeats are looked up in a log of owners when the document is written, and
+ * only the rows of those owners are held in memory.
+ *
+ * A stream writer is used by one thread at a time. Closing it deletes the segments.
+ */
+public class SonicStreamWriter implements Closeable {
+    private static final int SEGMENT_BUFFER_SIZE = 64 * 1024;
+
+    private final SonicConfigWriter writer;
+    private final Path directory;
+    // Empty tables that name the segments and read their rows back
+    private final SonicConfig templates = new SonicConfig();
+    private final List<SonicTable<?>> tables = templates.getTables();
+    private final Path[] segmentPaths = new Path[tables.size()];
+    private final DataOutputStream[] segments = new DataOutputStream[tables.size()];
+    private final long[] segmentRows = new long[tables.size()];
+    // Keys that probably repeat, with their last row once the document is written
+    private final List<Map<String, SonicRow>> repeatedRows = new ArrayList<>();
+    private final KeyHashes keyHashes = new KeyHashes();
+    private final KeyHashes ownerHashes = new KeyHashes();
+    private final Set<Integer> repeatedOwnerHashes = new HashSet<>();
+    private Path ownerLogPath;
+    private DataOutputStream ownerLog;
+    private int ownerLogEntries;
+    // Rows are numbered by the add() call they came from
+    private int batch;
+    private long rowCount;
+    private boolean written;
+
+    /**
+     * @param directory where the segment files are created, e.g. next to the output file
+     */
+    public SonicStreamWriter(SonicConfigWriter writer, Path directory) {
+        this.writer = writer;
+        this.directory = directory;
+        for (int i = 0; i < tables.size(); i++) {
+            repeatedRows.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Append the rows of every table of a configuration, e.g. what one stanza converted
+     * to; the configuration is not changed and can be cleared for the next stanza
+     */
+    public void add(SonicConfig rows) throws IOException {
+        add(rows, null);
+    }
+
+    /**
+     * Append rows on behalf of an owner, e.g. the interface they were converted from; they
+     * replace the rows the owner added before. A null owner never replaces anything.
+     */
+    public void add(SonicConfig rows, String owner) throws IOException {
+        if (written) {
+            throw new IllegalStateException("The document has already been written");
+        }
+        batch++;
+        if (owner != null) {
+            if (!ownerHashes.add(owner.hashCode())) {
+                repeatedOwnerHashes.add(owner.hashCode());
+            }
+            if (ownerLog == null) {
+                ownerLogPath = Files.createTempFile(directory, "owners-", ".segment");
+                ownerLog = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(ownerLogPath), SEGMENT_BUFFER_SIZE));
+            }
+            ownerLog.writeInt(batch);
+            ownerLog.writeUTF(owner);
+            ownerLogEntries++;
+        }
+        List<SonicTable<?>> rowTables = rows.getTables();
+        for (int t = 0; t < rowTables.size(); t++) {
+            for (Map.Entry<?, SonicRow> entry : rowTables.get(t).entries()) {
+                add(t, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void add(int table, Object key, SonicRow row) throws IOException {
+        String keyString = key.toString();
+        if (!keyHashes.add(table * 31 + key.hashCode())) {
+            // Probably a repeated key; a new key whose hash collides costs only the memory
+            repeatedRows.get(table).put(keyString, null);
+        }
+
+        DataOutputStream out = segment(table);
+        out.writeInt(batch);
+        out.writeUTF(keyString);
+        out.writeByte(row.fieldCount());
+        for (int f = 0; f < row.fieldCount(); f++) {
+            out.writeUTF(row.fieldName(f));
+            if (row.fieldValue(f) instanceof List<?> list) {
+                out.writeByte(1);
+                out.writeInt(list.size());
+                for (Object item : list) {
+                    out.writeUTF(String.valueOf(item));
+                }
+            } else {
+                out.writeByte(0);
+                out.writeUTF(String.valueOf(row.fieldValue(f)));
+            }
+        }
+        segmentRows[table]++;
+        rowCount++;
+    }
+
+    private DataOutputStream segment(int table) throws IOException {
+        if (segments[table] == null) {
+            segmentPaths[table] = Files.createTempFile(directory, tables.get(table).getName() + "-", ".segment");
+            segments[table] = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(segmentPaths[table]), SEGMENT_BUFFER_SIZE));
+        }
+        return segments[table];
+    }
+
+    /**
+     * Rows added so far, repeated keys included
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Write the document to a file as UTF-8: DEVICE_METADATA, then the tables in
+     * config_db.json order
+     */
+    public void writeToFile(Map<String, Object> deviceMetadata, String filePath) throws IOException {
+        try (Writer out = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            write(deviceMetadata, out);
+        }
+    }
+
+    /**
+     * Write the document to a Writer, which is flushed but not closed. No rows can be added
+     * afterwards.
+     */
+    public void write(Map<String, Object> deviceMetadata, Writer out) throws IOException {
+        written = true;
+        closeSegments();
+        Replacements replacements = replacements();
+        SonicConfigWriter.JsonSink sink = writer.documentSink(out);
+        sink.onStart(templates);
+        if (!deviceMetadata.isEmpty()) {
+            sink.onDeviceMetadata(deviceMetadata);
+        }
+        for (int t = 0; t < tables.size(); t++) {
+            if (segmentPaths[t] != null) {
+                writeTable(sink, t, replacements);
+            }
+        }
+        sink.onEnd();
+    }
+
+    private void writeTable(SonicConfigWriter.JsonSink sink, int t, Replacements replacements) throws IOException {
+        SonicTable<?> table = tables.get(t);
+        Map<String, SonicRow> repeated = repeatedRows.get(t);
+        List<MovedRow> movedRows = new ArrayList<>();
+        if (!repeated.isEmpty() || replacements.hasMoves()) {
+            // First pass: the rows that move up to their interface's first stanza, and the
+            // row each repeated key ends up with
+            Map<String, Integer> positions = new HashMap<>();
+            readSegment(t, (rowBatch, key, fields) -> {
+                if (replacements.replaced(rowBatch)) {
+                    return;
+                }
+                int position = replacements.position(rowBatch);
+                SonicRow row = table.parseRow(fields);
+                if (position != rowBatch) {
+                    movedRows.add(new MovedRow(position, key, row));
+                }
+                if (repeated.containsKey(key)) {
+                    Integer previous = positions.get(key);
+                    if (previous == null || position >= previous) {
+                        positions.put(key, position);
+                        repeated.put(key, row);
+                    }
+                }
+            });
+            movedRows.sort(Comparator.comparingInt(MovedRow::position));
+        }
+
+        // The table is started at its first row, as all its rows may have been replaced
+        TableRows rows = new TableRows(sink, table, repeated);
+        Iterator<MovedRow> moved = movedRows.iterator();
+        MovedRow[] nextMoved = {moved.hasNext() ? moved.next() : null};
+        readSegment(t, (rowBatch, key, fields) -> {
+            while (nextMoved[0] != null && nextMoved[0].position() < rowBatch) {
+                rows.write(nextMoved[0].key(), nextMoved[0].row());
+                nextMoved[0] = moved.hasNext() ? moved.next() : null;
+            }
+            if (!replacements.replaced(rowBatch) && replacements.position(rowBatch) == rowBatch) {
+                rows.write(key, repeated.containsKey(key) ? null : table.parseRow(fields));
+            }
+        });
+        for (MovedRow row = nextMoved[0]; row != null; row = moved.hasNext() ? moved.next() : null) {
+            rows.write(row.key(), row.row());
+        }
+        rows.end();
+    }
+
+    /**
+     * The rows of one table going to the sink
+     */
+    private static final class TableRows {
+        private final SonicConfigWriter.JsonSink sink;
+        private final SonicTable<?> table;
+        private final Map<String, SonicRow> repeated;
+        private boolean started;
+
+        TableRows(SonicConfigWriter.JsonSink sink, SonicTable<?> table, Map<String, SonicRow> repeated) {
+            this.sink = sink;
+            this.table = table;
+            this.repeated = repeated;
+        }
+
+        /**
+         * Write a row, or for a repeated key write its last row the first time and skip it
+         * after
+         */
+        void write(String key, SonicRow row) throws IOException {
+            if (!repeated.isEmpty() && repeated.containsKey(key)) {
+                row = repeated.put(key, null);
+                if (row == null) {
+                    return;
+                }
+            }
+            if (!started) {
+                sink.onTableStart(table);
+                started = true;
+            }
+            sink.onRow(table, key, row);
+        }
+
+        void end() throws IOException {
+            if (started) {
+                sink.onTableEnd(table);
+            }
+        }
+    }
+
+    /**
+     * A row of an interface's last stanza, written where its first stanza was
+     */
+    private record MovedRow(int position, String key, SonicRow row) {
+    }
+
+    /**
+     * Receives the rows of a segment; fields is reused for every row
+     */
+    @FunctionalInterface
+    private interface SegmentVisitor {
+        void visit(int batch, String key, Map<String, Object> fields) throws IOException;
+    }
+
+    private void readSegment(int t, SegmentVisitor visitor) throws IOException {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(segmentPaths[t]), SEGMENT_BUFFER_SIZE))) {
+            for (long i = 0; i < segmentRows[t]; i++) {
+                int rowBatch = in.readInt();
+                String key = in.readUTF();
+                fields.clear();
+                for (int f = in.readUnsignedByte(); f > 0; f--) {
+                    String name = in.readUTF();
+                    if (in.readByte() == 1) {
+                        List<String> list = new ArrayList<>();
+                        for (int n = in.readInt(); n > 0; n--) {
+                            list.add(in.readUTF());
+                        }
+                        fields.put(name, list);
+                    } else {
+                        fields.put(name, in.readUTF());
+                    }
+                }
+                visitor.visit(rowBatch, key, fields);
+            }
+        }
+    }
+
+    /**
+     * Owners that added rows more than once: the add() calls whose rows were replaced, and
+     * for each owner's last call the position of its first one, which is where a
+     * SonicTable would have the owner's rows
+     */
+    private static final class Replacements {
+        private final BitSet replaced = new BitSet();
+        private final Map<Integer, Integer> positions = new HashMap<>();
+
+        boolean replaced(int batch) {
+            return replaced.get(batch);
+        }
+
+        int position(int batch) {
+            return positions.isEmpty() ? batch : positions.getOrDefault(batch, batch);
+        }
+
+        boolean hasMoves() {
+            return !positions.isEmpty();
+        }
+    }
+
+    /**
+     * Only owners whose hash repeated are looked up in the log, so the names held are those
+     * few
+     */
+    private Replacements replacements() throws IOException {
+        Replacements replacements = new Replacements();
+        if (repeatedOwnerHashes.isEmpty()) {
+            return replacements;
+        }
+        Map<String, int[]> ownerBatches = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(ownerLogPath), SEGMENT_BUFFER_SIZE))) {
+            for (int i = 0; i < ownerLogEntries; i++) {
+                int ownerBatch = in.readInt();
+                String owner = in.readUTF();
+                if (repeatedOwnerHashes.contains(owner.hashCode())) {
+                    // First and last add() call of the owner
+                    int[] batches = ownerBatches.putIfAbsent(owner, new int[] {ownerBatch, ownerBatch});
+                    if (batches != null) {
+                        replacements.replaced.set(batches[1]);
+                        batches[1] = ownerBatch;
+                    }
+                }
+            }
+        }
+        for (int[] batches : ownerBatches.values()) {
+            if (batches[1] != batches[0]) {
+                replacements.positions.put(batches[1], batches[0]);
+            }
+        }
+        return replacements;
+    }
+
+    private void closeSegments() throws IOException {
+        for (int t = 0; t < segments.length; t++) {
+            if (segments[t] != null) {
+                segments[t].close();
+                segments[t] = null;
+            }
+        }
+        if (ownerLog != null) {
+            ownerLog.close();
+            ownerLog = null;
+        }
+    }
+
+    /**
+     * Delete the segment files
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            closeSegments();
+        } finally {
+            for (Path path : segmentPaths) {
+                if (path != null) {
+                    Files.deleteIfExists(path);
+                }
+            }
+            if (ownerLogPath != null) {
+                Files.deleteIfExists(ownerLogPath);
+            }
+        }
+    }
+
+    /**
+     * Open-addressing set of 32-bit key hashes. add() is false when the hash is already
+     * there, which it always is for a repeated key and rarely for a new one.
+     */
+    private static final class KeyHashes {
+        private int[] slots = new int[1 << 16];
+        private int size;
+
+        boolean add(int hash) {
+            int h = mix(hash);
+            int mask = slots.length - 1;
+            for (int i = h & mask; ; i = (i + 1) & mask) {
+                if (slots[i] == h) {
+                    return false;
+                }
+                if (slots[i] == 0) {
+                    slots[i] = h;
+                    // Grow at three quarters full, so a hash costs 5-11 bytes
+                    if (++size * 4 > slots.length * 3) {
+                        grow();
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void grow() {
+            int[] old = slots;
+            slots = new int[old.length * 2];
+            int mask = slots.length - 1;
+            for (int h : old) {
+                if (h != 0) {
+                    int i = h & mask;
+                    while (slots[i] != 0) {
+                        i = (i + 1) & mask;
+                    }
+                    slots[i] = h;
+                }
+            }
+        }
+
+        /**
+         * Spread the bits of hashCode() (MurmurHash3's finalizer); 0 marks a free slot
+         */
+        private static int mix(int h) {
+            h ^= h >>> 16;
+            h *= 0x85ebca6b;
+            h ^= h >>> 13;
+            h *= 0xc2b2ae35;
+            h ^= h >>> 16;
+            return h == 0 ? 1 : h;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.cisco.sonic.converter.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only character view of ASCII text held in a ByteBuffer (typically a memory-mapped
+ * region of a configuration file).
+ *
+ * Each byte is exposed as one char, which is all keyword matching and tokenizing need.
+ * Strings are only created through {@link #subSequence(int, int)}, which decodes the
+ * selected bytes as UTF-8 so non-ASCII descriptions survive intact. The bytes are staged
+ * in a reused scratch array, so a view must not be shared between threads.
+ */
+final class ByteText implements CharSequence {
+    private static final long NEWLINES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long CARRIAGE_RETURNS = 0x0D0D0D0D0D0D0D0DL;
+    private static final long LOW_BITS = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x8080808080808080L;
+
+    private final ByteBuffer buffer;
+    private final int length;
+    private byte[] scratch = new byte[256];
+
+    ByteText(ByteBuffer buffer) {
+        // Little-endian so the first byte in memory is the lowest byte of a long
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        this.length = buffer.limit();
+    }
+
+    /**
+     * Another view of the same bytes, with its own scratch array
+     */
+    ByteText duplicate() {
+        return new ByteText(buffer.duplicate());
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) (buffer.get(index) & 0xFF);
+    }
+
+    /**
+     * Position of the first '\n' or '\r' at or after the given index, or -1
+     */
+    int indexOfLineTerminator(int from) {
+        int i = from;
+
+        // Test eight bytes at a time; the lowest flagged byte is always a real match
+        for (; i + Long.BYTES <= length; i += Long.BYTES) {
+            long word = buffer.getLong(i);
+            long found = zeroBytes(word ^ NEWLINES) | zeroBytes(word ^ CARRIAGE_RETURNS);
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+
+        for (; i < length; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Sets the high bit of every zero byte in the word (plus possibly some bytes above one)
+     */
+    private static long zeroBytes(long word) {
+        return (word - LOW_BITS) & ~word & HIGH_BITS;
+    }
+
+    /**
+     * Decode text[start, end) into a String
+     */
+    @Override
+    public String subSequence(int start, int end) {
+        int count = end - start;
+        if (count > scratch.length) {
+            scratch = new byte[Math.max(count, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, count);
+        return new String(scratch, 0, count, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return subSequence(0, length);
+    }
+}
@@ -2,25 +2,193 @@ package com.cisco.sonic.converter.parser;
 
 import com.cisco.sonic.converter.model.*;
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.*;
 
 /**
  * Parser for Cisco IOS/IOS-XE configuration files
+ *
+ * Each parse keeps its state in a ParseState of its own, so a parser can be shared
+ * between threads.
  */
 public class CiscoConfigParser {
-    private static final Pattern INTERFACE_PATTERN = Pattern.compile("^interface\\s+(.+)$", Pattern.CASE_INSENSITIVE);
-    private static final Pattern INTERFACE_RANGE_PATTERN = Pattern.compile("^interface\\s+range\\s+(.+)$", Pattern.CASE_INSENSITIVE);
-    private static final Pattern VLAN_PATTERN = Pattern.compile("^vlan\\s+(\\d+)$", Pattern.CASE_INSENSITIVE);
-    private static final Pattern VLAN_RANGE_PATTERN = Pattern.compile("^vlan\\s+([\\d,-]+)$", Pattern.CASE_INSENSITIVE);
-    private static final Pattern HOSTNAME_PATTERN = Pattern.compile("^hostname\\s+(.+)$", Pattern.CASE_INSENSITIVE);
-    private static final Pattern IP_ADDRESS_PATTERN = Pattern.compile("^\\s*ip address\\s+(\\S+)\\s+(\\S+).*$", Pattern.CASE_INSENSITIVE);
-    private static final Pattern STATIC_ROUTE_PATTERN = Pattern.compile("^ip route\\s+(\\S+)\\s+(\\S+)\\s+(\\S+).*$", Pattern.CASE_INSENSITIVE);
-    
+    private static final long MAPPED_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    /** Minimum number of lines handed to a worker at once in parallel mode */
+    private static final int STANZA_BATCH_LINES = 2048;
+
+    private static final Pattern CHANNEL_GROUP_PATTERN = Pattern.compile("channel-group\\s+(\\d+)\\s+mode\\s+(\\S+)");
+    private static final Pattern INTERFACE_RANGE_MODULE_PATTERN = Pattern.compile("^([A-Za-z-]+)(\\d+)/(\\d+)-(\\d+)$");
+    private static final Pattern INTERFACE_RANGE_SIMPLE_PATTERN = Pattern.compile("^([A-Za-z-]+)(\\d+)-(\\d+)$");
+
+    /**
+     * Handler for a top-level command, selected by the first word of the line.
+     * Returns false if the line turned out not to be that command after all.
+     */
+    @FunctionalInterface
+    private interface CommandHandler {
+        boolean handle(CiscoConfigParser parser, ParseState state, ConfigLine line);
+    }
+
     /**
-     * Parse Cisco configuration from a file
+     * Handler for a command inside an interface stanza.
+     * Returns false if the line should be kept as an additional command.
+     */
+    @FunctionalInterface
+    private interface InterfaceCommandHandler {
+        boolean handle(CiscoConfigParser parser, ConfigLine line, InterfaceConfig interfaceConfig);
+    }
+
+    private static final KeywordTable<CommandHandler> TOP_LEVEL_COMMANDS = KeywordTable.of(Map.of(
+        "hostname", CiscoConfigParser::parseHostname,
+        "interface", CiscoConfigParser::parseInterfaceStart,
+        "vlan", CiscoConfigParser::parseVlanStart,
+        "ip", CiscoConfigParser::parseStaticRoute
+    ));
+
+    private static final KeywordTable<InterfaceCommandHandler> INTERFACE_COMMANDS = KeywordTable.of(Map.of(
+        "ip", CiscoConfigParser::parseInterfaceIpAddress,
+        "description", CiscoConfigParser::parseInterfaceDescription,
+        "shutdown", CiscoConfigParser::parseInterfaceShutdown,
+        "no", CiscoConfigParser::parseInterfaceNoShutdown,
+        "mtu", CiscoConfigParser::parseInterfaceMtu,
+        "switchport", CiscoConfigParser::parseInterfaceSwitchport,
+        "channel-group", CiscoConfigParser::parseInterfaceChannelGroup
+    ));
+
+    private enum Context {
+        NONE, INTERFACE
+    }
+
+    /**
+     * Mutable state carried from one line to the next while parsing
+     */
+    private static final class ParseState {
+        final CiscoConfig config;
+        final ConfigLine line = new ConfigLine();
+        boolean retainRawLines;
+        RawLineIndex rawLineIndex;
+        Context context = Context.NONE;
+        InterfaceConfig currentInterface;  // For a range, the template its members share
+        StanzaBatcher stanzaBatcher;       // Parallel mode: lines are batched here instead of parsed
+        ConfigEventHandler events;         // Event mode: receives each element as it is parsed
+
+        ParseState() {
+            this(new CiscoConfig());
+        }
+
+        ParseState(CiscoConfig config) {
+            this.config = config;
+        }
+    }
+
+    /**
+     * Event mode: stands in for the configuration being built and forwards each element to
+     * the handler instead of keeping it. Only the interfaces of the current stanza are held,
+     * until the stanza ends.
+     */
+    private static final class EventConfig extends CiscoConfig {
+        private final ConfigEventHandler events;
+        private final List<InterfaceConfig> stanzaInterfaces = new ArrayList<>();
+
+        EventConfig(ConfigEventHandler events) {
+            this.events = events;
+        }
+
+        @Override
+        public void setHostname(String hostname) {
+            events.onHostname(hostname);
+        }
+
+        @Override
+        public void addInterface(String name, InterfaceConfig config) {
+            stanzaInterfaces.add(config);
+            events.onInterfaceStart(config);
+        }
+
+        @Override
+        public void addVlan(Integer vlanId, VlanConfig config) {
+            events.onVlan(config);
+        }
+
+        @Override
+        public void addStaticRoute(RouteConfig route) {
+            events.onStaticRoute(route);
+        }
+
+        @Override
+        public void addRawLine(String line) {
+            // Not retained in event mode
+        }
+
+        /**
+         * Report the interfaces of the stanza that just ended
+         */
+        void endStanza() {
+            for (InterfaceConfig config : stanzaInterfaces) {
+                events.onInterfaceEnd(config);
+            }
+            stanzaInterfaces.clear();
+        }
+    }
+
+    /**
+     * Whole lines text[start, end) handed to a worker in parallel mode
+     */
+    private record Segment(CharSequence text, int start, int end) {
+    }
+
+    private final RawLineRetention rawLineRetention;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a parser that does not keep the raw input lines
+     */
+    public CiscoConfigParser() {
+        this(RawLineRetention.NONE);
+    }
+
+    /**
+     * Create a parser with the given raw-line retention policy
+     */
+    public CiscoConfigParser(RawLineRetention rawLineRetention) {
+        this(rawLineRetention, null);
+    }
+
+    /**
+     * Create a parser that parses top-level stanzas in parallel on the given pool.
+     *
+     * Input is split into batches of whole interface and vlan stanzas by a quick scan of
+     * the lines, the batches are parsed concurrently, and the results are merged in input
+     * order, so the configuration is the same as a sequential parse would produce. A null
+     * pool parses sequentially.
+     */
+    public CiscoConfigParser(RawLineRetention rawLineRetention, ForkJoinPool pool) {
+        this.rawLineRetention = rawLineRetention;
+        this.pool = pool;
+    }
+
+    public RawLineRetention getRawLineRetention() {
+        return rawLineRetention;
+    }
+
+    public boolean isParallel() {
+        return pool != null;
+    }
+
+    /**
+     * Parse Cisco configuration from a file.
+     * With {@link RawLineRetention#INDEX} or in parallel mode the file is read through
+     * {@link #parseMappedFile}, so there is a single buffer for line offsets to point into.
      */
     public CiscoConfig parseFile(String filePath) throws IOException {
+        if (rawLineRetention == RawLineRetention.INDEX || pool != null) {
+            return parseMappedFile(filePath);
+        }
         try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
             return parse(reader);
         }
@@ -30,260 +198,626 @@ public class CiscoConfigParser {
      * Parse Cisco configuration from a string
      */
     public CiscoConfig parseString(String configText) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new StringReader(configText))) {
-            return parse(reader);
+        ParseState state = newParseState();
+        parseLines(state, configText, 0, configText.length(), true);
+        return finishParse(state);
+    }
+
+    /**
+     * Parse Cisco configuration from a file through a memory-mapped, byte-oriented path.
+     *
+     * Lines are scanned straight out of the mapped region, which is mapped in windows so
+     * files larger than 2 GB can be read. No per-line decoding takes place; Strings are
+     * only created for the values that end up in the returned configuration. The file is
+     * expected to be ASCII or UTF-8.
+     */
+    public CiscoConfig parseMappedFile(String filePath) throws IOException {
+        ParseState state = newParseState();
+        parseMappedLines(state, filePath);
+        return finishParse(state);
+    }
+
+    /**
+     * Parse a configuration file through the memory-mapped path, reporting each element to
+     * the handler instead of building a CiscoConfig. The parser holds only the current
+     * stanza: its interface, or for "interface range" the range template and one
+     * InterfaceConfig per member, until the stanza ends. What the handler keeps is up to it.
+     */
+    public void parseFile(String filePath, ConfigEventHandler handler) throws IOException {
+        ParseState state = newEventParseState(handler);
+        parseMappedLines(state, filePath);
+        finishEvents(state);
+    }
+
+    /**
+     * Parse configuration text, reporting each element to the handler instead of building
+     * a CiscoConfig. Event mode is always sequential and keeps no raw lines.
+     */
+    public void parseString(String configText, ConfigEventHandler handler) {
+        ParseState state = newEventParseState(handler);
+        parseLines(state, configText, 0, configText.length(), true);
+        finishEvents(state);
+    }
+
+    private void parseMappedLines(ParseState state, String filePath) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+
+            while (position < size) {
+                long windowSize = Math.min(MAPPED_WINDOW_SIZE, size - position);
+                boolean lastWindow = position + windowSize == size;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, windowSize);
+
+                // A line cut off by the end of the window is parsed again from the next window
+                ByteText text = new ByteText(buffer);
+                int consumed = parseLines(state, text, 0, text.length(), lastWindow);
+                if (consumed == 0) {
+                    throw new IOException("Line longer than " + MAPPED_WINDOW_SIZE + " bytes at offset " + position);
+                }
+                position += consumed;
+            }
+        }
+    }
+
+    /**
+     * Split text[start, end) into lines in place, with the same terminators as
+     * BufferedReader.readLine(), and parse each one. Unless this is the end of the input, a
+     * trailing line without a terminator is left alone. Returns the position parsing stopped at.
+     */
+    private int parseLines(ParseState state, CharSequence text, int start, int end, boolean endOfInput) {
+        int length = end;
+        int lineStart = start;
+
+        if (state.rawLineIndex != null) {
+            state.rawLineIndex.beginSource(text);
+        }
+
+        while (lineStart < length) {
+            int lineEnd = indexOfLineTerminator(text, lineStart);
+            int nextLineStart;
+
+            if (lineEnd < 0) {
+                if (!endOfInput) {
+                    break;
+                }
+                lineEnd = length;
+                nextLineStart = length;
+            } else if (text.charAt(lineEnd) == '\n') {
+                nextLineStart = lineEnd + 1;
+            } else if (lineEnd + 1 < length) {
+                // "\r\n" counts as a single terminator
+                nextLineStart = text.charAt(lineEnd + 1) == '\n' ? lineEnd + 2 : lineEnd + 1;
+            } else {
+                if (!endOfInput) {
+                    break;
+                }
+                nextLineStart = length;
+            }
+
+            if (state.retainRawLines) {
+                retainRawLine(state, text, lineStart, lineEnd);
+            }
+            if (state.stanzaBatcher != null) {
+                state.stanzaBatcher.addLine(state.line, text, lineStart, lineEnd, nextLineStart);
+            } else {
+                parseLine(state, text, lineStart, lineEnd);
+            }
+            lineStart = nextLineStart;
+        }
+
+        return lineStart;
+    }
+
+    /**
+     * Keep text[start, end) in the configuration's raw lines according to the retention policy
+     */
+    private void retainRawLine(ParseState state, CharSequence text, int start, int end) {
+        if (rawLineRetention == RawLineRetention.FULL) {
+            state.config.addRawLine(text.subSequence(start, end).toString());
+        } else if (rawLineRetention == RawLineRetention.INDEX) {
+            state.rawLineIndex.add(start, end);
+        }
+    }
+
+    private ParseState newParseState() {
+        ParseState state = new ParseState();
+        state.retainRawLines = true;
+        if (rawLineRetention == RawLineRetention.INDEX) {
+            state.rawLineIndex = new RawLineIndex();
+            state.config.setRawLines(state.rawLineIndex);
+        }
+        if (pool != null) {
+            state.stanzaBatcher = new StanzaBatcher();
+        }
+        return state;
+    }
+
+    private static ParseState newEventParseState(ConfigEventHandler handler) {
+        ParseState state = new ParseState(new EventConfig(handler));
+        state.events = handler;
+        return state;
+    }
+
+    private static void finishEvents(ParseState state) {
+        endStanza(state);
+        state.events.onEnd();
+    }
+
+    /**
+     * Event mode: the current stanza is over, because another one starts or the input ended
+     */
+    private static void endStanza(ParseState state) {
+        if (state.events != null) {
+            ((EventConfig) state.config).endStanza();
+        }
+    }
+
+    private CiscoConfig finishParse(ParseState state) {
+        if (state.stanzaBatcher != null) {
+            state.stanzaBatcher.mergeInto(state.config);
         }
+        return state.config;
+    }
+
+    /**
+     * Position of the first '\n' or '\r' at or after the given index, or -1
+     */
+    private static int indexOfLineTerminator(CharSequence text, int from) {
+        if (text instanceof String string) {
+            int newline = string.indexOf('\n', from);
+            int carriageReturn = string.indexOf('\r', from, newline < 0 ? string.length() : newline);
+            return carriageReturn >= 0 ? carriageReturn : newline;
+        }
+        return ((ByteText) text).indexOfLineTerminator(from);
     }
     
     /**
      * Main parsing logic
      */
     private CiscoConfig parse(BufferedReader reader) throws IOException {
-        CiscoConfig config = new CiscoConfig();
+        ParseState state = newParseState();
         String line;
-        String currentContext = null;
-        InterfaceConfig currentInterface = null;
-        VlanConfig currentVlan = null;
-        List<InterfaceConfig> currentInterfaceRange = null;
 
         while ((line = reader.readLine()) != null) {
-            config.addRawLine(line);
-            String trimmedLine = line.trim();
-
-            // Skip empty lines and comments
-            if (trimmedLine.isEmpty() || trimmedLine.startsWith("!")) {
-                continue;
+            if (rawLineRetention == RawLineRetention.FULL) {
+                state.config.addRawLine(line);
             }
+            parseLine(state, line, 0, line.length());
+        }
+        
+        return state.config;
+    }
 
-            // Check for hostname
-            Matcher hostnameMatcher = HOSTNAME_PATTERN.matcher(trimmedLine);
-            if (hostnameMatcher.matches()) {
-                config.setHostname(hostnameMatcher.group(1));
-                continue;
+    /**
+     * Parallel mode: gathers whole stanzas into batches while the input is scanned and
+     * submits each batch to the pool as soon as it is complete.
+     */
+    private final class StanzaBatcher {
+        private final List<ForkJoinTask<ParseState>> results = new ArrayList<>();
+        private List<Segment> segments = new ArrayList<>(2);
+        private CharSequence segmentText;
+        private int segmentStart;
+        private int segmentEnd;
+        private int lines;
+
+        /**
+         * Add the line text[start, end), whose terminator ends at next, to the current batch
+         */
+        void addLine(ConfigLine line, CharSequence text, int start, int end, int next) {
+            // Close the batch once it is big enough and the next stanza begins
+            if (lines >= STANZA_BATCH_LINES && line.reset(text, start, end) && startsStanza(line)) {
+                submit();
             }
-
-            // Check for interface range configuration
-            Matcher interfaceRangeMatcher = INTERFACE_RANGE_PATTERN.matcher(trimmedLine);
-            if (interfaceRangeMatcher.matches()) {
-                String rangeSpec = interfaceRangeMatcher.group(1);
-                currentInterfaceRange = expandInterfaceRange(rangeSpec, config);
-                currentContext = "interface-range";
-                currentInterface = null;
-                currentVlan = null;
-                continue;
+            // A batch that continues into the next mapped window gets a second segment
+            if (text != segmentText) {
+                closeSegment();
+                segmentText = text;
+                segmentStart = start;
             }
+            segmentEnd = next;
+            lines++;
+        }
 
-            // Check for interface configuration
-            Matcher interfaceMatcher = INTERFACE_PATTERN.matcher(trimmedLine);
-            if (interfaceMatcher.matches()) {
-                String interfaceName = interfaceMatcher.group(1);
-                currentInterface = new InterfaceConfig(interfaceName);
-                config.addInterface(interfaceName, currentInterface);
-                currentContext = "interface";
-                currentInterfaceRange = null;
-                currentVlan = null;
-                continue;
+        /**
+         * Wait for every batch and merge the results into config in input order
+         */
+        void mergeInto(CiscoConfig config) {
+            submit();
+            for (int i = 0; i < results.size(); i++) {
+                merge(results.get(i).join().config, config);
             }
+        }
 
-            // Check for VLAN range configuration
-            Matcher vlanRangeMatcher = VLAN_RANGE_PATTERN.matcher(trimmedLine);
-            if (vlanRangeMatcher.matches()) {
-                String rangeSpec = vlanRangeMatcher.group(1);
-                expandVlanRange(rangeSpec, config);
-                currentContext = null;
-                currentInterface = null;
-                currentInterfaceRange = null;
-                currentVlan = null;
-                continue;
+        private void submit() {
+            closeSegment();
+            if (segments.isEmpty()) {
+                return;
             }
+            List<Segment> batch = segments;
+            results.add(pool.submit(() -> parseBatch(batch)));
+            segments = new ArrayList<>(2);
+            lines = 0;
+        }
 
-            // Check for VLAN configuration
-            Matcher vlanMatcher = VLAN_PATTERN.matcher(trimmedLine);
-            if (vlanMatcher.matches()) {
-                int vlanId = Integer.parseInt(vlanMatcher.group(1));
-                currentVlan = new VlanConfig(vlanId);
-                config.addVlan(vlanId, currentVlan);
-                currentContext = "vlan";
-                currentInterface = null;
-                currentInterfaceRange = null;
-                continue;
+        private void closeSegment() {
+            if (segmentText != null && segmentEnd > segmentStart) {
+                segments.add(new Segment(segmentText, segmentStart, segmentEnd));
             }
-            
-            // Check for static route
-            Matcher routeMatcher = STATIC_ROUTE_PATTERN.matcher(trimmedLine);
-            if (routeMatcher.matches()) {
-                String network = routeMatcher.group(1);
-                String netmask = routeMatcher.group(2);
-                String nextHop = routeMatcher.group(3);
-                config.addStaticRoute(new RouteConfig(network, netmask, nextHop));
-                continue;
+            segmentText = null;
+        }
+    }
+
+    /**
+     * Parse one batch of stanzas on its own, into a configuration of its own
+     */
+    private ParseState parseBatch(List<Segment> batch) {
+        ParseState state = new ParseState();
+        for (Segment segment : batch) {
+            // Mapped text decodes through a scratch buffer, so each thread needs its own view
+            CharSequence text = segment.text() instanceof ByteText byteText ? byteText.duplicate() : segment.text();
+            parseLines(state, text, segment.start(), segment.end(), true);
+        }
+        return state;
+    }
+
+    /**
+     * Apply a batch's results on top of the configuration parsed so far
+     */
+    private static void merge(CiscoConfig from, CiscoConfig into) {
+        if (from.getHostname() != null) {
+            into.setHostname(from.getHostname());
+        }
+        into.getInterfaces().putAll(from.getInterfaces());
+        into.getVlans().putAll(from.getVlans());
+        into.getStaticRoutes().addAll(from.getStaticRoutes());
+
+        RoutingConfig routing = from.getRoutingConfig();
+        if (routing.getOspf().getProcessId() != null) {
+            into.getRoutingConfig().getOspf().setProcessId(routing.getOspf().getProcessId());
+        }
+        if (routing.getBgp().getAsNumber() != null) {
+            into.getRoutingConfig().getBgp().setAsNumber(routing.getBgp().getAsNumber());
+        }
+    }
+
+    /**
+     * Parse a single line. The first word is looked up once in the top-level keyword
+     * table; anything that is not a top-level command belongs to the current context.
+     */
+    private void parseLine(ParseState state, CharSequence text, int start, int end) {
+        ConfigLine line = state.line;
+
+        // Skip empty lines and comments
+        if (!line.reset(text, start, end) || line.charAt(0) == '!') {
+            return;
+        }
+
+        CommandHandler handler = TOP_LEVEL_COMMANDS.get(line, 0, line.wordEnd());
+        if (handler != null && handler.handle(this, state, line)) {
+            return;
+        }
+
+        // Parse context-specific commands
+        if (state.context == Context.INTERFACE) {
+            parseInterfaceCommand(line, state.currentInterface);
+            if (state.events != null) {
+                state.events.onInterfaceCommand(state.currentInterface, line.toString());
             }
-            
-            // Parse context-specific commands
-            if (currentContext != null) {
-                if (currentContext.equals("interface") && currentInterface != null) {
-                    parseInterfaceCommand(trimmedLine, currentInterface);
-                } else if (currentContext.equals("interface-range") && currentInterfaceRange != null) {
-                    // Apply command to all interfaces in range
-                    for (InterfaceConfig iface : currentInterfaceRange) {
-                        parseInterfaceCommand(trimmedLine, iface);
-                    }
-                } else if (currentContext.equals("vlan") && currentVlan != null) {
-                    parseVlanCommand(trimmedLine, currentVlan);
-                }
+        }
+
+        // Parse routing protocols
+        if (line.wordEnd() == 6) {
+            parseRoutingProtocol(state, line);
+        }
+    }
+
+    /**
+     * hostname NAME
+     */
+    private boolean parseHostname(ParseState state, ConfigLine line) {
+        if (line.wordEnd() == line.length()) {
+            return false;
+        }
+        state.config.setHostname(line.substring(line.skipSpaces(line.wordEnd())));
+        return true;
+    }
+
+    /**
+     * interface NAME, or interface range SPEC
+     */
+    private boolean parseInterfaceStart(ParseState state, ConfigLine line) {
+        if (line.wordEnd() == line.length()) {
+            return false;
+        }
+        int nameStart = line.skipSpaces(line.wordEnd());
+        endStanza(state);
+
+        // Check for interface range configuration
+        if (line.wordEnd(nameStart) == nameStart + 5 && nameStart + 5 < line.length()
+                && line.regionMatchesIgnoreCase(nameStart, "range")) {
+            // Commands are applied once, to the template shared by all range members
+            String rangeSpec = line.substring(line.skipSpaces(nameStart + 5));
+            state.currentInterface = expandInterfaceRange(rangeSpec, state.config);
+            state.context = Context.INTERFACE;
+            return true;
+        }
+
+        // A stanza for an interface configured before, alone or in a range, starts afresh
+        String interfaceName = line.substring(nameStart);
+        state.currentInterface = new InterfaceConfig(interfaceName);
+        state.config.addInterface(interfaceName, state.currentInterface);
+        state.context = Context.INTERFACE;
+        return true;
+    }
+
+    /**
+     * vlan ID or vlan ID-LIST (e.g. "vlan 10" or "vlan 10,20,30-35")
+     */
+    private boolean parseVlanStart(ParseState state, ConfigLine line) {
+        if (!isVlanStart(line)) {
+            return false;
+        }
+        int listStart = line.skipSpaces(line.wordEnd());
+        endStanza(state);
+        expandVlanRange(line.substring(listStart), state.config);
+        state.context = Context.NONE;
+        state.currentInterface = null;
+        return true;
+    }
+
+    /**
+     * True if a line whose first word is "vlan" is followed by a VLAN ID list
+     */
+    private static boolean isVlanStart(ConfigLine line) {
+        if (line.wordEnd() == line.length()) {
+            return false;
+        }
+        for (int i = line.skipSpaces(line.wordEnd()); i < line.length(); i++) {
+            char c = line.charAt(i);
+            if ((c < '0' || c > '9') && c != ',' && c != '-') {
+                return false;
             }
-            
-            // Parse routing protocols
-            parseRoutingProtocol(trimmedLine, config);
         }
-        
-        return config;
+        return true;
+    }
+
+    /**
+     * True if the line starts a stanza, i.e. resets the parsing context no matter what came
+     * before it. Only these lines are safe places to split the input in parallel mode.
+     */
+    private static boolean startsStanza(ConfigLine line) {
+        int wordEnd = line.wordEnd();
+        if (wordEnd == 9 && line.regionMatchesIgnoreCase(0, "interface")) {
+            return wordEnd < line.length();
+        }
+        return wordEnd == 4 && line.regionMatchesIgnoreCase(0, "vlan") && isVlanStart(line);
+    }
+
+    /**
+     * ip route NETWORK MASK NEXT-HOP [...]
+     */
+    private boolean parseStaticRoute(ParseState state, ConfigLine line) {
+        if (!line.regionMatchesIgnoreCase(0, "ip route") || line.length() == 8 || !line.isSpace(8)) {
+            return false;
+        }
+        int networkStart = line.skipSpaces(8);
+        int networkEnd = line.wordEnd(networkStart);
+        int netmaskStart = line.skipSpaces(networkEnd);
+        int netmaskEnd = line.wordEnd(netmaskStart);
+        int nextHopStart = line.skipSpaces(netmaskEnd);
+        int nextHopEnd = line.wordEnd(nextHopStart);
+        if (netmaskStart == networkEnd || nextHopStart == netmaskEnd || nextHopEnd == nextHopStart) {
+            return false;
+        }
+        state.config.addStaticRoute(new RouteConfig(
+            line.substring(networkStart, networkEnd),
+            line.substring(netmaskStart, netmaskEnd),
+            line.substring(nextHopStart, nextHopEnd)));
+        return true;
     }
     
     /**
      * Parse interface-specific commands
      */
-    private void parseInterfaceCommand(String line, InterfaceConfig interfaceConfig) {
-        // IP address
-        Matcher ipMatcher = IP_ADDRESS_PATTERN.matcher(line);
-        if (ipMatcher.matches()) {
-            interfaceConfig.setIpAddress(ipMatcher.group(1));
-            interfaceConfig.setSubnetMask(ipMatcher.group(2));
+    private void parseInterfaceCommand(ConfigLine line, InterfaceConfig interfaceConfig) {
+        InterfaceCommandHandler handler = INTERFACE_COMMANDS.get(line, 0, line.wordEnd());
+        if (handler != null && handler.handle(this, line, interfaceConfig)) {
             return;
         }
-        
-        // Description
-        if (line.startsWith("description ")) {
-            interfaceConfig.setDescription(line.substring(12).trim());
-            return;
+
+        // Store other commands for reference
+        interfaceConfig.addAdditionalCommand(line.toString());
+    }
+
+    /**
+     * ip address ADDRESS MASK [...]
+     */
+    private boolean parseInterfaceIpAddress(ConfigLine line, InterfaceConfig interfaceConfig) {
+        if (!line.regionMatchesIgnoreCase(0, "ip address") || line.length() == 10 || !line.isSpace(10)) {
+            return false;
         }
-        
-        // Shutdown
-        if (line.equals("shutdown")) {
-            interfaceConfig.setEnabled(false);
-            return;
+        int addressStart = line.skipSpaces(10);
+        int addressEnd = line.wordEnd(addressStart);
+        int maskStart = line.skipSpaces(addressEnd);
+        int maskEnd = line.wordEnd(maskStart);
+        if (maskStart == addressEnd || maskEnd == maskStart) {
+            return false;
         }
-        
-        if (line.equals("no shutdown")) {
-            interfaceConfig.setEnabled(true);
-            return;
+        interfaceConfig.setIpAddress(line.substring(addressStart, addressEnd));
+        interfaceConfig.setSubnetMask(line.substring(maskStart, maskEnd));
+        return true;
+    }
+
+    /**
+     * description TEXT
+     */
+    private boolean parseInterfaceDescription(ConfigLine line, InterfaceConfig interfaceConfig) {
+        if (!line.startsWith("description ")) {
+            return false;
         }
-        
-        // MTU
-        if (line.startsWith("mtu ")) {
-            try {
-                interfaceConfig.setMtu(Integer.parseInt(line.substring(4).trim()));
-            } catch (NumberFormatException e) {
-                // Ignore invalid MTU
-            }
-            return;
+        interfaceConfig.setDescription(line.trimmedSubstring(12));
+        return true;
+    }
+
+    /**
+     * shutdown
+     */
+    private boolean parseInterfaceShutdown(ConfigLine line, InterfaceConfig interfaceConfig) {
+        if (!line.contentEquals("shutdown")) {
+            return false;
         }
-        
+        interfaceConfig.setEnabled(false);
+        return true;
+    }
+
+    /**
+     * no shutdown
+     */
+    private boolean parseInterfaceNoShutdown(ConfigLine line, InterfaceConfig interfaceConfig) {
+        if (!line.contentEquals("no shutdown")) {
+            return false;
+        }
+        interfaceConfig.setEnabled(true);
+        return true;
+    }
+
+    /**
+     * mtu BYTES
+     */
+    private boolean parseInterfaceMtu(ConfigLine line, InterfaceConfig interfaceConfig) {
+        if (!line.startsWith("mtu ")) {
+            return false;
+        }
+        try {
+            interfaceConfig.setMtu(line.parseInt(4));
+        } catch (NumberFormatException e) {
+            // Ignore invalid MTU
+        }
+        return true;
+    }
+
+    /**
+     * switchport mode / access vlan / trunk allowed vlan
+     */
+    private boolean parseInterfaceSwitchport(ConfigLine line, InterfaceConfig interfaceConfig) {
         // Switchport mode
         if (line.startsWith("switchport mode ")) {
-            String mode = line.substring(16).trim();
-            interfaceConfig.setMode(mode);
-            return;
+            interfaceConfig.setMode(line.trimmedSubstring(16));
+            return true;
         }
-        
+
         // Switchport access VLAN
         if (line.startsWith("switchport access vlan ")) {
             try {
-                interfaceConfig.setAccessVlan(Integer.parseInt(line.substring(23).trim()));
+                interfaceConfig.setAccessVlan(line.parseInt(23));
             } catch (NumberFormatException e) {
                 // Ignore invalid VLAN
             }
-            return;
+            return true;
         }
 
         // Switchport trunk allowed VLANs
         if (line.startsWith("switchport trunk allowed vlan ")) {
-            String vlanList = line.substring(30).trim();
-            parseVlanList(vlanList, interfaceConfig);
-            return;
+            interfaceConfig.detachFromTemplate();
+            parseAllowedVlans(line.trimmedSubstring(30), interfaceConfig.getAllowedVlans());
+            return true;
         }
 
-        // Channel-group (Port-Channel/LAG membership)
-        if (line.startsWith("channel-group ")) {
-            // Parse: "channel-group 1 mode active"
-            Pattern pattern = Pattern.compile("channel-group\\s+(\\d+)\\s+mode\\s+(\\S+)");
-            Matcher matcher = pattern.matcher(line);
-            if (matcher.find()) {
-                interfaceConfig.setChannelGroup(Integer.parseInt(matcher.group(1)));
-                interfaceConfig.setLacpMode(matcher.group(2));
-            }
-            return;
+        return false;
+    }
+
+    /**
+     * channel-group NUMBER mode MODE (Port-Channel/LAG membership)
+     */
+    private boolean parseInterfaceChannelGroup(ConfigLine line, InterfaceConfig interfaceConfig) {
+        if (!line.startsWith("channel-group ")) {
+            return false;
         }
+        Matcher matcher = CHANNEL_GROUP_PATTERN.matcher(line.toString());
+        if (matcher.find()) {
+            interfaceConfig.setChannelGroup(Integer.parseInt(matcher.group(1)));
+            interfaceConfig.setLacpMode(matcher.group(2));
+        }
+        return true;
+    }
 
-        // Store other commands for reference
-        interfaceConfig.addAdditionalCommand(line);
+    /**
+     * Apply a trunk allowed-VLAN specification:
+     *   "10,20,30-35"        -> replace the list
+     *   "add 40" / "remove 20" -> modify the list
+     *   "except 100-200"     -> all VLANs but those listed
+     *   "all" / "none"
+     */
+    private void parseAllowedVlans(String spec, VlanSet allowedVlans) {
+        int space = spec.indexOf(' ');
+        String keyword = space < 0 ? spec : spec.substring(0, space);
+        String vlanList = space < 0 ? "" : spec.substring(space + 1).trim();
+
+        switch (keyword) {
+            case "all" -> allowedVlans.setTo(VlanSet.allUsable());
+            case "none" -> allowedVlans.clear();
+            case "add" -> allowedVlans.addAll(parseVlanList(vlanList));
+            case "remove" -> allowedVlans.removeAll(parseVlanList(vlanList));
+            case "except" -> {
+                VlanSet allowed = VlanSet.allUsable();
+                allowed.removeAll(parseVlanList(vlanList));
+                allowedVlans.setTo(allowed);
+            }
+            default -> allowedVlans.setTo(parseVlanList(spec));
+        }
     }
 
     /**
      * Parse VLAN list (e.g., "10,20,30,40,50" or "10-15,20,30-35")
      */
-    private void parseVlanList(String vlanList, InterfaceConfig interfaceConfig) {
+    private VlanSet parseVlanList(String vlanList) {
+        VlanSet vlans = new VlanSet();
+
         // Split by comma
         String[] parts = vlanList.split(",");
 
         for (String part : parts) {
             part = part.trim();
 
-            // Check if it's a range (e.g., "10-15")
-            if (part.contains("-")) {
-                String[] range = part.split("-");
-                try {
-                    int start = Integer.parseInt(range[0].trim());
-                    int end = Integer.parseInt(range[1].trim());
-                    for (int vlanId = start; vlanId <= end; vlanId++) {
-                        interfaceConfig.addAllowedVlan(vlanId);
+            try {
+                // Check if it's a range (e.g., "10-15")
+                int hyphen = part.indexOf('-');
+                if (hyphen >= 0) {
+                    int start = Math.max(Integer.parseInt(part.substring(0, hyphen).trim()), VlanSet.FIRST_USABLE_VLAN_ID);
+                    int end = Math.min(Integer.parseInt(part.substring(hyphen + 1).trim()), VlanSet.LAST_USABLE_VLAN_ID);
+                    if (start <= end) {
+                        vlans.addRange(start, end);
                     }
-                } catch (NumberFormatException e) {
-                    // Ignore invalid range
-                }
-            } else {
-                // Single VLAN ID
-                try {
+                } else {
+                    // Single VLAN ID
                     int vlanId = Integer.parseInt(part);
-                    interfaceConfig.addAllowedVlan(vlanId);
-                } catch (NumberFormatException e) {
-                    // Ignore invalid VLAN
+                    if (vlanId >= VlanSet.FIRST_USABLE_VLAN_ID && vlanId <= VlanSet.LAST_USABLE_VLAN_ID) {
+                        vlans.add(vlanId);
+                    }
                 }
+            } catch (NumberFormatException e) {
+                // Ignore invalid VLAN or range
             }
         }
-    }
-
-    /**
-     * Parse VLAN-specific commands
-     */
-    private void parseVlanCommand(String line, VlanConfig vlanConfig) {
-        // VLAN name
-        if (line.startsWith("name ")) {
-            vlanConfig.setName(line.substring(5).trim());
-            return;
-        }
 
-        // VLAN state
-        if (line.equals("shutdown")) {
-            vlanConfig.setEnabled(false);
-            return;
-        }
-
-        if (line.equals("no shutdown")) {
-            vlanConfig.setEnabled(true);
-            return;
-        }
+        return vlans;
     }
 
     /**
      * Parse routing protocol configurations
      */
-    private void parseRoutingProtocol(String line, CiscoConfig config) {
+    private void parseRoutingProtocol(ParseState state, ConfigLine line) {
+        CiscoConfig config = state.config;
+
         // OSPF configuration
         if (line.startsWith("router ospf ")) {
             try {
-                int processId = Integer.parseInt(line.substring(12).trim());
+                int processId = line.parseInt(12);
                 config.getRoutingConfig().getOspf().setProcessId(processId);
+                if (state.events != null) {
+                    state.events.onRouterBlock("ospf", processId);
+                }
             } catch (NumberFormatException e) {
                 // Ignore invalid process ID
             }
@@ -293,8 +827,11 @@ public class CiscoConfigParser {
         // BGP configuration
         if (line.startsWith("router bgp ")) {
             try {
-                int asNumber = Integer.parseInt(line.substring(11).trim());
+                int asNumber = line.parseInt(11);
                 config.getRoutingConfig().getBgp().setAsNumber(asNumber);
+                if (state.events != null) {
+                    state.events.onRouterBlock("bgp", asNumber);
+                }
             } catch (NumberFormatException e) {
                 // Ignore invalid AS number
             }
@@ -307,9 +844,10 @@ public class CiscoConfigParser {
      * Examples:
      *   "GigabitEthernet0/1-10" -> Gi0/1, Gi0/2, ..., Gi0/10
      *   "GigabitEthernet0/1-5, GigabitEthernet0/10-15" -> Multiple ranges
+     * Returns the template that all members of the range share.
      */
-    private List<InterfaceConfig> expandInterfaceRange(String rangeSpec, CiscoConfig config) {
-        List<InterfaceConfig> interfaces = new ArrayList<>();
+    private InterfaceConfig expandInterfaceRange(String rangeSpec, CiscoConfig config) {
+        InterfaceConfig template = new InterfaceConfig(rangeSpec);
 
         // Split by comma for multiple ranges
         String[] ranges = rangeSpec.split(",");
@@ -321,8 +859,7 @@ public class CiscoConfigParser {
             if (range.contains("-")) {
                 // Extract interface type and range
                 // Example: "GigabitEthernet0/1-10"
-                Pattern rangePattern = Pattern.compile("^([A-Za-z-]+)(\\d+)/(\\d+)-(\\d+)$");
-                Matcher matcher = rangePattern.matcher(range);
+                Matcher matcher = INTERFACE_RANGE_MODULE_PATTERN.matcher(range);
 
                 if (matcher.matches()) {
                     String interfaceType = matcher.group(1);  // "GigabitEthernet"
@@ -333,14 +870,11 @@ public class CiscoConfigParser {
                     // Create interface for each port in range
                     for (int port = startPort; port <= endPort; port++) {
                         String interfaceName = interfaceType + module + "/" + port;
-                        InterfaceConfig iface = new InterfaceConfig(interfaceName);
-                        config.addInterface(interfaceName, iface);
-                        interfaces.add(iface);
+                        config.addInterface(interfaceName, new InterfaceConfig(interfaceName, template));
                     }
                 } else {
                     // Try simpler pattern without module: "Ethernet1-10"
-                    Pattern simplePattern = Pattern.compile("^([A-Za-z-]+)(\\d+)-(\\d+)$");
-                    Matcher simpleMatcher = simplePattern.matcher(range);
+                    Matcher simpleMatcher = INTERFACE_RANGE_SIMPLE_PATTERN.matcher(range);
 
                     if (simpleMatcher.matches()) {
                         String interfaceType = simpleMatcher.group(1);  // "Ethernet"
@@ -349,21 +883,17 @@ public class CiscoConfigParser {
 
                         for (int port = startPort; port <= endPort; port++) {
                             String interfaceName = interfaceType + port;
-                            InterfaceConfig iface = new InterfaceConfig(interfaceName);
-                            config.addInterface(interfaceName, iface);
-                            interfaces.add(iface);
+                            config.addInterface(interfaceName, new InterfaceConfig(interfaceName, template));
                         }
                     }
                 }
             } else {
                 // Single interface (no range)
-                InterfaceConfig iface = new InterfaceConfig(range);
-                config.addInterface(range, iface);
-                interfaces.add(iface);
+                config.addInterface(range, new InterfaceConfig(range, template));
             }
         }
 
-        return interfaces;
+        return template;
     }
 
     /**
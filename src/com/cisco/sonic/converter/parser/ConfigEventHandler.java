@@ -0,0 +1,60 @@
+package com.cisco.sonic.converter.parser;
+
+import com.cisco.sonic.converter.model.*;
+
+/**
+ * Callbacks driven by {@link CiscoConfigParser} while it reads a configuration, for
+ * consumers that process elements as they are parsed instead of building a CiscoConfig.
+ *
+ * Every method has an empty default, so implementations only override what they need.
+ * An interface can be reported more than once (a repeated stanza, or a range member that
+ * is configured again on its own); as with the object model, the last report wins.
+ */
+public interface ConfigEventHandler {
+
+    /**
+     * hostname NAME
+     */
+    default void onHostname(String hostname) {
+    }
+
+    /**
+     * An interface stanza begins. For "interface range" this is called once per member.
+     */
+    default void onInterfaceStart(InterfaceConfig interfaceConfig) {
+    }
+
+    /**
+     * A command inside the current interface stanza, after it has been applied.
+     * For "interface range" the interface is the template shared by all members.
+     */
+    default void onInterfaceCommand(InterfaceConfig interfaceConfig, String command) {
+    }
+
+    /**
+     * The stanza that started the interface has ended; its settings are now complete
+     */
+    default void onInterfaceEnd(InterfaceConfig interfaceConfig) {
+    }
+
+    /**
+     * A VLAN was declared; "vlan 10-20" reports each VLAN in the range
+     */
+    default void onVlan(VlanConfig vlan) {
+    }
+
+    default void onStaticRoute(RouteConfig route) {
+    }
+
+    /**
+     * router ospf PROCESS-ID or router bgp AS-NUMBER
+     */
+    default void onRouterBlock(String protocol, int id) {
+    }
+
+    /**
+     * The whole input has been read
+     */
+    default void onEnd() {
+    }
+}
@@ -0,0 +1,149 @@
+package com.cisco.sonic.converter.parser;
+
+/**
+ * Reusable cursor over one trimmed configuration line.
+ *
+ * Positions are relative to the trimmed text, so handlers read like they operate on
+ * {@code line.trim()} while the underlying characters are never copied. Strings are
+ * only created for the fields a handler decides to keep.
+ */
+final class ConfigLine implements CharSequence {
+    private CharSequence text;
+    private int offset;
+    private int length;
+    private int wordEnd;
+
+    /**
+     * Point the cursor at text[start, end), trimmed like {@link String#trim()}.
+     * Returns false if nothing is left after trimming.
+     */
+    boolean reset(CharSequence text, int start, int end) {
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        this.text = text;
+        this.offset = start;
+        this.length = end - start;
+        this.wordEnd = wordEnd(0);
+        return length > 0;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return text.charAt(offset + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int from, int to) {
+        return text.subSequence(offset + from, offset + to);
+    }
+
+    /**
+     * End of the first word (the command keyword)
+     */
+    int wordEnd() {
+        return wordEnd;
+    }
+
+    /**
+     * End of the word starting at the given position
+     */
+    int wordEnd(int from) {
+        while (from < length && !isSpace(from)) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * First non-whitespace position at or after the given position
+     */
+    int skipSpaces(int from) {
+        while (from < length && isSpace(from)) {
+            from++;
+        }
+        return from;
+    }
+
+    /**
+     * Whitespace as defined by the regex {@code \s} class
+     */
+    boolean isSpace(int index) {
+        char c = charAt(index);
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    boolean startsWith(String prefix) {
+        if (prefix.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (charAt(i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Case-insensitive (ASCII) comparison of the text at the given position
+     */
+    boolean regionMatchesIgnoreCase(int from, String word) {
+        if (from + word.length() > length) {
+            return false;
+        }
+        for (int i = 0; i < word.length(); i++) {
+            if (KeywordTable.toLowerAscii(charAt(from + i)) != KeywordTable.toLowerAscii(word.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean contentEquals(String value) {
+        return value.length() == length && startsWith(value);
+    }
+
+    String substring(int from) {
+        return substring(from, length);
+    }
+
+    String substring(int from, int to) {
+        return text.subSequence(offset + from, offset + to).toString();
+    }
+
+    /**
+     * Equivalent of {@code substring(from).trim()}
+     */
+    String trimmedSubstring(int from) {
+        int to = length;
+        while (from < to && charAt(from) <= ' ') {
+            from++;
+        }
+        return substring(from, to);
+    }
+
+    /**
+     * Equivalent of {@code Integer.parseInt(substring(from).trim())}
+     */
+    int parseInt(int from) {
+        int to = length;
+        while (from < to && charAt(from) <= ' ') {
+            from++;
+        }
+        return Integer.parseInt(text, offset + from, offset + to, 10);
+    }
+
+    @Override
+    public String toString() {
+        return substring(0, length);
+    }
+}
@@ -0,0 +1,81 @@
+package com.cisco.sonic.converter.parser;
+
+import java.util.*;
+
+/**
+ * Precompiled, case-insensitive lookup table from a command keyword to its handler.
+ *
+ * Lookups take a region of a {@link CharSequence} so the first word of a line can be
+ * dispatched without being copied into a String. Keywords are matched using ASCII case
+ * folding only, which is what the IOS CLI (and the CASE_INSENSITIVE patterns this table
+ * replaces) accept.
+ */
+final class KeywordTable<H> {
+    private final String[] keywords;
+    private final Object[] handlers;
+    private final int mask;
+
+    private KeywordTable(Map<String, H> entries) {
+        int capacity = Integer.highestOneBit(Math.max(4, entries.size() * 4) - 1) << 1;
+        this.keywords = new String[capacity];
+        this.handlers = new Object[capacity];
+        this.mask = capacity - 1;
+
+        for (Map.Entry<String, H> entry : entries.entrySet()) {
+            String keyword = entry.getKey().toLowerCase(Locale.ROOT);
+            int slot = hash(keyword, 0, keyword.length()) & mask;
+            while (keywords[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            keywords[slot] = keyword;
+            handlers[slot] = entry.getValue();
+        }
+    }
+
+    /**
+     * Build a table from keyword/handler pairs
+     */
+    static <H> KeywordTable<H> of(Map<String, H> entries) {
+        return new KeywordTable<>(entries);
+    }
+
+    /**
+     * Find the handler registered for text[start, end), or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    H get(CharSequence text, int start, int end) {
+        int slot = hash(text, start, end) & mask;
+        String keyword;
+        while ((keyword = keywords[slot]) != null) {
+            if (matches(keyword, text, start, end)) {
+                return (H) handlers[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return null;
+    }
+
+    private static boolean matches(String keyword, CharSequence text, int start, int end) {
+        if (keyword.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < keyword.length(); i++) {
+            if (keyword.charAt(i) != toLowerAscii(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(CharSequence text, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + toLowerAscii(text.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+
+    static char toLowerAscii(char c) {
+        return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+    }
+}
@@ -0,0 +1,62 @@
+package com.cisco.sonic.converter.parser;
+
+import java.util.*;
+
+/**
+ * Raw configuration lines stored as offsets into the parsed input (the original String,
+ * or the windows of a memory-mapped file) and only turned into Strings when read.
+ *
+ * Each line costs two ints instead of a String copy. The index keeps its sources
+ * reachable, so a mapped file stays mapped for as long as the index is in use.
+ */
+final class RawLineIndex extends AbstractList<String> {
+    private final List<CharSequence> sources = new ArrayList<>();
+    private int[] sourceFirstLine = new int[4];
+    private CharSequence pendingSource;
+    private int[] starts = new int[1024];
+    private int[] ends = new int[1024];
+    private int size;
+
+    /**
+     * Offsets passed to {@link #add(int, int)} from now on refer to this source
+     */
+    void beginSource(CharSequence source) {
+        this.pendingSource = source;
+    }
+
+    /**
+     * Record the line at source[start, end)
+     */
+    void add(int start, int end) {
+        if (pendingSource != null) {
+            if (sources.size() == sourceFirstLine.length) {
+                sourceFirstLine = Arrays.copyOf(sourceFirstLine, sourceFirstLine.length * 2);
+            }
+            sourceFirstLine[sources.size()] = size;
+            sources.add(pendingSource);
+            pendingSource = null;
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+    }
+
+    @Override
+    public synchronized String get(int index) {
+        Objects.checkIndex(index, size);
+        int source = Arrays.binarySearch(sourceFirstLine, 0, sources.size(), index);
+        if (source < 0) {
+            source = -source - 2;
+        }
+        return sources.get(source).subSequence(starts[index], ends[index]).toString();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
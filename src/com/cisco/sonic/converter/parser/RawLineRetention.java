@@ -0,0 +1,18 @@
+package com.cisco.sonic.converter.parser;
+
+/**
+ * How much of the original input a parsed CiscoConfig keeps in {@code getRawLines()}
+ */
+public enum RawLineRetention {
+    /** Raw lines are not kept; getRawLines() is empty */
+    NONE,
+
+    /**
+     * Only line offsets into the original text or memory-mapped file are kept, and each
+     * line is materialized when it is read
+     */
+    INDEX,
+
+    /** Every line is copied into the configuration as a String */
+    FULL
+}
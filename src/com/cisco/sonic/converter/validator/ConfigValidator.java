@@ -6,23 +6,19 @@ import java.util.*;
 
 /**
  * Validates Cisco and SONiC configurations for common issues
+ * Keeps no state between calls, so one instance can be shared between threads
  */
 public class ConfigValidator {
     
-    private List<String> errors;
-    private List<String> warnings;
-    
     public ConfigValidator() {
-        this.errors = new ArrayList<>();
-        this.warnings = new ArrayList<>();
     }
     
     /**
      * Validate Cisco configuration
      */
     public ValidationResult validateCiscoConfig(CiscoConfig config) {
-        errors.clear();
-        warnings.clear();
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
         
         // Validate hostname
         if (config.getHostname() == null || config.getHostname().isEmpty()) {
@@ -31,17 +27,17 @@ public class ConfigValidator {
         
         // Validate interfaces
         for (Map.Entry<String, InterfaceConfig> entry : config.getInterfaces().entrySet()) {
-            validateInterface(entry.getKey(), entry.getValue());
+            validateInterface(entry.getKey(), entry.getValue(), errors, warnings);
         }
         
         // Validate VLANs
         for (Map.Entry<Integer, VlanConfig> entry : config.getVlans().entrySet()) {
-            validateVlan(entry.getKey(), entry.getValue());
+            validateVlan(entry.getKey(), entry.getValue(), errors);
         }
         
         // Validate static routes
         for (RouteConfig route : config.getStaticRoutes()) {
-            validateRoute(route);
+            validateRoute(route, errors);
         }
         
         return new ValidationResult(errors, warnings);
@@ -50,7 +46,7 @@ public class ConfigValidator {
     /**
      * Validate interface configuration
      */
-    private void validateInterface(String name, InterfaceConfig config) {
+    private void validateInterface(String name, InterfaceConfig config, List<String> errors, List<String> warnings) {
         // Check for IP address without subnet mask
         if (config.getIpAddress() != null && config.getSubnetMask() == null) {
             errors.add("Interface " + name + " has IP address but no subnet mask");
@@ -75,7 +71,7 @@ public class ConfigValidator {
     /**
      * Validate VLAN configuration
      */
-    private void validateVlan(Integer vlanId, VlanConfig config) {
+    private void validateVlan(Integer vlanId, VlanConfig config, List<String> errors) {
         // Check VLAN ID range
         if (vlanId < 1 || vlanId > 4094) {
             errors.add("Invalid VLAN ID: " + vlanId + " (must be 1-4094)");
@@ -95,7 +91,7 @@ public class ConfigValidator {
     /**
      * Validate static route
      */
-    private void validateRoute(RouteConfig route) {
+    private void validateRoute(RouteConfig route, List<String> errors) {
         // Validate network address
         if (!NetworkUtils.isValidIpAddress(route.getNetwork())) {
             errors.add("Invalid network address in static route: " + route.getNetwork());
@@ -116,20 +112,20 @@ public class ConfigValidator {
      * Validate SONiC configuration
      */
     public ValidationResult validateSonicConfig(SonicConfig config) {
-        errors.clear();
-        warnings.clear();
+        List<String> errors = new ArrayList<>();
+        List<String> warnings = new ArrayList<>();
         
         // Check for empty configuration
-        if (config.getPorts().isEmpty() && config.getVlans().isEmpty() && 
-            config.getInterfaces().isEmpty()) {
+        if (config.getPortTable().isEmpty() && config.getVlanTable().isEmpty() && 
+            config.getInterfaceTable().isEmpty()) {
             warnings.add("Generated SONiC configuration appears to be empty");
         }
         
         // Validate VLAN members reference existing VLANs
-        Set<String> definedVlans = config.getVlans().keySet();
-        for (String memberKey : config.getVlanMembers().keySet()) {
-            String vlanName = memberKey.split("\\|")[0];
-            if (!definedVlans.contains(vlanName)) {
+        SonicTable<String> definedVlans = config.getVlanTable();
+        for (SonicKey.VlanMember memberKey : config.getVlanMemberTable().keys()) {
+            String vlanName = memberKey.vlanName();
+            if (!definedVlans.containsKey(vlanName)) {
                 errors.add("VLAN member references undefined VLAN: " + vlanName);
             }
         }
@@ -0,0 +1,45 @@
+import com.cisco.sonic.converter.BatchConverter;
+import com.cisco.sonic.converter.CiscoToSonicConverter;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+void main(String[] args) throws Exception {
+    System.out.println("=== Testing Batch Conversion ===\n");
+    Path dir = Files.createTempDirectory("batch");
+    Path inputs = Files.createDirectories(dir.resolve("inputs"));
+
+    // a.txt and b.txt share a hostname; a.txt comes first but takes much longer to convert
+    StringBuilder big = new StringBuilder("hostname leaf1\n!\n");
+    for (int i = 1; i <= 20000; i++) {
+        big.append("interface GigabitEthernet0/").append(i).append("\n description big\n!\n");
+    }
+    Files.writeString(inputs.resolve("a.txt"), big);
+    Files.writeString(inputs.resolve("b.txt"), "hostname leaf1\n!\ninterface GigabitEthernet0/1\n description small\n!\n");
+    Files.writeString(inputs.resolve("c.txt"), "hostname leaf2\n!\ninterface GigabitEthernet0/1\n description other\n!\n");
+
+    for (int run = 1; run <= 5; run++) {
+        Path outputDir = dir.resolve("out" + run);
+        BatchConverter batch = new BatchConverter(new CiscoToSonicConverter(), 4);
+        BatchConverter.BatchResult result = batch.convert(BatchConverter.findInputs(inputs.toString()), outputDir);
+        String leaf1 = Files.readString(outputDir.resolve("leaf1.json"));
+        check(result.getConverted() == 2 && result.getFailures().keySet().equals(Set.of(inputs.resolve("b.txt")))
+            && leaf1.contains("big") && !leaf1.contains("small"), "Run " + run + ": the first input keeps the hostname");
+        try (Stream<Path> files = Files.list(outputDir)) {
+            check(files.map(file -> file.getFileName().toString()).sorted().toList().equals(List.of("leaf1.json", "leaf2.json")),
+                "Run " + run + ": no temporary files left");
+        }
+    }
+
+    try (Stream<Path> files = Files.walk(dir)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+    }
+    System.out.println("\n=== Batch Conversion Test Complete ===");
+}
+
+void check(boolean ok, String message) {
+    System.out.println((ok ? "✓ " : "✗ ") + message);
+    if (!ok) {
+        System.exit(1);
+    }
+}
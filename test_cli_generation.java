@@ -49,7 +49,20 @@ void main(String[] args) throws Exception {
     if (lines.length > 30) {
         System.out.println("\n... (" + (lines.length - 30) + " more lines) ...");
     }
+
+    // Optimized script: VLAN ranges and batched interface commands
+    String optimizedCommands = new SonicCliGenerator(true).generateCommands(sonicConfig);
+    System.out.println("\n✓ Optimized script: " + countCommands(optimizedCommands) + " commands (was "
+        + countCommands(cliCommands) + ")");
+
+    // Parallel script: independent commands run concurrently between barriers
+    String parallelCommands = new SonicCliGenerator(true, 8).generateCommands(sonicConfig);
+    System.out.println("✓ Parallel script: " + parallelCommands.lines().filter(line -> line.startsWith("barrier ")).count()
+        + " stages, " + parallelCommands.lines().filter(line -> line.endsWith(" & track")).count() + " jobs");
     
     System.out.println("\n=== Test Complete ===");
 }
 
+long countCommands(String script) {
+    return script.lines().filter(line -> line.startsWith("sudo ")).count();
+}
@@ -0,0 +1,448 @@
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.output.ConfigDbClient;
+import com.cisco.sonic.converter.output.SonicRespWriter;
+import com.cisco.sonic.converter.model.SonicConfig;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+void main(String[] args) throws Exception {
+    System.out.println("=== Testing CONFIG_DB Apply ===\n");
+
+    // Convert the complex config
+    String configPath = args.length > 0 ? args[0] : "examples/complex_cisco_config.txt";
+    SonicConfig sonicConfig = new ConfigConverter().convert(new CiscoConfigParser().parseFile(configPath));
+    int expectedKeys = new SonicRespWriter().countCommands(sonicConfig);
+    System.out.println("✓ Converted " + configPath + ": " + expectedKeys + " CONFIG_DB keys");
+
+    try (RespStandInServer server = new RespStandInServer()) {
+        // Dry run: nothing may reach the server
+        ConfigDbClient client = new ConfigDbClient("localhost", server.getPort());
+        client.setBatchSize(16);
+        client.setMaxInFlight(3);
+        client.setRetryDelayMillis(10);
+        client.setDryRun(true);
+        ConfigDbClient.ApplyResult dryRun = client.apply(sonicConfig);
+        check(dryRun.getCommands() == expectedKeys && server.getCommandCount() == 0, "Dry run: " + dryRun);
+
+        // Pipelined apply
+        client.setDryRun(false);
+        ConfigDbClient.ApplyResult result = client.apply(sonicConfig);
+        Map<String, Map<String, String>> db = server.getDatabase(ConfigDbClient.CONFIG_DB);
+        check(db.size() == expectedKeys, result.toString());
+        for (Map.Entry<String, Integer> table : result.getTableCommands().entrySet()) {
+            System.out.println("  - " + table.getKey() + ": " + table.getValue());
+        }
+
+        // Failed transactions and a dropped connection are retried
+        server.getDatabase(ConfigDbClient.CONFIG_DB).clear();
+        server.failNextTransactions(2);
+        server.dropNextConnections(1);
+        ConfigDbClient.ApplyResult retried = client.apply(sonicConfig);
+        check(db.size() == expectedKeys && retried.getRetries() == 2 && retried.getReconnects() == 1,
+            "With injected failures: " + retried);
+
+        // Give up once the retries are used up
+        server.failNextTransactions(Integer.MAX_VALUE);
+        try {
+            client.apply(sonicConfig);
+            check(false, "Persistent failure was not reported");
+        } catch (IOException e) {
+            check(true, "Persistent failure reported: " + e.getMessage());
+        }
+
+        // A command that fails inside EXEC fails the batch, although EXEC itself succeeds
+        server.failNextTransactions(0);
+        db.clear();
+        String portKey = "PORT|" + sonicConfig.getPortTable().keys().iterator().next();
+        server.setString(ConfigDbClient.CONFIG_DB, portKey);
+        try {
+            client.apply(sonicConfig);
+            check(false, "WRONGTYPE inside EXEC was not reported");
+        } catch (IOException e) {
+            check(e.getMessage().contains("WRONGTYPE"), "Error inside EXEC reported: " + e.getMessage());
+        }
+    }
+
+    System.out.println("\n=== CONFIG_DB Apply Test Complete ===");
+}
+
+void check(boolean ok, String message) {
+    System.out.println((ok ? "✓ " : "✗ ") + message);
+    if (!ok) {
+        System.exit(1);
+    }
+}
+
+    /**
+     * Small in-process Redis stand-in for trying out CONFIG_DB loads without a switch
+     *
+     * Listens on a local port and understands the commands the converter sends, plus a few
+     * for inspecting the result: PING, SELECT, MULTI, EXEC, DISCARD, HSET, HGETALL, DEL,
+     * KEYS *, DBSIZE, FLUSHDB and QUIT. Data lives in memory only. Each connection is served
+     * on its own virtual thread; commands queued in a transaction are applied atomically.
+     *
+     * failNextTransactions() and dropNextConnections() inject failures, so retry handling can
+     * be exercised, and setString() stores a string key that HSET fails on with WRONGTYPE.
+     */
+    static class RespStandInServer implements Closeable {
+        private final ServerSocket serverSocket;
+        private final Map<Integer, Map<String, Map<String, String>>> databases = new ConcurrentHashMap<>();
+        private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+        private final AtomicInteger failTransactions = new AtomicInteger();
+        private final AtomicInteger dropConnections = new AtomicInteger();
+        private final AtomicInteger commandCount = new AtomicInteger();
+        private final Set<String> stringKeys = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Start on a free local port
+         */
+        public RespStandInServer() throws IOException {
+            this(0);
+        }
+
+        public RespStandInServer(int port) throws IOException {
+            this.serverSocket = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+            Thread.ofVirtual().name("resp-stand-in").start(this::acceptLoop);
+        }
+
+        public int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        /**
+         * Contents of a database: key to hash
+         */
+        public Map<String, Map<String, String>> getDatabase(int database) {
+            return databases.computeIfAbsent(database, db -> new ConcurrentHashMap<>());
+        }
+
+        /**
+         * Commands received so far, including those inside transactions
+         */
+        public int getCommandCount() {
+            return commandCount.get();
+        }
+
+        /**
+         * Store a string value at a key, so a later HSET on it fails with WRONGTYPE
+         */
+        public void setString(int database, String key) {
+            stringKeys.add(database + " " + key);
+        }
+
+        /**
+         * Make the next count EXEC commands fail with EXECABORT
+         */
+        public void failNextTransactions(int count) {
+            failTransactions.set(count);
+        }
+
+        /**
+         * Close the next count connections when their first EXEC arrives, before applying it
+         */
+        public void dropNextConnections(int count) {
+            dropConnections.set(count);
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+            connections.shutdownNow();
+        }
+
+        private void acceptLoop() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    connections.submit(() -> serve(socket));
+                } catch (IOException e) {
+                    // Server closed
+                }
+            }
+        }
+
+        private void serve(Socket socket) {
+            try (socket) {
+                InputStream input = new BufferedInputStream(socket.getInputStream());
+                OutputStream out = new BufferedOutputStream(socket.getOutputStream());
+                Session session = new Session();
+                while (true) {
+                    List<String> request = readRequest(input);
+                    if (request == null) {
+                        return;
+                    } else if (request.isEmpty()) {
+                        writeError(out, "ERR Protocol error");
+                    } else if (!session.handle(request, out)) {
+                        out.flush();
+                        return;
+                    }
+                    // Pipelined clients send many commands at once; flush when they are all read
+                    if (input.available() == 0) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException e) {
+                // Client disconnected
+            }
+        }
+
+        /**
+         * Per-connection state: selected database and queued transaction
+         */
+        private final class Session {
+            private int database;
+            private List<List<String>> queued;
+            private boolean queueError;
+            private boolean dropChecked;
+
+            /**
+             * Handle one command; false to close the connection
+             */
+            boolean handle(List<String> args, OutputStream out) throws IOException {
+                commandCount.incrementAndGet();
+                String name = args.get(0).toUpperCase(Locale.ROOT);
+
+                switch (name) {
+                    case "QUIT":
+                        writeSimple(out, "OK");
+                        return false;
+                    case "MULTI":
+                        if (queued != null) {
+                            writeError(out, "ERR MULTI calls can not be nested");
+                        } else {
+                            queued = new ArrayList<>();
+                            queueError = false;
+                            writeSimple(out, "OK");
+                        }
+                        return true;
+                    case "DISCARD":
+                        queued = null;
+                        writeSimple(out, "OK");
+                        return true;
+                    case "EXEC":
+                        return exec(out);
+                    default:
+                        break;
+                }
+
+                if (queued != null) {
+                    String error = check(name, args);
+                    if (error != null) {
+                        queueError = true;
+                        writeError(out, error);
+                    } else {
+                        queued.add(args);
+                        writeSimple(out, "QUEUED");
+                    }
+                    return true;
+                }
+
+                String error = check(name, args);
+                if (error != null) {
+                    writeError(out, error);
+                } else {
+                    synchronized (databases) {
+                        writeReply(out, execute(name, args));
+                    }
+                }
+                return true;
+            }
+
+            private boolean exec(OutputStream out) throws IOException {
+                if (queued == null) {
+                    writeError(out, "ERR EXEC without MULTI");
+                    return true;
+                }
+                List<List<String>> commands = queued;
+                queued = null;
+
+                if (!dropChecked) {
+                    dropChecked = true;
+                    if (dropConnections.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                        return false;
+                    }
+                }
+                if (queueError || failTransactions.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    writeError(out, "EXECABORT Transaction discarded because of previous errors.");
+                    return true;
+                }
+
+                List<Object> results = new ArrayList<>();
+                synchronized (databases) {
+                    for (List<String> command : commands) {
+                        results.add(execute(command.get(0).toUpperCase(Locale.ROOT), command));
+                    }
+                }
+                writeReply(out, results);
+                return true;
+            }
+
+            private String check(String name, List<String> args) {
+                switch (name) {
+                    case "PING", "DBSIZE", "FLUSHDB":
+                        return null;
+                    case "SELECT":
+                        try {
+                            Integer.parseInt(args.size() == 2 ? args.get(1) : "");
+                            return null;
+                        } catch (NumberFormatException e) {
+                            return "ERR invalid DB index";
+                        }
+                    case "HSET":
+                        return args.size() >= 4 && args.size() % 2 == 0 ? null
+                            : "ERR wrong number of arguments for 'hset' command";
+                    case "HGETALL", "KEYS":
+                        return args.size() == 2 ? null : "ERR wrong number of arguments";
+                    case "DEL":
+                        return args.size() >= 2 ? null : "ERR wrong number of arguments for 'del' command";
+                    default:
+                        return "ERR unknown command '" + args.get(0) + "'";
+                }
+            }
+
+            private Object execute(String name, List<String> args) {
+                Map<String, Map<String, String>> db = getDatabase(database);
+                switch (name) {
+                    case "PING":
+                        return "PONG";
+                    case "SELECT":
+                        database = Integer.parseInt(args.get(1));
+                        return "OK";
+                    case "HSET": {
+                        if (stringKeys.contains(database + " " + args.get(1))) {
+                            return new Error("WRONGTYPE Operation against a key holding the wrong kind of value");
+                        }
+                        Map<String, String> hash = db.computeIfAbsent(args.get(1), key -> new LinkedHashMap<>());
+                        long added = 0;
+                        for (int i = 2; i < args.size(); i += 2) {
+                            if (hash.put(args.get(i), args.get(i + 1)) == null) {
+                                added++;
+                            }
+                        }
+                        return added;
+                    }
+                    case "HGETALL": {
+                        List<Object> values = new ArrayList<>();
+                        Map<String, String> hash = db.getOrDefault(args.get(1), Map.of());
+                        for (Map.Entry<String, String> field : hash.entrySet()) {
+                            values.add(new Bulk(field.getKey()));
+                            values.add(new Bulk(field.getValue()));
+                        }
+                        return values;
+                    }
+                    case "DEL": {
+                        long removed = 0;
+                        for (int i = 1; i < args.size(); i++) {
+                            if (db.remove(args.get(i)) != null) {
+                                removed++;
+                            }
+                        }
+                        return removed;
+                    }
+                    case "KEYS": {
+                        List<Object> keys = new ArrayList<>();
+                        for (String key : db.keySet()) {
+                            if (args.get(1).equals("*") || args.get(1).equals(key)) {
+                                keys.add(new Bulk(key));
+                            }
+                        }
+                        return keys;
+                    }
+                    case "DBSIZE":
+                        return (long) db.size();
+                    case "FLUSHDB":
+                        db.clear();
+                        return "OK";
+                    default:
+                        throw new IllegalStateException(name);
+                }
+            }
+        }
+
+        /**
+         * A value to send as a bulk string rather than a simple string
+         */
+        private record Bulk(String value) {
+        }
+
+        /**
+         * An error reply, e.g. for one command of a transaction
+         */
+        private record Error(String message) {
+        }
+
+        /**
+         * Next command as an array of bulk strings; null at the end of the stream, empty if
+         * it is not an array of bulk strings
+         */
+        private static List<String> readRequest(InputStream in) throws IOException {
+            int type = in.read();
+            if (type < 0) {
+                return null;
+            }
+            int count = Integer.parseInt(readLine(in));
+            if (type != '*') {
+                return List.of();
+            }
+            List<String> args = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                if (in.read() != '$') {
+                    return List.of();
+                }
+                int length = Integer.parseInt(readLine(in));
+                byte[] data = in.readNBytes(length + 2);
+                if (data.length < length + 2) {
+                    throw new EOFException("Truncated bulk string");
+                }
+                args.add(new String(data, 0, length, StandardCharsets.UTF_8));
+            }
+            return args;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            StringBuilder line = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\r') {
+                if (c < 0) {
+                    throw new EOFException("Connection closed");
+                }
+                line.append((char) c);
+            }
+            in.read();
+            return line.toString();
+        }
+
+        private static void writeReply(OutputStream out, Object reply) throws IOException {
+            if (reply instanceof String simple) {
+                writeSimple(out, simple);
+            } else if (reply instanceof Long number) {
+                out.write((":" + number + "\r\n").getBytes(StandardCharsets.US_ASCII));
+            } else if (reply instanceof Bulk bulk) {
+                byte[] data = bulk.value().getBytes(StandardCharsets.UTF_8);
+                out.write(("$" + data.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                out.write(data);
+                out.write('\r');
+                out.write('\n');
+            } else if (reply instanceof Error error) {
+                writeError(out, error.message());
+            } else if (reply instanceof List<?> list) {
+                out.write(("*" + list.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+                for (Object item : list) {
+                    writeReply(out, item);
+                }
+            }
+        }
+
+        private static void writeSimple(OutputStream out, String value) throws IOException {
+            out.write(("+" + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static void writeError(OutputStream out, String message) throws IOException {
+            out.write(("-" + message + "\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
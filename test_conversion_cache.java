@@ -0,0 +1,90 @@
+import com.cisco.sonic.converter.converter.CachingConverter;
+import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.converter.ConversionCache;
+import com.cisco.sonic.converter.model.CiscoConfig;
+import com.cisco.sonic.converter.output.SonicConfigWriter;
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+// Same stanzas as a range member and as a plain interface, an interface configured twice,
+// and two interfaces that differ in one field only
+final String TRICKY_CONFIG = """
+    hostname leaf9
+    !
+    interface range GigabitEthernet0/1-2
+     switchport mode trunk
+     switchport trunk allowed vlan 10-20
+    !
+    interface GigabitEthernet0/3
+     switchport mode trunk
+     switchport trunk allowed vlan 10-20
+    !
+    interface GigabitEthernet0/4
+     description a
+    !
+    interface GigabitEthernet0/4
+     description b
+     shutdown
+    !
+    interface GigabitEthernet0/5
+     description b
+    !
+    ip route 0.0.0.0 0.0.0.0 10.0.0.1
+    ip route 10.1.0.0 255.255.0.0 10.0.0.2 200
+    !
+    """;
+
+void main(String[] args) throws Exception {
+    System.out.println("=== Testing Conversion Cache ===\n");
+    Path dir = Files.createTempDirectory("conversion-cache");
+    CiscoConfigParser parser = new CiscoConfigParser();
+
+    Map<String, CiscoConfig> configs = new LinkedHashMap<>();
+    try (Stream<Path> files = Files.list(Path.of("examples"))) {
+        for (Path example : files.filter(file -> file.toString().endsWith(".txt")).sorted().toList()) {
+            configs.put(example.getFileName().toString(), parser.parseFile(example.toString()));
+        }
+    }
+    configs.put("tricky", parser.parseString(TRICKY_CONFIG));
+    configs.put("tricky, hostname changed", parser.parseString(TRICKY_CONFIG.replace("leaf9", "leaf10")));
+    configs.put("tricky, one field changed", parser.parseString(TRICKY_CONFIG.replace("description a", "description c")
+        .replace("description b\n shutdown", "description b\n mtu 9100")));
+
+    SonicConfigWriter writer = new SonicConfigWriter();
+    ConfigConverter converter = new ConfigConverter();
+    Map<String, String> expected = new LinkedHashMap<>();
+    configs.forEach((name, config) -> expected.put(name, writer.writeToString(converter.convert(config))));
+
+    // Cold, then warm from memory, on one cache shared by every configuration
+    CachingConverter memory = new CachingConverter(new ConversionCache(ConversionCache.DEFAULT_MAX_ENTRIES));
+    for (String pass : List.of("cold", "warm")) {
+        configs.forEach((name, config) -> check(writer.writeToString(memory.convert(config)).equals(expected.get(name)),
+            name + ": " + pass + " memory cache matches ConfigConverter"));
+    }
+    check(memory.getCache().getMemoryHits() > 0, "Memory cache reused stanzas: " + memory.getCache());
+
+    // Cold on disk, then warm from disk only: a fresh cache holding one entry in memory
+    Path cacheDir = dir.resolve("cache");
+    CachingConverter cold = new CachingConverter(new ConversionCache(ConversionCache.DEFAULT_MAX_ENTRIES, cacheDir));
+    configs.forEach((name, config) -> check(writer.writeToString(cold.convert(config)).equals(expected.get(name)),
+        name + ": cold disk cache matches ConfigConverter"));
+    CachingConverter warm = new CachingConverter(new ConversionCache(1, cacheDir));
+    configs.forEach((name, config) -> check(writer.writeToString(warm.convert(config)).equals(expected.get(name)),
+        name + ": warm disk cache matches ConfigConverter"));
+    check(warm.getCache().getDiskHits() > 0 && warm.getCache().getMisses() == 0,
+        "Warm disk cache converted nothing: " + warm.getCache());
+
+    try (Stream<Path> files = Files.walk(dir)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+    }
+    System.out.println("\n=== Conversion Cache Test Complete ===");
+}
+
+void check(boolean ok, String message) {
+    System.out.println((ok ? "✓ " : "✗ ") + message);
+    if (!ok) {
+        System.exit(1);
+    }
+}
@@ -0,0 +1,79 @@
+import com.cisco.sonic.converter.ConversionServer;
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.output.SonicCliGenerator;
+import com.cisco.sonic.converter.output.SonicConfigWriter;
+import com.cisco.sonic.converter.model.SonicConfig;
+import java.net.URI;
+import java.net.http.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+void main(String[] args) throws Exception {
+    System.out.println("=== Testing Conversion Service ===\n");
+
+    String configPath = args.length > 0 ? args[0] : "examples/complex_cisco_config.txt";
+    String config = Files.readString(Path.of(configPath));
+    SonicConfig sonicConfig = new ConfigConverter().convert(new CiscoConfigParser().parseString(config));
+    String expectedJson = new SonicConfigWriter().writeToString(sonicConfig);
+    String expectedScript = new SonicCliGenerator(true, 4).generateCommands(sonicConfig);
+
+    try (ConversionServer server = new ConversionServer(0)) {
+        server.start();
+        String base = "http://localhost:" + server.getPort();
+        HttpClient client = HttpClient.newHttpClient();
+        System.out.println("✓ Listening on " + base);
+
+        check(get(client, base + "/health").body().equals("OK\n"), "Health check");
+        check(post(client, base + "/parse", config).body().contains("\"interfaces\""), "Parse summary");
+        check(post(client, base + "/convert", config).body().equals(expectedJson), "config_db.json matches the converter");
+        check(post(client, base + "/convert?format=cli&optimized=true&jobs=4", config).body().equals(expectedScript),
+            "CLI script matches the generator");
+        check(post(client, base + "/validate", config).body().contains("\"valid\""), "Validation report");
+        check(post(client, base + "/convert?format=xml", config).statusCode() == 400, "Unknown format rejected");
+        check(get(client, base + "/convert").statusCode() == 405, "GET rejected");
+
+        // Warm up, then time sequential and concurrent conversions
+        for (int i = 0; i < 500; i++) {
+            post(client, base + "/convert", config);
+        }
+        int requests = 200;
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            post(client, base + "/convert", config);
+        }
+        double sequential = (System.nanoTime() - start) / 1e6 / requests;
+        System.out.printf("✓ Warm conversion: %.2f ms per request%n", sequential);
+
+        try (ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(callers.submit(() -> post(client, base + "/convert", config).body().equals(expectedJson)));
+            }
+            for (Future<Boolean> result : results) {
+                check(result.get(), "Concurrent request");
+            }
+        }
+    }
+
+    System.out.println("\n=== Conversion Service Test Complete ===");
+}
+
+HttpResponse<String> get(HttpClient client, String url) throws Exception {
+    return client.send(HttpRequest.newBuilder(URI.create(url)).build(), HttpResponse.BodyHandlers.ofString());
+}
+
+HttpResponse<String> post(HttpClient client, String url, String body) throws Exception {
+    HttpRequest request = HttpRequest.newBuilder(URI.create(url)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+    return client.send(request, HttpResponse.BodyHandlers.ofString());
+}
+
+void check(boolean ok, String message) {
+    if (!ok || !message.equals("Concurrent request")) {
+        System.out.println((ok ? "✓ " : "✗ ") + message);
+    }
+    if (!ok) {
+        System.exit(1);
+    }
+}
@@ -0,0 +1,95 @@
+import com.cisco.sonic.converter.model.CiscoConfig;
+import com.cisco.sonic.converter.model.InterfaceConfig;
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+import com.cisco.sonic.converter.parser.ConfigEventHandler;
+import com.cisco.sonic.converter.parser.RawLineRetention;
+import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.converter.StreamingConverter;
+import com.cisco.sonic.converter.output.SonicConfigWriter;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+// Gi0/2 is a range member configured again on its own; Gi0/5 is a plain interface
+// configured twice. The second stanza replaces the first in both cases.
+final String REDECLARED = """
+    interface range GigabitEthernet0/1-3
+     switchport mode trunk
+     switchport trunk allowed vlan 10-20
+     mtu 9100
+     shutdown
+    !
+    interface GigabitEthernet0/5
+     switchport mode access
+     switchport access vlan 30
+     shutdown
+    !
+    interface GigabitEthernet0/2
+     description uplink
+    !
+    interface GigabitEthernet0/5
+     description server
+    !
+    """;
+
+void main(String[] args) throws Exception {
+    System.out.println("=== Testing Interface Ranges ===\n");
+
+    CiscoConfig config = new CiscoConfigParser().parseString(REDECLARED);
+    InterfaceConfig member = config.getInterfaces().get("GigabitEthernet0/2");
+    check("uplink".equals(member.getDescription()) && "routed".equals(member.getMode()) && member.getMtu() == 1500
+        && member.isEnabled() && member.getAllowedVlans().isEmpty(), "Range member configured again starts afresh");
+    InterfaceConfig plain = config.getInterfaces().get("GigabitEthernet0/5");
+    check("server".equals(plain.getDescription()) && "routed".equals(plain.getMode()) && plain.getAccessVlan() == null
+        && plain.isEnabled(), "Plain interface configured again starts afresh");
+    InterfaceConfig other = config.getInterfaces().get("GigabitEthernet0/3");
+    check("trunk".equals(other.getMode()) && other.getMtu() == 9100 && !other.isEnabled(),
+        "Other range members keep the range settings");
+    check(new ArrayList<>(config.getInterfaces().keySet()).equals(List.of("GigabitEthernet0/1", "GigabitEthernet0/2",
+        "GigabitEthernet0/3", "GigabitEthernet0/5")), "Interfaces in first-declaration order");
+
+    // Event mode reports each stanza's interfaces as the stanza ends
+    Map<String, InterfaceConfig> lastStanza = new LinkedHashMap<>();
+    new CiscoConfigParser().parseString(REDECLARED, new ConfigEventHandler() {
+        @Override
+        public void onInterfaceEnd(InterfaceConfig interfaceConfig) {
+            lastStanza.put(interfaceConfig.getName(), interfaceConfig);
+        }
+    });
+    check(describe(lastStanza).equals(describe(config.getInterfaces())), "Event mode: last stanzas match");
+
+    // Parallel mode, repeated past one batch so stanzas override those of an earlier batch
+    Path file = Files.createTempFile("interface-range", ".txt");
+    Files.writeString(file, REDECLARED.repeat(200));
+    CiscoConfig sequential = new CiscoConfigParser().parseFile(file.toString());
+    CiscoConfig parallel = new CiscoConfigParser(RawLineRetention.NONE, ForkJoinPool.commonPool()).parseFile(file.toString());
+    check(describe(parallel.getInterfaces()).equals(describe(sequential.getInterfaces())), "Parallel mode matches");
+
+    StreamingConverter streamingConverter = new StreamingConverter();
+    new CiscoConfigParser().parseFile(file.toString(), streamingConverter);
+    SonicConfigWriter writer = new SonicConfigWriter();
+    check(writer.writeToString(streamingConverter.getSonicConfig())
+        .equals(writer.writeToString(new ConfigConverter().convert(sequential))), "Streaming conversion matches");
+    Files.delete(file);
+
+    System.out.println("\n=== Interface Range Test Complete ===");
+}
+
+/**
+ * The settings the converter reads, per interface
+ */
+String describe(Map<String, InterfaceConfig> interfaces) {
+    StringBuilder text = new StringBuilder();
+    interfaces.forEach((name, iface) -> text.append(name).append(": ").append(iface.getMode())
+        .append(' ').append(iface.getAccessVlan()).append(' ').append(iface.getAllowedVlans())
+        .append(' ').append(iface.getMtu()).append(' ').append(iface.isEnabled())
+        .append(' ').append(iface.getDescription()).append('\n'));
+    return text.toString();
+}
+
+void check(boolean ok, String message) {
+    System.out.println((ok ? "✓ " : "✗ ") + message);
+    if (!ok) {
+        System.exit(1);
+    }
+}
@@ -0,0 +1,221 @@
+import com.cisco.sonic.converter.CiscoToSonicConverter;
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.output.SonicConfigMerger;
+import com.cisco.sonic.converter.output.SonicConfigMerger.Action;
+import com.cisco.sonic.converter.output.SonicConfigReader;
+import com.cisco.sonic.converter.output.SonicConfigWriter;
+import com.cisco.sonic.converter.output.SonicPatchGenerator;
+import com.cisco.sonic.converter.output.SonicPatchGenerator.PatchOperation;
+import com.cisco.sonic.converter.model.SonicConfig;
+import com.cisco.sonic.converter.model.SonicRow;
+import java.nio.file.*;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.*;
+import java.util.stream.*;
+
+// A small switch: a routed uplink and an access port in VLAN 10
+final String CISCO_CONFIG = """
+    hostname leaf1
+    !
+    vlan 10
+     name users
+    !
+    interface GigabitEthernet0/1
+     description uplink/core
+     no switchport
+     ip address 10.0.1.1 255.255.255.252
+     no shutdown
+    !
+    interface GigabitEthernet0/2
+     description server
+     switchport mode access
+     switchport access vlan 10
+     no shutdown
+    !
+    """;
+
+// What the device runs now: real metadata, platform fields on PORT, and rows and tables
+// the converter knows nothing about
+final String DEVICE_CONFIG = """
+    {
+        "DEVICE_METADATA": {
+            "localhost": {
+                "hostname": "leaf1-old",
+                "mac": "52:54:00:12:34:56",
+                "platform": "x86_64-accton_as7326_56x-r0",
+                "hwsku": "Accton-AS7326-56X",
+                "bgp_asn": "65001"
+            }
+        },
+        "BGP_NEIGHBOR": {
+            "10.0.0.1": {"asn": "65100", "name": "spine1"}
+        },
+        "PORT": {
+            "Ethernet1": {"alias": "Eth1/1", "lanes": "1,2,3,4", "index": "1", "admin_status": "down", "description": "old"},
+            "Ethernet2": {"alias": "Eth1/2", "lanes": "5,6,7,8", "index": "2"},
+            "Ethernet48": {"alias": "Eth1/48", "lanes": "189,190,191,192", "index": "48"}
+        },
+        "VLAN": {
+            "Vlan99": {"vlanid": "99"}
+        }
+    }
+    """;
+
+void main(String[] args) throws Exception {
+    System.out.println("=== Testing Patch and Merge ===\n");
+    Path dir = Files.createTempDirectory("patch-merge");
+    Path cisco = Files.writeString(dir.resolve("leaf1.txt"), CISCO_CONFIG);
+    Path device = Files.writeString(dir.resolve("config_db.json"), DEVICE_CONFIG);
+
+    testReaderRoundTrip();
+    testPatchGenerator();
+    testPatchAgainstDevice(cisco, device, dir);
+    testMerge(device, dir);
+
+    try (Stream<Path> files = Files.walk(dir)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+    }
+    System.out.println("\n=== Patch and Merge Test Complete ===");
+}
+
+/**
+ * Reading what the writer wrote gives back the same document, byte for byte
+ */
+void testReaderRoundTrip() throws Exception {
+    SonicConfigReader reader = new SonicConfigReader();
+    List<Path> examples;
+    try (Stream<Path> files = Files.list(Path.of("examples"))) {
+        examples = files.filter(file -> file.toString().endsWith(".txt")).sorted().toList();
+    }
+    for (Path example : examples) {
+        SonicConfig sonicConfig = new ConfigConverter().convert(new CiscoConfigParser().parseFile(example.toString()));
+        for (SonicConfigWriter writer : List.of(new SonicConfigWriter(), new SonicConfigWriter(true))) {
+            String json = writer.writeToString(sonicConfig);
+            check(writer.writeToString(reader.readString(json)).equals(json),
+                "Round trip " + example.getFileName() + (writer.isCompact() ? " (compact)" : ""));
+        }
+    }
+}
+
+/**
+ * Field-level replaces, whole-table adds and removes, and RFC 6901 path escaping
+ */
+void testPatchGenerator() throws Exception {
+    SonicPatchGenerator generator = new SonicPatchGenerator();
+    ConfigConverter converter = new ConfigConverter();
+    CiscoConfigParser parser = new CiscoConfigParser();
+    SonicConfig oldConfig = converter.convert(parser.parseString(CISCO_CONFIG));
+    check(generator.diff(oldConfig, oldConfig).isEmpty(), "Unchanged configuration gives an empty patch");
+
+    // New uplink description and address, the access port leaves VLAN 10, a default route
+    String revised = CISCO_CONFIG
+        .replace("description uplink/core", "description uplink/spine")
+        .replace("ip address 10.0.1.1", "ip address 10.0.2.1")
+        .replace(" switchport access vlan 10\n", "")
+        + "ip route 0.0.0.0 0.0.0.0 10.0.2.2\n";
+    List<PatchOperation> operations = generator.diff(oldConfig, converter.convert(parser.parseString(revised)));
+    List<String> paths = operations.stream().map(PatchOperation::toString).toList();
+    check(paths.contains("replace /PORT/Ethernet1/description")
+        && operations.get(paths.indexOf("replace /PORT/Ethernet1/description")).value().equals("uplink/spine"),
+        "Changed field replaced");
+    check(paths.containsAll(List.of("remove /INTERFACE/Ethernet1|10.0.1.1~130", "add /INTERFACE/Ethernet1|10.0.2.1~130")),
+        "'/' in a key escaped as ~1");
+    check(paths.contains("remove /VLAN_MEMBER") && paths.contains("add /STATIC_ROUTE")
+        && paths.stream().noneMatch(path -> path.startsWith("remove /VLAN_MEMBER/") || path.startsWith("add /STATIC_ROUTE/")),
+        "Tables that go away or appear are one operation each");
+    check(paths.stream().noneMatch(path -> path.contains("DEVICE_METADATA") || path.contains("/VLAN/")),
+        "Unchanged tables left out");
+
+    SonicConfigReader reader = new SonicConfigReader();
+    String patch = generator.generate(reader.readString("{\"PORT\": {\"Eth~1/1\": {\"mtu\": \"9100\"}}}"),
+        reader.readString("{\"PORT\": {\"Eth~1/1\": {\"mtu\": \"1500\"}}}"));
+    check(patch.contains("\"path\": \"/PORT/Eth~01~11/mtu\""), "'~' escaped as ~0 before '/' as ~1");
+}
+
+/**
+ * Against a device file the patch only adds and replaces what the converter sets
+ */
+void testPatchAgainstDevice(Path cisco, Path device, Path dir) throws Exception {
+    CiscoToSonicConverter converter = new CiscoToSonicConverter();
+    String output = dir.resolve("config_db.patch.json").toString();
+
+    List<PatchOperation> merged = converter.convertPatch(device.toString(), cisco.toString(), output);
+    Set<String> paths = merged.stream().map(PatchOperation::toString).collect(Collectors.toSet());
+    check(merged.stream().noneMatch(operation -> operation.op().equals("remove")), "Nothing removed: " + merged);
+    check(merged.stream().noneMatch(operation -> operation.path().startsWith("/DEVICE_METADATA")),
+        "DEVICE_METADATA left alone");
+    check(merged.stream().noneMatch(operation -> operation.path().matches(".*(lanes|alias|index|Ethernet48|Vlan99).*")),
+        "Device-only fields and rows left alone");
+    check(paths.containsAll(List.of("replace /PORT/Ethernet1/admin_status", "add /PORT/Ethernet2/description",
+        "add /VLAN/Vlan10", "add /VLAN_MEMBER", "add /INTERFACE")), "Converted rows and fields patched in");
+
+    // The same with the Cisco side first: the device's values come back, its rows stay
+    List<PatchOperation> reversed = converter.convertPatch(cisco.toString(), device.toString(), output);
+    check(reversed.stream().noneMatch(operation -> operation.path().startsWith("/DEVICE_METADATA")
+        || operation.op().equals("remove") && operation.path().matches(".*(lanes|alias|index|Ethernet48|Vlan99).*")),
+        "Device side second: " + reversed);
+
+    // Asked to replace the tables, the device-only rows and fields of converted tables go
+    List<PatchOperation> replaced = converter.convertPatch(device.toString(), cisco.toString(), output,
+        SonicConfigMerger.Mode.REPLACE);
+    Set<String> replacedPaths = replaced.stream().map(PatchOperation::toString).collect(Collectors.toSet());
+    check(replacedPaths.containsAll(List.of("remove /PORT/Ethernet1/lanes", "remove /PORT/Ethernet48", "remove /VLAN/Vlan99"))
+        && replaced.stream().noneMatch(operation -> operation.path().startsWith("/DEVICE_METADATA")),
+        "Replace mode removes device-only rows and fields of converted tables");
+}
+
+/**
+ * Device rows, fields and tables are kept, converted ones are laid over them
+ */
+void testMerge(Path device, Path dir) throws Exception {
+    SonicConfig converted = new ConfigConverter().convert(new CiscoConfigParser().parseString(CISCO_CONFIG));
+    Path output = dir.resolve("config_db.merged.json");
+    Map<String, Action> actions = new SonicConfigMerger().mergeFile(device.toString(), converted, output.toString());
+    check(actions.equals(Map.of("DEVICE_METADATA", Action.KEPT, "BGP_NEIGHBOR", Action.KEPT, "PORT", Action.MERGED,
+        "VLAN", Action.MERGED, "VLAN_MEMBER", Action.ADDED, "INTERFACE", Action.ADDED))
+        && new ArrayList<>(actions.keySet()).subList(0, 4).equals(List.of("DEVICE_METADATA", "BGP_NEIGHBOR", "PORT", "VLAN")),
+        "Actions in document order: " + actions);
+
+    String merged = Files.readString(output);
+    String deviceMetadata = DEVICE_CONFIG.substring(DEVICE_CONFIG.indexOf('{', DEVICE_CONFIG.indexOf("DEVICE_METADATA")),
+        DEVICE_CONFIG.indexOf(",\n    \"BGP_NEIGHBOR\""));
+    check(merged.contains("\"DEVICE_METADATA\": " + deviceMetadata)
+        && merged.contains("{\"asn\": \"65100\", \"name\": \"spine1\"}"),
+        "DEVICE_METADATA and BGP_NEIGHBOR copied byte for byte");
+
+    SonicConfig result = new SonicConfigReader().readString(merged);
+    SonicRow uplink = result.getPortTable().get("Ethernet1");
+    check("1,2,3,4".equals(uplink.get("lanes")) && "Eth1/1".equals(uplink.get("alias")) && "1".equals(uplink.get("index")),
+        "Device fields kept: " + uplink.toMap());
+    check("up".equals(uplink.get("admin_status")) && "uplink/core".equals(uplink.get("description")),
+        "Converted fields win");
+    check(result.getPortTable().get("Ethernet48") != null && result.getVlanTable().get("Vlan99") != null
+        && result.getVlanTable().get("Vlan10") != null, "Device-only rows kept, new rows added");
+    check("leaf1-old".equals(((Map<?, ?>) result.getDeviceMetadata().get("localhost")).get("hostname")),
+        "Device hostname kept");
+
+    // In place, over a world-readable file: same document, same permissions
+    Path inPlace = Files.copy(device, dir.resolve("in-place.json"));
+    boolean posix = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+    if (posix) {
+        Files.setPosixFilePermissions(inPlace, PosixFilePermissions.fromString("rw-r--r--"));
+    }
+    new SonicConfigMerger().mergeFile(inPlace.toString(), converted, inPlace.toString());
+    check(Files.readString(inPlace).equals(merged), "Merged in place");
+    check(!posix || PosixFilePermissions.toString(Files.getPosixFilePermissions(inPlace)).equals("rw-r--r--"),
+        "Permissions kept");
+
+    Map<String, Action> replaced = new SonicConfigMerger(SonicConfigMerger.Mode.REPLACE, false)
+        .mergeFile(device.toString(), converted, output.toString());
+    SonicConfig replacedResult = new SonicConfigReader().readFile(output.toString());
+    check(replaced.get("PORT") == Action.REPLACED && replacedResult.getPortTable().get("Ethernet48") == null
+        && replacedResult.getPortTable().get("Ethernet1").get("lanes") == null, "Replace mode: " + replaced);
+}
+
+void check(boolean ok, String message) {
+    System.out.println((ok ? "✓ " : "✗ ") + message);
+    if (!ok) {
+        System.exit(1);
+    }
+}
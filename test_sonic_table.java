@@ -0,0 +1,54 @@
+import com.cisco.sonic.converter.model.SonicConfig;
+import com.cisco.sonic.converter.model.SonicRow;
+import com.cisco.sonic.converter.output.SonicConfigReader;
+import com.cisco.sonic.converter.output.SonicConfigWriter;
+import java.util.*;
+
+void main(String[] args) throws Exception {
+    System.out.println("=== Testing SONiC Table Views ===\n");
+
+    SonicConfig sonicConfig = new SonicConfig();
+    sonicConfig.addPort("Ethernet0", new SonicRow.Port("up", null, null, "uplink"));
+    Map<String, Map<String, Object>> ports = sonicConfig.getPorts();
+
+    // A field set through the row map lands in the table
+    Map<String, Object> port = ports.get("Ethernet0");
+    check(port.put("mtu", "9100") == null, "Field added through the row map");
+    check("9100".equals(sonicConfig.getPortTable().get("Ethernet0").get("mtu")) && "9100".equals(port.get("mtu")),
+        "Table sees the new field");
+    check("uplink".equals(port.remove("description")) && sonicConfig.getPortTable().get("Ethernet0").get("description") == null,
+        "Field removed through the row map");
+
+    // Through the entry set too
+    for (Map.Entry<String, Map<String, Object>> entry : ports.entrySet()) {
+        entry.getValue().put("speed", "100000");
+    }
+    check("100000".equals(sonicConfig.getPortTable().get("Ethernet0").get("speed")), "Field set through the entry set");
+    Iterator<Map.Entry<String, Object>> fields = ports.get("Ethernet0").entrySet().iterator();
+    while (fields.hasNext()) {
+        if (fields.next().getKey().equals("speed")) {
+            fields.remove();
+        }
+    }
+    check(ports.get("Ethernet0").equals(Map.of("admin_status", "up", "mtu", "9100")), "Field removed through the iterator");
+
+    // A null value is kept as "NULL" and written as null, then read back the same way
+    ports.put("Ethernet4", new LinkedHashMap<>(Collections.singletonMap("alias", null)));
+    check("NULL".equals(sonicConfig.getPortTable().get("Ethernet4").get("alias")), "Null field kept as NULL");
+    String json = new SonicConfigWriter().writeToString(sonicConfig);
+    check(json.contains("\"alias\": null"), "Null field written as null");
+    check(new SonicConfigWriter().writeToString(new SonicConfigReader().readString(json)).equals(json),
+        "Null field read back");
+
+    check(ports.get("Ethernet8") == null && ports.remove("Ethernet4") != null && ports.size() == 1,
+        "Rows still added and removed through the table view");
+
+    System.out.println("\n=== SONiC Table View Test Complete ===");
+}
+
+void check(boolean ok, String message) {
+    System.out.println((ok ? "✓ " : "✗ ") + message);
+    if (!ok) {
+        System.exit(1);
+    }
+}
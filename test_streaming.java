@@ -0,0 +1,104 @@
+import com.cisco.sonic.converter.CiscoToSonicConverter;
+import com.cisco.sonic.converter.parser.CiscoConfigParser;
+import com.cisco.sonic.converter.converter.ConfigConverter;
+import com.cisco.sonic.converter.converter.StreamingConverter;
+import com.cisco.sonic.converter.output.SonicConfigWriter;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.*;
+
+// Gi0/1 configured twice: the second stanza moves it from VLAN 10 to VLAN 20
+final String REPEATED_STANZA = """
+    hostname leaf1
+    !
+    vlan 10
+    !
+    vlan 20
+    !
+    interface GigabitEthernet0/1
+     switchport mode access
+     switchport access vlan 10
+    !
+    interface GigabitEthernet0/2
+     switchport mode access
+     switchport access vlan 10
+    !
+    interface GigabitEthernet0/1
+     switchport mode access
+     switchport access vlan 20
+     description moved
+    !
+    """;
+
+// Gi0/7 and Gi1/7 are both Ethernet7; Gi0/7 is configured again after Gi1/7, and its
+// address goes away, leaving INTERFACE empty
+final String REPEATED_AND_COLLIDING = """
+    interface GigabitEthernet0/7
+     no switchport
+     ip address 10.0.7.1 255.255.255.0
+    !
+    interface GigabitEthernet1/7
+     shutdown
+    !
+    interface range GigabitEthernet0/6-7
+     switchport mode trunk
+     switchport trunk allowed vlan 5-7
+    !
+    interface Port-channel1
+     shutdown
+    !
+    interface Port-channel1
+     mtu 9100
+    !
+    """;
+
+void main(String[] args) throws Exception {
+    System.out.println("=== Testing Streaming Conversion ===\n");
+    Path dir = Files.createTempDirectory("streaming");
+
+    testStreamMatchesConvertFile("Repeated stanza", Files.writeString(dir.resolve("repeated.txt"), REPEATED_STANZA), dir);
+    testStreamMatchesConvertFile("Repeated stanza with colliding names",
+        Files.writeString(dir.resolve("colliding.txt"), REPEATED_AND_COLLIDING), dir);
+    String json = Files.readString(dir.resolve("stream.json"));
+    check(!json.contains("\"INTERFACE\""), "Table whose rows were all replaced left out");
+
+    List<Path> examples;
+    try (Stream<Path> files = Files.list(Path.of("examples"))) {
+        examples = files.filter(file -> file.toString().endsWith(".txt")).sorted().toList();
+    }
+    for (Path example : examples) {
+        testStreamMatchesConvertFile(example.getFileName().toString(), example, dir);
+    }
+
+    try (Stream<Path> files = Files.walk(dir)) {
+        files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+    }
+    System.out.println("\n=== Streaming Conversion Test Complete ===");
+}
+
+/**
+ * --stream, the in-memory StreamingConverter and convertFile write the same document
+ */
+void testStreamMatchesConvertFile(String name, Path input, Path dir) throws Exception {
+    CiscoToSonicConverter converter = new CiscoToSonicConverter();
+    Path expected = dir.resolve("expected.json");
+    Path streamed = dir.resolve("stream.json");
+    converter.convertFile(input.toString(), expected.toString());
+    converter.convertFileStreaming(input.toString(), streamed.toString());
+    String json = Files.readString(expected);
+    check(Files.readString(streamed).equals(json), name + ": --stream output equals convertFile output");
+
+    StreamingConverter streamingConverter = new StreamingConverter();
+    new CiscoConfigParser().parseFile(input.toString(), streamingConverter);
+    SonicConfigWriter writer = new SonicConfigWriter();
+    check(writer.writeToString(streamingConverter.getSonicConfig()).equals(
+        writer.writeToString(new ConfigConverter().convert(new CiscoConfigParser().parseFile(input.toString())))),
+        name + ": in-memory streaming equals ConfigConverter");
+}
+
+void check(boolean ok, String message) {
+    System.out.println((ok ? "✓ " : "✗ ") + message);
+    if (!ok) {
+        System.exit(1);
+    }
+}